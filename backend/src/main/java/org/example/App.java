@@ -1,325 +1,338 @@
 // src/main/java/org/example/gods/App.java
 package org.example;
 
-import fi.iki.elonen.NanoHTTPD;
-import org.json.JSONObject;
-import java.io.File;
-import java.io.FileInputStream;
+import fi.iki.elonen.NanoWSD;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
 import java.util.*;
-import java.util.stream.Collectors;
-import org.example.gods.*; // Ensure all strategy classes are imported
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.example.engine.OpeningBook;
+import org.example.engine.TurnGenerator;
+import org.example.server.AdmissionControl;
+import org.example.server.ExecutorAsyncRunner;
+import org.example.server.HttpRequest;
+import org.example.server.HttpResponse;
+import org.example.server.NioHttpServer;
+
+public class App extends NanoWSD {
+    private static final Logger logger = Logger.getLogger(App.class.getName());
+
+    private static final int PORT = 8080;
+    // WebSockets are pinged well within the socket read timeout, which would otherwise close idle ones
+    private static final long PING_INTERVAL_MILLIS = SOCKET_READ_TIMEOUT / 3;
+    // Larger bodies are left to NanoHTTPD, which spools them to a temporary file
+    private static final int MAX_DIRECT_BODY_BYTES = 1 << 20;
+
+    private final GameApi api;
+    private final ScheduledExecutorService pinger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "websocket-ping");
+        thread.setDaemon(true);
+        return thread;
+    });
 
-public class App extends NanoHTTPD {
+    public App() throws IOException {
+        this(null);
+    }
 
-    private Game game;
+    /**
+     * @param openingBook Book consulted by /hint before searching, or null for none.
+     */
+    public App(OpeningBook openingBook) throws IOException {
+        this(openingBook, new DefaultAsyncRunner());
+    }
 
-    public App() throws IOException {
-        super(8080);
-        this.game = new Game(); // Players will choose their God strategies via API
-        start(SOCKET_READ_TIMEOUT, false);
-        System.out.println("Server running at http://localhost:8080/");
+    /**
+     * @param openingBook Book consulted by /hint before searching, or null for none.
+     * @param runner      Runs each connection; see {@link ExecutorAsyncRunner#fromSpec(String)}.
+     */
+    public App(OpeningBook openingBook, AsyncRunner runner) throws IOException {
+        this(openingBook, runner, AdmissionControl.defaults());
     }
 
-    public static void main(String[] args) {
-        try {
-            new App();
-        } catch (IOException e) {
-            System.err.println("Couldn't start server:\n" + e);
-        }
+    /**
+     * @param openingBook Book consulted by /hint before searching, or null for none.
+     * @param runner      Runs each connection; see {@link ExecutorAsyncRunner#fromSpec(String)}.
+     * @param admission   Limits on requests in flight; see {@link AdmissionControl#fromSpec(String)}.
+     */
+    public App(OpeningBook openingBook, AsyncRunner runner, AdmissionControl admission) throws IOException {
+        super(PORT);
+        this.api = new GameApi(openingBook, admission);
+        setAsyncRunner(runner);
+        start(SOCKET_READ_TIMEOUT, false);
+        System.out.println("Server running at http://localhost:8080/");
     }
 
     @Override
-    public Response serve(IHTTPSession session) {
-        String uri = session.getUri();
-        Method method = session.getMethod();
+    public void stop() {
+        pinger.shutdownNow();
+        api.close();
+        super.stop();
+    }
 
+    /**
+     * Starts the server. Options: {@code --book FILE} loads an opening book for /hint;
+     * {@code --transport nanohttpd|nio} picks the server; {@code --runner virtual|pooled:N|thread}
+     * picks how NanoHTTPD runs connections; {@code --selectors N} sets the NIO selector threads;
+     * {@code --admission actions=N,reads=N,ai=N,shared=N} sets the limits on requests in flight;
+     * {@code --warmup GAMES} plays that many synthetic games before the port is bound, so that the
+     * first clients, and the first {@code GET /ready}, find compiled code.
+     */
+    public static void main(String[] args) {
         try {
-            if (uri.equals("/") || uri.startsWith("/static/")) {
-                return addCORSHeaders(serveStaticFile(uri));
-            } else if (method == Method.POST && uri.equals("/start-game")) {
-                return addCORSHeaders(handleStartGame(session));
-            } else if (method == Method.GET && uri.equals("/game-state")) {
-                return addCORSHeaders(handleGetGameState());
-            } 
-            else if (method == Method.GET && uri.equals("/selectable-move-cells")) {
-                return addCORSHeaders(handleGetSelectableMoveCells(session));
-            } else if (method == Method.GET && uri.equals("/selectable-build-cells")) {
-                return addCORSHeaders(handleGetSelectableBuildCells(session));
+            TurnGenerator.quietSimulations(); // Engine endpoints simulate many actions per request
+            OpeningBook openingBook = null;
+            String transport = "nanohttpd";
+            // Virtual threads keep thousands of idle keep-alive connections cheap where the JVM has them
+            String runner = ExecutorAsyncRunner.virtualThreadsAvailable() ? "virtual" : "thread";
+            int selectors = Runtime.getRuntime().availableProcessors();
+            AdmissionControl admission = AdmissionControl.defaults();
+            int warmupGames = 0;
+            for (int i = 0; i + 1 < args.length; i += 2) {
+                switch (args[i]) {
+                    case "--book": openingBook = OpeningBook.open(Paths.get(args[i + 1])); break;
+                    case "--transport": transport = args[i + 1]; break;
+                    case "--runner": runner = args[i + 1]; break;
+                    case "--selectors": selectors = Integer.parseInt(args[i + 1]); break;
+                    case "--admission": admission = AdmissionControl.fromSpec(args[i + 1]); break;
+                    case "--warmup": warmupGames = Integer.parseInt(args[i + 1]); break;
+                    default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+                }
             }
-            else if (method == Method.POST && uri.equals("/action")) {
-                return addCORSHeaders(handleAction(session));
-            } else if (method == Method.OPTIONS) {
-                // Handle CORS preflight requests
-                return addCORSHeaders(newFixedLengthResponse(Response.Status.OK, "text/plain", ""));
-            } else {
-                return addCORSHeaders(createJsonResponse(Response.Status.NOT_FOUND, Map.of("error", "Endpoint not found")));
+            if (openingBook != null) {
+                System.out.println("Loaded opening book with " + openingBook.size() + " positions");
+            }
+            if (warmupGames > 0) {
+                warmUp(warmupGames);
             }
-        } catch (Exception e) {
-            e.printStackTrace();
-            return addCORSHeaders(createJsonResponse(Response.Status.INTERNAL_ERROR, Map.of("error", e.getMessage())));
-        }
-    }
 
-    private GodStrategy createGodStrategy(String godName) {
-        switch (godName.toLowerCase()) {
-            case "demeter":
-                return new DemeterGodStrategy();
-            case "hephaestus":
-                return new HephaestusGodStrategy();
-            case "minotaur":
-                return new MinotaurGodStrategy();
-            case "pan":
-                return new PanGodStrategy();
-            case "apollo":
-                return new ApolloGodStrategy();
-            case "artemis":
-                return new ArtemisGodStrategy();
-            case "athena":
-                return new AthenaGodStrategy();
-            // case "prometheus":
-            //     return new PrometheusGodStrategy(); // Uncomment if needed
-            // case "atlas":
-            //     return new AtlasGodStrategy(); // Uncomment if needed
-            case "hermes":
-                return new HermesGodStrategy();
-            default:
-                return new DefaultGodStrategy(); // Use default strategy if invalid
+            if (transport.equals("nio")) {
+                ExecutorService workers = ExecutorAsyncRunner.virtualThreadsAvailable()
+                        ? ExecutorAsyncRunner.virtualThreadExecutor()
+                        : Executors.newFixedThreadPool(64);
+                new NioHttpServer(PORT, new GameApi(openingBook, admission), selectors, workers).start();
+                System.out.println("Server running at http://localhost:8080/ on NIO with " + selectors + " selectors");
+            } else if (transport.equals("nanohttpd")) {
+                new App(openingBook, ExecutorAsyncRunner.fromSpec(runner), admission);
+                System.out.println("Serving connections with the " + runner + " runner");
+            } else {
+                throw new IllegalArgumentException("Unknown transport: " + transport + " (expected nanohttpd or nio)");
+            }
+        } catch (IOException e) {
+            System.err.println("Couldn't start server:\n" + e);
         }
     }
 
-    private Response handleStartGame(IHTTPSession session) throws Exception {
-        Map<String, String> postData = new HashMap<>();
-        try {
-            session.parseBody(postData);
-        } catch (ResponseException | IOException e) {
-            throw new Exception("Error parsing request body: " + e.getMessage());
-        }
-
-        String jsonBody = postData.get("postData");
-        if (jsonBody == null || jsonBody.isEmpty()) {
-            throw new Exception("Empty request body.");
-        }
-
-        JSONObject json;
+    /**
+     * Plays synthetic games on a throwaway {@link GameApi}; see {@link Warmup}.
+     *
+     * @throws IllegalStateException If an endpoint failed, so that a broken build never starts serving.
+     */
+    private static void warmUp(int games) {
+        long start = System.nanoTime();
+        GameApi warmupApi = new GameApi(null);
+        // The synthetic games are played like live ones, so they would log like them; nothing else runs yet
+        TurnGenerator.quietLogging();
         try {
-            json = new JSONObject(jsonBody);
+            int requests = Warmup.run(warmupApi, games, 1);
+            System.out.printf("Warmed up with %d games (%d requests) in %d ms%n",
+                    games, requests, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
         } catch (Exception e) {
-            throw new Exception("Invalid JSON format.");
+            throw new IllegalStateException("Warm-up failed", e);
+        } finally {
+            TurnGenerator.restoreLogging();
+            warmupApi.close();
         }
+    }
 
-        String playerAGod = json.optString("playerAGod", "").toLowerCase();
-        String playerBGod = json.optString("playerBGod", "").toLowerCase();
-
-        // Validate and create GodStrategy instances
-        GodStrategy playerAStrategy = createGodStrategy(playerAGod);
-        GodStrategy playerBStrategy = createGodStrategy(playerBGod);
-
-        // Check if both gods are valid (i.e., not DefaultGodStrategy)
-        if (playerAGod.isEmpty() || playerBGod.isEmpty()) {
-            throw new Exception("God names cannot be empty.");
+    /**
+     * Upgrades {@code /ws} and {@code /games/{id}/ws} to WebSockets; everything else is plain HTTP.
+     */
+    @Override
+    public Response serve(IHTTPSession session) {
+        if (isWebsocketRequested(session) && !api.isChannel(session.getUri())) {
+            return serveHttp(session); // Not a channel, so answered like any unknown endpoint
         }
+        return super.serve(session);
+    }
 
-        // Optionally, check if gods are unique or allow duplicates
-        // For example, to prevent both players from having the same god:
-        if (playerAGod.equals(playerBGod)) {
-            throw new Exception("Both players cannot have the same God.");
-        }
+    @Override
+    protected WebSocket openWebSocket(IHTTPSession handshake) {
+        return new GameWebSocket(handshake);
+    }
 
-        this.game = new Game(playerAStrategy, playerBStrategy);
-
-        // Prepare the game state to return
-        Map<String, Object> state = new HashMap<>();
-        state.put("message", "Game started with chosen Gods.");
-        state.put("grid", serializeGrid());
-        state.put("workers", serializeWorkers());
-        state.put("currentPlayer", game.getCurrentPlayer().getName());
-        state.put("gamePhase", game.getCurrentPhase().toString());
-        state.put("gameEnded", game.isGameEnded());
-        String status = game.isGameEnded() ? game.getWinner() + " Wins!" : "In Progress";
-        state.put("status", status);
-        state.put("playerAGod", game.getPlayerA().getGodStrategy().getName());
-        state.put("playerBGod", game.getPlayerB().getGodStrategy().getName());
-
-        // Ensure strategyState is never null
-        Map<String, Object> strategyState = game.getCurrentPlayer().getGodStrategy().getStrategyState();
-        if (strategyState == null) {
-            strategyState = new HashMap<>();
+    /**
+     * Adapts NanoHTTPD sessions to the transport-neutral {@link GameApi}.
+     */
+    @Override
+    protected Response serveHttp(IHTTPSession session) {
+        byte[] body = new byte[0];
+        if (session.getMethod() == Method.POST || session.getMethod() == Method.PUT) {
+            try {
+                body = readBody(session);
+            } catch (ResponseException | IOException e) {
+                return toResponse(api.error("Error parsing request body: " + e.getMessage()));
+            }
         }
-        state.put("strategyState", strategyState);
 
-        state.put("currentPlayerGod", game.getCurrentPlayer().getGodStrategy().getName());
-
-        return createJsonResponse(Response.Status.OK, state);
+        Map<String, String> params = session.getParms() != null ? session.getParms() : Map.of();
+        Map<String, String> headers = session.getHeaders() != null ? session.getHeaders() : Map.of();
+        return toResponse(api.handle(new HttpRequest(session.getMethod().name(), session.getUri(), params, headers, body)));
     }
 
-    private Response handleGetSelectableBuildCells(IHTTPSession session) throws Exception {
-        Map<String, String> params = session.getParms();
-        int workerIndex = Integer.parseInt(params.get("workerIndex"));
+    /**
+     * Reads a request body straight from the connection when its length is known and it is not a
+     * form. Otherwise {@link IHTTPSession#parseBody(Map)} decodes it, which may go through a
+     * temporary file.
+     */
+    private static byte[] readBody(IHTTPSession session) throws ResponseException, IOException {
+        Map<String, String> headers = session.getHeaders() != null ? session.getHeaders() : Map.of();
+        String contentLength = headers.get("content-length");
+        String contentType = headers.getOrDefault("content-type", "");
+        if (contentLength != null && !contentType.startsWith("multipart/form-data")
+                && !contentType.startsWith("application/x-www-form-urlencoded")) {
+            try {
+                long length = Long.parseLong(contentLength.trim());
+                if (length >= 0 && length <= MAX_DIRECT_BODY_BYTES) {
+                    byte[] body = session.getInputStream().readNBytes((int) length);
+                    if (body.length < length) throw new IOException("Request body ended early.");
+                    return body;
+                }
+            } catch (NumberFormatException e) {
+                // Left to parseBody
+            }
+        }
 
-        List<Map<String, Integer>> selectableCells = game.getSelectableBuildCells(workerIndex);
-        Map<String, Object> response = new HashMap<>();
-        response.put("selectableCells", selectableCells);
-        return createJsonResponse(Response.Status.OK, response);
+        Map<String, String> postData = new HashMap<>();
+        session.parseBody(postData);
+        String body = postData.get("postData");
+        return body != null ? body.getBytes(StandardCharsets.UTF_8) : new byte[0];
     }
 
-    private Response handleGetSelectableMoveCells(IHTTPSession session) throws Exception {
-        Map<String, String> params = session.getParms();
-        int workerIndex = Integer.parseInt(params.get("workerIndex"));
-
-        List<Map<String, Integer>> selectableCells = game.getSelectableMoveCells(workerIndex);
-        Map<String, Object> response = new HashMap<>();
-        response.put("selectableCells", selectableCells);
-        return createJsonResponse(Response.Status.OK, response);
+    /**
+     * Event streams must reach the client as they are written, which gzip's buffering would prevent.
+     * Responses that vary by Accept-Encoding, such as static files, have already picked their encoding.
+     */
+    @Override
+    protected boolean useGzipWhenAccepted(Response response) {
+        return super.useGzipWhenAccepted(response) && !"text/event-stream".equals(response.getMimeType())
+                && !String.valueOf(response.getHeader("Vary")).contains("Accept-Encoding");
     }
 
-    private Response handleGetGameState() throws Exception {
-        return createGameStateResponse(null);
-    }
+    /**
+     * Carries a {@link GameApi.Channel} over a WebSocket.
+     */
+    private class GameWebSocket extends WebSocket {
+        private GameApi.Channel channel;
+        private ScheduledFuture<?> pings;
 
-    private Response handleAction(IHTTPSession session) throws Exception {
-        Map<String, String> postData = new HashMap<>();
-        try {
-            session.parseBody(postData);
-        } catch (ResponseException | IOException e) {
-            throw new Exception("Error parsing request body: " + e.getMessage());
+        GameWebSocket(IHTTPSession handshake) {
+            super(handshake);
         }
 
-        String jsonBody = postData.get("postData");
-        if (jsonBody == null || jsonBody.isEmpty()) {
-            throw new Exception("Empty request body.");
+        @Override
+        protected void onOpen() {
+            try {
+                channel = api.openChannel(getHandshakeRequest().getUri(), text -> {
+                    try {
+                        send(text);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                if (channel == null) {
+                    // The game ended between the handshake and now
+                    close(WebSocketFrame.CloseCode.PolicyViolation, "Game not found.", false);
+                    return;
+                }
+                pings = pinger.scheduleAtFixedRate(() -> {
+                    try {
+                        ping(new byte[0]);
+                    } catch (IOException e) {
+                        onException(e);
+                    }
+                }, PING_INTERVAL_MILLIS, PING_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (Exception e) {
+                // Say so rather than leave an open socket that never sends a state, so the client reconnects
+                logger.log(Level.WARNING, "Could not open a channel for " + getHandshakeRequest().getUri(), e);
+                if (channel != null) channel.close();
+                try {
+                    close(WebSocketFrame.CloseCode.InternalServerError, "Could not open the channel.", false);
+                } catch (IOException ignored) {
+                    // The connection is gone anyway
+                }
+            }
         }
 
-        JSONObject json;
-        try {
-            json = new JSONObject(jsonBody);
-        } catch (Exception e) {
-            throw new Exception("Invalid JSON format.");
+        @Override
+        protected void onClose(WebSocketFrame.CloseCode code, String reason, boolean initiatedByRemote) {
+            if (pings != null) pings.cancel(false);
+            if (channel != null) channel.close();
         }
 
-        String actionType = json.optString("actionType", "");
-        int workerIndex = json.optInt("workerIndex", -1);
-        int x = json.optInt("x", -1);
-        int y = json.optInt("y", -1);
-        boolean buildDome = json.optBoolean("buildDome", false); // For Atlas
-
-        switch (actionType) {
-            case "placeWorker":
-                if (x == -1 || y == -1) throw new Exception("Invalid coordinates for placement.");
-                game.placeWorker(x, y);
-                break;
-
-            case "move":
-                if (workerIndex == -1 || x == -1 || y == -1) throw new Exception("Invalid move parameters.");
-                game.moveWorker(workerIndex, x, y);
-                break;
-
-            case "build":
-                if (workerIndex == -1 || x == -1 || y == -1) throw new Exception("Invalid build parameters.");
-                // Strategies handle build actions internally
-                game.build(x, y);
-                break;
-
-            case "endTurn":
-                game.getCurrentPlayer().getGodStrategy().playerEndsTurn(game);
-                break;
-
-            default:
-                throw new Exception("Unknown action type.");
+        @Override
+        protected void onMessage(WebSocketFrame message) {
+            if (channel != null) channel.onMessage(message.getTextPayload());
         }
 
-        return createGameStateResponse("Action " + actionType + " processed successfully.");
-    }
+        @Override
+        protected void onPong(WebSocketFrame pong) {
+        }
 
-    private Response createGameStateResponse(String message) throws Exception {
-        Map<String, Object> state = new HashMap<>();
-        if (message != null) state.put("message", message);
-        state.put("grid", serializeGrid());
-        state.put("workers", serializeWorkers());
-        state.put("currentPlayer", game.getCurrentPlayer().getName());
-        state.put("gamePhase", game.getCurrentPhase().toString());
-        state.put("gameEnded", game.isGameEnded());
-        String status = game.isGameEnded() ? game.getWinner() + " Wins!" : "In Progress";
-        state.put("status", status);
-        state.put("winner", game.getWinner()); // Add this line
-        state.put("playerAGod", game.getPlayerA().getGodStrategy().getName());
-        state.put("playerBGod", game.getPlayerB().getGodStrategy().getName());
-
-        // Ensure strategyState is never null
-        Map<String, Object> strategyState = game.getCurrentPlayer().getGodStrategy().getStrategyState();
-        if (strategyState == null) {
-            strategyState = new HashMap<>();
+        @Override
+        protected void onException(IOException exception) {
+            if (pings != null) pings.cancel(false);
+            if (channel != null) channel.close();
         }
-        state.put("strategyState", strategyState);
+    }
 
-        state.put("currentPlayerGod", game.getCurrentPlayer().getGodStrategy().getName());
-        return createJsonResponse(Response.Status.OK, state);
+    private Response toResponse(HttpResponse response) {
+        Response.Status status = Response.Status.lookup(response.getStatus());
+        Response converted = response.isChunked()
+                ? newChunkedResponse(status, response.getContentType(), response.getStream())
+                : newFixedLengthResponse(status, response.getContentType(),
+                        new BufferInputStream(response.getBodyBuffer()), response.getContentLength());
+        response.getHeaders().forEach(converted::addHeader);
+        return converted;
     }
 
-    private List<List<Map<String, Object>>> serializeGrid() throws Exception {
-        int boardSize = 5;
-        List<List<Map<String, Object>>> serializedGrid = new ArrayList<>();
-
-        for (int x = 0; x < boardSize; x++) {
-            List<Map<String, Object>> row = new ArrayList<>();
-            for (int y = 0; y < boardSize; y++) {
-                Map<String, Object> cell = new HashMap<>();
-                cell.put("x", x);
-                cell.put("y", y);
-                cell.put("height", game.getBoard().getTowerHeight(x, y));
-
-                Worker worker = game.getBoard().getWorkerAt(x, y);
-                if (worker != null) {
-                    cell.put("worker", Map.of(
-                            "id", worker.hashCode(),
-                            "player", worker.getOwner().getName(),
-                            "x", worker.getX(),
-                            "y", worker.getY()
-                    ));
-                }
+    /**
+     * Reads a response body straight from its buffer, so that memory-mapped files are not copied
+     * onto the heap first.
+     */
+    private static final class BufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
 
-                row.add(cell);
-            }
-            serializedGrid.add(row);
+        BufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
         }
 
-        return serializedGrid;
-    }
-
-    private List<Map<String, Object>> serializeWorkers() throws Exception {
-        List<Map<String, Object>> workersList = new ArrayList<>();
-        for (Worker worker : game.getAllWorkers()) {
-            workersList.add(Map.of(
-                    "id", worker.hashCode(),
-                    "player", worker.getOwner().getName(),
-                    "position", Map.of("x", worker.getX(), "y", worker.getY())
-            ));
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
         }
-        return workersList;
-    }
-
-    private Response createJsonResponse(Response.Status status, Map<String, Object> data) {
-        return newFixedLengthResponse(status, "application/json", new JSONObject(data).toString());
-    }
 
-    private Response serveStaticFile(String uri) {
-        String filePath = uri.equals("/") ? "static/index.html" : uri.substring(1);
-        File file = new File(filePath);
-        if (!file.exists() || file.isDirectory()) {
-            return newFixedLengthResponse(Response.Status.NOT_FOUND, NanoHTTPD.MIME_PLAINTEXT, "File not found");
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0) return 0;
+            if (!buffer.hasRemaining()) return -1;
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
         }
 
-        try (FileInputStream fis = new FileInputStream(file)) {
-            return newFixedLengthResponse(Response.Status.OK, getMimeTypeForFile(filePath), fis, file.length());
-        } catch (IOException e) {
-            return newFixedLengthResponse(Response.Status.INTERNAL_ERROR, NanoHTTPD.MIME_PLAINTEXT, "Internal Server Error");
+        @Override
+        public int available() {
+            return buffer.remaining();
         }
     }
-
-    private Response addCORSHeaders(Response response) {
-        response.addHeader("Access-Control-Allow-Origin", "*");
-        response.addHeader("Access-Control-Allow-Methods", "GET, POST, OPTIONS");
-        response.addHeader("Access-Control-Allow-Headers", "Content-Type, Authorization");
-        return response;
-    }
 }
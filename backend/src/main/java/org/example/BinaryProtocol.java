@@ -0,0 +1,131 @@
+// src/main/java/org/example/BinaryProtocol.java
+package org.example;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A compact binary alternative to the JSON bodies of the state, action and selectable-cell
+ * endpoints, for bots that poll or act many times a second. Clients opt in per request: an
+ * {@code Accept} header naming {@link #CONTENT_TYPE} selects binary responses, and a
+ * {@code Content-Type} of {@link #CONTENT_TYPE} marks a binary action body.
+ *
+ * <p>A state is {@value #STATE_HEADER_BYTES} bytes plus one byte per worker, multi-byte values
+ * big-endian:</p>
+ * <pre>
+ *   0      format, currently {@value #FORMAT}
+ *   1-8    game version
+ *   9      bits 0-2 phase ({@link Game.GamePhase} ordinal), bit 3 side to move (0 A, 1 B),
+ *          bit 4 game ended, bits 5-6 winner (0 none, 1 A, 2 B)
+ *   10-11  gods of players A and B, as indices into {@link Game#GOD_NAMES}
+ *   12-24  heights, two squares per byte, the lower-numbered square in the high nibble (4 is a dome)
+ *   25     number of workers
+ *   26-    one byte per worker in {@link Game#getAllWorkers()} order: square, plus 0x80 for Player B
+ * </pre>
+ * Squares are numbered x * 5 + y. Selectable cells are a 4-byte mask with bit {@code square} set
+ * for each selectable square. An action body is four signed bytes: the index of the action type in
+ * {@link #ACTION_TYPES}, the worker index, x and y, with -1 for an unused value.
+ */
+public final class BinaryProtocol {
+    public static final String CONTENT_TYPE = "application/x-santorini";
+    public static final int FORMAT = 1;
+    public static final int STATE_HEADER_BYTES = 26;
+    public static final int ACTION_BYTES = 4;
+    public static final List<String> ACTION_TYPES = List.of("placeWorker", "move", "build", "endTurn");
+    private static final int SQUARES = 25;
+
+    private BinaryProtocol() {
+    }
+
+    /**
+     * @param accept The request's Accept header, or null.
+     * @return Whether the client asked for binary responses.
+     */
+    public static boolean accepts(String accept) {
+        if (accept == null) return false;
+        for (String range : accept.split(",")) {
+            String[] parts = range.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase(CONTENT_TYPE)) {
+                for (int i = 1; i < parts.length; i++) {
+                    String parameter = parts[i].trim();
+                    if (parameter.startsWith("q=")) {
+                        try {
+                            return Double.parseDouble(parameter.substring(2)) > 0;
+                        } catch (NumberFormatException e) {
+                            return false;
+                        }
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param contentType The request's Content-Type header, or null.
+     * @return Whether the body is a binary action.
+     */
+    public static boolean isBinary(String contentType) {
+        return contentType != null && contentType.split(";")[0].trim().equalsIgnoreCase(CONTENT_TYPE);
+    }
+
+    /**
+     * Encodes a game's state.
+     *
+     * @param game    The game; it is only read.
+     * @param version The game's version.
+     * @return The encoded state.
+     * @throws Exception If a god strategy cannot name itself.
+     */
+    public static byte[] writeState(Game game, long version) throws Exception {
+        List<Worker> workers = game.getAllWorkers();
+        byte[] state = new byte[STATE_HEADER_BYTES + workers.size()];
+        state[0] = FORMAT;
+        for (int i = 0; i < 8; i++) {
+            state[1 + i] = (byte) (version >>> (56 - 8 * i));
+        }
+
+        String winner = game.getWinner();
+        int winnerCode = winner == null ? 0 : winner.equals(game.getPlayerA().getName()) ? 1 : 2;
+        state[9] = (byte) (game.getCurrentPhase().ordinal()
+                | (game.getCurrentPlayer() == game.getPlayerB() ? 1 << 3 : 0)
+                | (game.isGameEnded() ? 1 << 4 : 0)
+                | winnerCode << 5);
+        state[10] = (byte) godIndex(game.getPlayerA());
+        state[11] = (byte) godIndex(game.getPlayerB());
+
+        byte[] heights = new byte[SQUARES];
+        game.getBoard().writeHeights(heights, 0);
+        for (int square = 0; square < SQUARES; square++) {
+            state[12 + square / 2] |= (byte) (square % 2 == 0 ? heights[square] << 4 : heights[square]);
+        }
+
+        state[25] = (byte) workers.size();
+        for (int i = 0; i < workers.size(); i++) {
+            Worker worker = workers.get(i);
+            state[STATE_HEADER_BYTES + i] = (byte) (worker.getX() * 5 + worker.getY()
+                    | (worker.getOwner() == game.getPlayerB() ? 0x80 : 0));
+        }
+        return state;
+    }
+
+    private static int godIndex(Player player) throws Exception {
+        int index = Game.GOD_NAMES.indexOf(player.getGodStrategy().getName());
+        return Math.max(index, 0);
+    }
+
+    /**
+     * Encodes selectable cells as a 25-bit mask.
+     *
+     * @param cells Cells as returned by {@link Game#getSelectableMoveCells(int)}.
+     * @return Four bytes, big-endian.
+     */
+    public static byte[] writeCellMask(List<Map<String, Integer>> cells) {
+        int mask = 0;
+        for (Map<String, Integer> cell : cells) {
+            mask |= 1 << (cell.get("x") * 5 + cell.get("y"));
+        }
+        return new byte[]{(byte) (mask >>> 24), (byte) (mask >>> 16), (byte) (mask >>> 8), (byte) mask};
+    }
+}
@@ -3,6 +3,7 @@ package org.example;
 
 import java.util.Objects;
 import java.util.Arrays;
+import java.util.Map;
 
 /**
  * The Board class represents a 5x5 game board used in the game Santorini,
@@ -245,6 +246,41 @@ public class Board {
         return copy;
     }
 
+    /**
+     * Writes the tower heights into the given array in row-major order (index x * 5 + y)
+     * without allocating, for callers that read the whole board many times.
+     *
+     * @param dst    The destination array; needs room for 25 entries from the offset.
+     * @param offset The index in the destination array of the first height.
+     */
+    public void writeHeights(byte[] dst, int offset) {
+        for (int i = 0; i < BOARD_SIZE; i++) {
+            for (int j = 0; j < BOARD_SIZE; j++) {
+                dst[offset++] = (byte) grid[i][j];
+            }
+        }
+    }
+
+    /**
+     * Creates a copy of this board with the same tower heights, replacing every worker
+     * with its counterpart from the given mapping.
+     *
+     * @param workerMapping Maps each worker on this board to the worker that takes its place on the copy.
+     * @return An independent copy of the board.
+     */
+    public Board copy(Map<Worker, Worker> workerMapping) {
+        Board copy = new Board();
+        for (int i = 0; i < BOARD_SIZE; i++) {
+            System.arraycopy(grid[i], 0, copy.grid[i], 0, BOARD_SIZE);
+            for (int j = 0; j < BOARD_SIZE; j++) {
+                if (workers[i][j] != null) {
+                    copy.workers[i][j] = workerMapping.get(workers[i][j]);
+                }
+            }
+        }
+        return copy;
+    }
+
     /**
      * Checks if the specified coordinates are within board boundaries.
      *
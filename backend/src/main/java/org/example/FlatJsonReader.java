@@ -0,0 +1,178 @@
+// src/main/java/org/example/FlatJsonReader.java
+package org.example;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the fields of a small, flat JSON object straight from request bytes, without building a
+ * {@link org.json.JSONObject}. Only strict JSON with string, integer and boolean values is
+ * understood: anything else (nested values, escapes, fractions, duplicate keys, the lenient
+ * syntax org.json accepts, or malformed input) marks the reader as failed, and the caller then
+ * parses the body with org.json as before, so results and error messages do not change.
+ *
+ * <pre>
+ * for (String key = reader.nextKey(); key != null; key = reader.nextKey()) {
+ *     switch (key) { case "x": x = reader.readInt(); break; default: reader.skipValue(); }
+ * }
+ * if (reader.failed()) ... // fall back
+ * </pre>
+ */
+public final class FlatJsonReader {
+    // More digits could overflow an int
+    private static final int MAX_INT_DIGITS = 9;
+
+    private final byte[] json;
+    private final List<String> keys = new ArrayList<>(8);
+    private int position;
+    private boolean opened;
+    private boolean failed;
+
+    public FlatJsonReader(byte[] json) {
+        this.json = json;
+    }
+
+    /**
+     * @return Whether the input fell outside what this reader understands; values read since are meaningless.
+     */
+    public boolean failed() {
+        return failed;
+    }
+
+    /**
+     * Marks the input as not understood, for example because it has a field the caller does not expect.
+     */
+    public void fail() {
+        failed = true;
+    }
+
+    /**
+     * Moves to the next field.
+     *
+     * @return Its key, or null at the end of the object or once the reader has failed.
+     */
+    public String nextKey() {
+        if (failed) return null;
+        skipWhitespace();
+        if (!opened) {
+            opened = true;
+            if (!consume('{')) return failAndStop();
+            skipWhitespace();
+            if (consume('}')) return endOfObject();
+        } else if (consume('}')) {
+            return endOfObject();
+        } else if (!consume(',')) {
+            return failAndStop();
+        }
+        skipWhitespace();
+        String key = readString();
+        if (failed) return null;
+        skipWhitespace();
+        if (!consume(':') || keys.contains(key)) return failAndStop(); // org.json rejects duplicate keys
+        keys.add(key);
+        skipWhitespace();
+        return key;
+    }
+
+    private String endOfObject() {
+        skipWhitespace();
+        if (position != json.length) failed = true; // Trailing content is left to org.json
+        return null;
+    }
+
+    private String failAndStop() {
+        failed = true;
+        return null;
+    }
+
+    /**
+     * @return The string value, without escapes; null if the reader failed.
+     */
+    public String readString() {
+        if (!consume('"')) return failAndStop();
+        int start = position;
+        while (position < json.length) {
+            byte b = json[position];
+            if (b == '"') {
+                return new String(json, start, position++ - start, StandardCharsets.UTF_8);
+            }
+            if (b == '\\' || (b >= 0 && b < ' ')) break;
+            position++;
+        }
+        return failAndStop();
+    }
+
+    /**
+     * @return The integer value; meaningless if the reader failed.
+     */
+    public int readInt() {
+        boolean negative = consume('-');
+        int start = position;
+        int value = 0;
+        while (position < json.length && json[position] >= '0' && json[position] <= '9') {
+            value = value * 10 + (json[position++] - '0');
+        }
+        int digits = position - start;
+        // Leading zeros, -0 and long numbers are read differently by org.json
+        if (digits == 0 || digits > MAX_INT_DIGITS || json[start] == '0' && (digits > 1 || negative) || !atDelimiter()) {
+            failed = true;
+            return 0;
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * @return The boolean value; meaningless if the reader failed.
+     */
+    public boolean readBoolean() {
+        if (consumeWord("true")) return true;
+        if (!consumeWord("false")) failed = true;
+        return false;
+    }
+
+    /**
+     * Skips a string, integer or boolean value.
+     */
+    public void skipValue() {
+        if (position < json.length && json[position] == '"') {
+            readString();
+        } else if (position < json.length && (json[position] == 't' || json[position] == 'f')) {
+            readBoolean();
+        } else {
+            readInt();
+        }
+    }
+
+    private boolean consumeWord(String word) {
+        if (position + word.length() > json.length) return false;
+        for (int i = 0; i < word.length(); i++) {
+            if (json[position + i] != word.charAt(i)) return false;
+        }
+        position += word.length();
+        if (atDelimiter()) return true;
+        position -= word.length();
+        return false;
+    }
+
+    private boolean atDelimiter() {
+        if (position == json.length) return true;
+        byte b = json[position];
+        return b == ',' || b == '}' || b == ' ' || b == '\t' || b == '\n' || b == '\r';
+    }
+
+    private boolean consume(char c) {
+        if (position < json.length && json[position] == c) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private void skipWhitespace() {
+        while (position < json.length
+                && (json[position] == ' ' || json[position] == '\t' || json[position] == '\n' || json[position] == '\r')) {
+            position++;
+        }
+    }
+}
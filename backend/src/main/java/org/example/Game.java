@@ -3,8 +3,10 @@ package org.example;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.logging.Logger;
 import org.example.gods.*;
 
 /**
@@ -12,6 +14,8 @@ import org.example.gods.*;
  * It manages players, workers, the board, game phases, and interactions with God strategies.
  */
 public class Game {
+    private static final Logger logger = Logger.getLogger(Game.class.getName());
+
     private Player playerA;
     private Player playerB;
     private String winner; 
@@ -54,21 +58,70 @@ public class Game {
         gameEnded = false;
     }
 
+    /**
+     * Names of all playable gods, in a fixed order that callers may rely on for indexing.
+     */
+    public static final List<String> GOD_NAMES = List.of(
+            "Default", "Apollo", "Artemis", "Athena", "Demeter", "Hephaestus", "Hermes", "Minotaur", "Pan");
+
     // Method to create GodStrategy based on god name
     public static GodStrategy createGodStrategy(String godName) {
-        switch (godName) {
-            case "Apollo":
+        switch (godName.toLowerCase()) {
+            case "apollo":
                 return new ApolloGodStrategy();
-            case "Artemis":
+            case "artemis":
                 return new ArtemisGodStrategy();
-            case "Athena":
+            case "athena":
                 return new AthenaGodStrategy();
+            case "demeter":
+                return new DemeterGodStrategy();
+            case "hephaestus":
+                return new HephaestusGodStrategy();
+            case "hermes":
+                return new HermesGodStrategy();
+            case "minotaur":
+                return new MinotaurGodStrategy();
+            case "pan":
+                return new PanGodStrategy();
             // Add other God strategies as needed
             default:
                 return new DefaultGodStrategy();
         }
     }
 
+    /**
+     * Creates an independent deep copy of this game: board, players, workers, phase and
+     * each player's strategy state. Playing the copy forward leaves this game untouched.
+     *
+     * @return A copy of the game.
+     */
+    public Game copy() {
+        Game copy = new Game(playerA.getGodStrategy().copy(), playerB.getGodStrategy().copy());
+        Map<Worker, Worker> workerMapping = new IdentityHashMap<>();
+        copyWorkers(playerA, copy.playerA, workerMapping);
+        copyWorkers(playerB, copy.playerB, workerMapping);
+
+        copy.board = board.copy(workerMapping);
+        copy.currentPlayer = (currentPlayer == playerA) ? copy.playerA : copy.playerB;
+        copy.winner = winner;
+        copy.gameEnded = gameEnded;
+        copy.currentPhase = currentPhase;
+        copy.workersPlaced = workersPlaced;
+        copy.selectedWorker = (selectedWorker == null) ? null : workerMapping.get(selectedWorker);
+        for (Map.Entry<Worker, Integer> entry : previousHeights.entrySet()) {
+            copy.previousHeights.put(workerMapping.get(entry.getKey()), entry.getValue());
+        }
+        return copy;
+    }
+
+    private static void copyWorkers(Player from, Player to, Map<Worker, Worker> workerMapping) {
+        for (Worker worker : from.getWorkers()) {
+            Worker copy = new Worker(to, worker.getX(), worker.getY());
+            to.addWorker(copy);
+            workerMapping.put(worker, copy);
+        }
+    }
+
     public Player getCurrentPlayer() {
         return currentPlayer;
     }
@@ -84,7 +137,7 @@ public class Game {
     public boolean checkVictory() throws Exception {
         for (Worker worker : currentPlayer.getWorkers()) {
             if (currentPlayer.getGodStrategy().checkVictory(this, worker)) {
-                System.out.println(currentPlayer.getName() + " wins!");
+                logger.info(currentPlayer.getName() + " wins!");
                 gameEnded = true;
                 winner = currentPlayer.getName();
                 return true;
@@ -220,7 +273,7 @@ public class Game {
         }
 
         if (currentPlayer.getGodStrategy().checkVictory(this, selectedWorker)) {
-            System.out.println(currentPlayer.getName() + " wins!");
+            logger.info(currentPlayer.getName() + " wins!");
             gameEnded = true;
             winner = currentPlayer.getName();
             return true;
@@ -282,6 +335,10 @@ public class Game {
         this.selectedWorker = worker;
     }
 
+    public Worker getSelectedWorker() {
+        return selectedWorker;
+    }
+
     public boolean defaultMoveWorker(Worker worker, int x, int y) throws Exception {
         int fromX = worker.getX();
         int fromY = worker.getY();
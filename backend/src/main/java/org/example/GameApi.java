@@ -0,0 +1,1284 @@
+// src/main/java/org/example/GameApi.java
+package org.example;
+
+import fi.iki.elonen.NanoHTTPD;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.json.JSONString;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.example.engine.Action;
+import org.example.engine.AnalysisService;
+import org.example.engine.BatchEvaluator;
+import org.example.engine.HintService;
+import org.example.engine.OpeningBook;
+import org.example.engine.Search;
+import org.example.engine.TurnGenerator;
+import org.example.gods.GodStrategy;
+import org.example.server.AdmissionControl;
+import org.example.server.Compression;
+import org.example.server.HttpRequest;
+import org.example.server.HttpResponse;
+import org.example.server.Metrics;
+import org.example.server.RequestHandler;
+import org.example.server.SseBroadcaster;
+import org.example.server.StaticAssets;
+
+/**
+ * The game server's endpoints, independent of the transport. {@link App} serves them through
+ * NanoHTTPD and {@link org.example.server.NioHttpServer} through non-blocking NIO. Persistent
+ * connections such as WebSockets use a {@link Channel} instead of individual requests.
+ */
+public class GameApi implements RequestHandler {
+    private static final Logger logger = Logger.getLogger(GameApi.class.getName());
+
+    // Upper bound on positions per /evaluate-batch request
+    private static final int MAX_BATCH_SIZE = 1000;
+    // Limits for /analysis; deeper searches grow by roughly a hundredfold per turn
+    private static final int MAX_ANALYSIS_LINES = 10;
+    private static final int MAX_ANALYSIS_DEPTH = 3;
+    private static final int MAX_HINT_DEPTH = 3;
+    // Bounds for the game registry behind the /games endpoints
+    private static final int MAX_GAMES = 10_000;
+    private static final long IDLE_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(30);
+    // Single-game endpoints, served for the default game at the root and for any game under /games/{id}/
+    private static final Set<String> GAME_ROUTES = Set.of(
+            "/game-state", "/selectable-move-cells", "/selectable-build-cells", "/legal-actions", "/action", "/actions",
+            "/analysis", "/hint", "/events", "/spectate");
+    // Methods reported by name in request metrics; any other is reported as "other"
+    private static final Set<String> METRIC_METHODS = Set.of("GET", "POST", "DELETE", "OPTIONS");
+    private static final String GAME_STARTED = "Game started with chosen Gods.";
+
+    // Versions restart at 0 with every server run, so ETags also name the run
+    private final String etagPrefix = Long.toHexString(System.currentTimeMillis());
+    // The game behind the original single-game endpoints; it is never evicted
+    private final GameSession defaultSession = new GameSession("default", new Game(), System.currentTimeMillis());
+    private final GameRegistry registry = new GameRegistry(MAX_GAMES, IDLE_TIMEOUT_MILLIS);
+    // Owns every game: all reads and writes of a game run on the shard for its ID
+    private final ShardedExecutor gameShards = new ShardedExecutor(Runtime.getRuntime().availableProcessors(), "game-shard");
+    private final ScheduledExecutorService evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "game-evictor");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService engineExecutor = Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(), runnable -> {
+                Thread thread = new Thread(runnable, "engine");
+                thread.setDaemon(true);
+                return thread;
+            });
+    // Delivers state pushes to channels, so that a slow client never holds up a game's shard
+    private final ExecutorService pushExecutor = Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(), runnable -> {
+                Thread thread = new Thread(runnable, "channel-push");
+                thread.setDaemon(true);
+                return thread;
+            });
+    private final BatchEvaluator batchEvaluator = new BatchEvaluator(engineExecutor);
+    private final AnalysisService analysisService = new AnalysisService(10_000);
+    private final HintService hintService;
+    private final StaticAssets staticAssets;
+    private final AdmissionControl admission;
+    private final Metrics metrics = new Metrics();
+    // Reported by /ready; cleared while the server shuts down so that load balancers stop routing to it
+    private volatile boolean ready = true;
+
+    /**
+     * @param openingBook Book consulted by /hint before searching, or null for none.
+     */
+    public GameApi(OpeningBook openingBook) {
+        this(openingBook, AdmissionControl.defaults());
+    }
+
+    /**
+     * @param openingBook Book consulted by /hint before searching, or null for none.
+     * @param admission   Limits on requests in flight; requests beyond them get a 503.
+     */
+    public GameApi(OpeningBook openingBook, AdmissionControl admission) {
+        this.hintService = new HintService(50_000, openingBook);
+        this.staticAssets = loadStaticAssets();
+        this.admission = admission;
+        metrics.gauge("santorini_games_active", "Games hosted, including the default game.", () -> registry.size() + 1);
+        evictor.scheduleWithFixedDelay(registry::evictIdle, 1, 1, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Sets whether {@code GET /ready} reports the server ready for traffic. New instances are ready.
+     */
+    public void setReady(boolean ready) {
+        this.ready = ready;
+    }
+
+    /**
+     * Stops the background threads.
+     */
+    public void close() {
+        ready = false;
+        evictor.shutdownNow();
+        gameShards.shutdown();
+        engineExecutor.shutdownNow();
+        pushExecutor.shutdownNow();
+    }
+
+    @Override
+    public HttpResponse handle(HttpRequest request) {
+        long start = System.nanoTime();
+        HttpResponse response = admit(request);
+        // Streamed responses are timed up to their headers
+        String endpoint = endpointLabel(request.getUri());
+        String method = METRIC_METHODS.contains(request.getMethod()) ? request.getMethod() : "other";
+        metrics.histogram("santorini_http_request_duration_seconds", "Time to handle a request.",
+                "endpoint", endpoint, "method", method).recordSince(start);
+        metrics.counter("santorini_http_requests_total", "Requests handled, by response status.",
+                "endpoint", endpoint, "method", method, "status", String.valueOf(response.getStatus())).increment();
+        return response;
+    }
+
+    private HttpResponse admit(HttpRequest request) {
+        AdmissionControl.Kind kind = admissionKind(request);
+        if (kind == null) {
+            return encode(request, route(request));
+        }
+        if (!admission.tryAcquire(kind)) {
+            return addCORSHeaders(createJsonResponse(HttpResponse.SERVICE_UNAVAILABLE, Map.of("error", "Server is busy; try again shortly.")))
+                    .header("Retry-After", String.valueOf(AdmissionControl.retryAfterSeconds(kind)));
+        }
+        try {
+            return encode(request, route(request));
+        } finally {
+            admission.release(kind);
+        }
+    }
+
+    /**
+     * Names a request's endpoint for metrics, with game IDs and file names left out so that the
+     * number of series stays fixed.
+     */
+    private static String endpointLabel(String uri) {
+        if (uri.equals("/") || uri.startsWith("/static/")) {
+            return "/static";
+        }
+        if (GAME_ROUTES.contains(uri) || uri.equals("/start-game") || uri.equals("/evaluate-batch")
+                || uri.equals("/metrics") || uri.equals("/ready") || uri.equals("/games")) {
+            return uri;
+        }
+        if (uri.startsWith("/games/")) {
+            String[] parts = uri.split("/", 4); // "", "games", id, endpoint
+            if (parts.length < 4) return "/games/{id}";
+            if (parts[3].equals("state") || GAME_ROUTES.contains("/" + parts[3])) return "/games/{id}/" + parts[3];
+        }
+        return "other";
+    }
+
+    /**
+     * Classifies a request for admission control. Static files, preflights, event streams, metrics
+     * and readiness checks are cheap or long-lived, so they are not limited; metrics matter most
+     * under load, and a shed readiness check would take a busy node out of rotation.
+     *
+     * @return The kind of request, or null if it is always admitted.
+     */
+    private static AdmissionControl.Kind admissionKind(HttpRequest request) {
+        String method = request.getMethod();
+        String uri = request.getUri();
+        if (method.equals("OPTIONS") || uri.equals("/") || uri.startsWith("/static/") || uri.endsWith("/events")
+                || uri.endsWith("/spectate") || uri.equals("/metrics") || uri.equals("/ready")) {
+            return null;
+        }
+        if (uri.endsWith("/analysis") || uri.endsWith("/hint") || uri.equals("/evaluate-batch")) {
+            return AdmissionControl.Kind.AI;
+        }
+        return method.equals("GET") ? AdmissionControl.Kind.READ : AdmissionControl.Kind.ACTION;
+    }
+
+    private HttpResponse route(HttpRequest request) {
+        String uri = request.getUri();
+        String method = request.getMethod();
+
+        try {
+            if (uri.equals("/") || uri.startsWith("/static/")) {
+                return addCORSHeaders(serveStaticFile(request));
+            } else if (method.equals("POST") && uri.equals("/start-game")) {
+                return addCORSHeaders(handleStartGame(request));
+            } else if (!method.equals("OPTIONS") && (uri.equals("/games") || uri.startsWith("/games/"))) {
+                return addCORSHeaders(handleGames(request, method, uri));
+            } else if (!method.equals("OPTIONS") && GAME_ROUTES.contains(uri)) {
+                return addCORSHeaders(handleGameRoute(request, method, uri.substring(1), defaultSession));
+            } else if (method.equals("POST") && uri.equals("/evaluate-batch")) {
+                return addCORSHeaders(handleEvaluateBatch(request));
+            } else if (method.equals("GET") && uri.equals("/metrics")) {
+                return HttpResponse.text(HttpResponse.OK, Metrics.CONTENT_TYPE, metrics.render());
+            } else if (method.equals("GET") && uri.equals("/ready")) {
+                return createJsonResponse(ready ? HttpResponse.OK : HttpResponse.SERVICE_UNAVAILABLE, Map.of("ready", ready));
+            } else if (method.equals("OPTIONS")) {
+                // Handle CORS preflight requests
+                return addCORSHeaders(HttpResponse.text(HttpResponse.OK, "text/plain", ""));
+            } else {
+                return addCORSHeaders(createJsonResponse(HttpResponse.NOT_FOUND, Map.of("error", "Endpoint not found")));
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            metrics.counter("santorini_errors_total", "Requests that failed with an exception, by exception type.",
+                    "type", e.getClass().getSimpleName()).increment();
+            return error(e.getMessage());
+        }
+    }
+
+    /**
+     * Compresses a fixed text or JSON body of at least {@link Compression#MIN_BYTES} bytes in the
+     * encoding the client prefers. Responses that already vary by Accept-Encoding, such as cached
+     * game responses and static files, have picked their encoding and are left alone.
+     */
+    private static HttpResponse encode(HttpRequest request, HttpResponse response) {
+        String vary = response.getHeaders().get("Vary");
+        if (response.isChunked() || !Compression.isCompressible(response.getContentType())
+                || vary != null && vary.contains("Accept-Encoding")) {
+            return response;
+        }
+        response.header("Vary", vary != null ? vary + ", Accept-Encoding" : "Accept-Encoding");
+        String encoding = Compression.negotiate(request.getHeader("accept-encoding"));
+        if (encoding == null || response.getContentLength() < Compression.MIN_BYTES) {
+            return response;
+        }
+        HttpResponse compressed = HttpResponse.fixed(response.getStatus(), response.getContentType(),
+                Compression.compress(response.getBody(), encoding));
+        response.getHeaders().forEach(compressed::header);
+        return compressed.header("Content-Encoding", encoding);
+    }
+
+    /**
+     * @return The response for a request that failed with the given message.
+     */
+    public HttpResponse error(String message) {
+        return addCORSHeaders(createJsonResponse(HttpResponse.INTERNAL_ERROR, Map.of("error", message)));
+    }
+
+    /**
+     * Routes the ID-scoped endpoints: {@code POST /games} creates a game, {@code DELETE /games/{id}}
+     * ends one, and {@code /games/{id}/<endpoint>} serves the single-game endpoints for that game.
+     */
+    private HttpResponse handleGames(HttpRequest request, String method, String uri) throws Exception {
+        String[] parts = uri.split("/", 4); // "", "games", id, endpoint
+        if (parts.length == 2 && method.equals("POST")) {
+            return handleCreateGame(request);
+        }
+        if (parts.length < 3 || parts[2].isEmpty()) {
+            return createJsonResponse(HttpResponse.NOT_FOUND, Map.of("error", "Endpoint not found"));
+        }
+
+        String id = parts[2];
+        if (parts.length == 3 && method.equals("DELETE")) {
+            return registry.remove(id)
+                    ? createJsonResponse(HttpResponse.OK, Map.of("message", "Game " + id + " ended."))
+                    : gameNotFound(id);
+        }
+        GameSession gameSession = registry.get(id);
+        if (gameSession == null) {
+            return gameNotFound(id);
+        }
+        String endpoint = parts.length == 4 ? parts[3] : "";
+        if (endpoint.equals("state")) {
+            endpoint = "game-state";
+        }
+        return handleGameRoute(request, method, endpoint, gameSession);
+    }
+
+    /**
+     * Serves a single-game endpoint. Requests are parsed on the calling thread; everything that
+     * touches the game runs on its shard of {@link #gameShards}.
+     */
+    private HttpResponse handleGameRoute(HttpRequest request, String method, String endpoint, GameSession game) throws Exception {
+        if (method.equals("GET") && endpoint.equals("game-state")) {
+            return handleGetGameState(request, game);
+        } else if (method.equals("GET") && endpoint.equals("selectable-move-cells")) {
+            return handleGetSelectableMoveCells(request, game);
+        } else if (method.equals("GET") && endpoint.equals("selectable-build-cells")) {
+            return handleGetSelectableBuildCells(request, game);
+        } else if (method.equals("GET") && endpoint.equals("legal-actions")) {
+            return handleGetLegalActions(request, game);
+        } else if (method.equals("POST") && endpoint.equals("action")) {
+            return handleAction(request, game);
+        } else if (method.equals("POST") && endpoint.equals("actions")) {
+            return handleActions(request, game);
+        } else if (method.equals("GET") && endpoint.equals("analysis")) {
+            return handleAnalysis(request, game);
+        } else if (method.equals("GET") && endpoint.equals("hint")) {
+            return handleHint(request, game);
+        } else if (method.equals("GET") && endpoint.equals("events")) {
+            return handleEvents(request, game);
+        } else if (method.equals("GET") && endpoint.equals("spectate")) {
+            return handleSpectate(game);
+        }
+        return createJsonResponse(HttpResponse.NOT_FOUND, Map.of("error", "Endpoint not found"));
+    }
+
+    private HttpResponse gameNotFound(String id) {
+        return createJsonResponse(HttpResponse.NOT_FOUND, Map.of("error", "Game " + id + " not found."));
+    }
+
+    private HttpResponse handleCreateGame(HttpRequest request) throws Exception {
+        Game game = createGameFromRequest(request);
+        GameSession gameSession = registry.create(game);
+        if (gameSession == null) {
+            return createJsonResponse(HttpResponse.SERVICE_UNAVAILABLE,
+                    Map.of("error", "Server is hosting the maximum of " + registry.getCapacity() + " games."));
+        }
+        gameStarted();
+        byte[] state = gameShards.call(gameSession.getId(),
+                () -> GameStateWriter.write(game, gameSession.getVersion(), GAME_STARTED));
+        return HttpResponse.fixed(HttpResponse.CREATED, "application/json",
+                GameStateWriter.withField(state, "gameId", gameSession.getId()));
+    }
+
+    private HttpResponse handleStartGame(HttpRequest request) throws Exception {
+        Game game = createGameFromRequest(request);
+        byte[] state = gameShards.call(defaultSession.getId(), () -> {
+            defaultSession.setGame(game);
+            if (defaultSession.isWatched()) publishState(defaultSession);
+            return GameStateWriter.write(game, defaultSession.getVersion(), GAME_STARTED);
+        });
+        gameStarted();
+        return HttpResponse.fixed(HttpResponse.OK, "application/json", state);
+    }
+
+    private void gameStarted() {
+        metrics.counter("santorini_games_started_total", "Games started.").increment();
+    }
+
+    private void countIfFinished(boolean wasEnded, Game game) {
+        if (!wasEnded && game.isGameEnded()) {
+            metrics.counter("santorini_games_finished_total", "Games won.").increment();
+        }
+    }
+
+    private Game createGameFromRequest(HttpRequest request) throws Exception {
+        byte[] body = request.getBody();
+        if (body.length == 0) {
+            throw new Exception("Empty request body.");
+        }
+
+        String playerAGod = "";
+        String playerBGod = "";
+        FlatJsonReader reader = new FlatJsonReader(body);
+        for (String key = reader.nextKey(); key != null; key = reader.nextKey()) {
+            switch (key) {
+                case "playerAGod": playerAGod = reader.readString(); break;
+                case "playerBGod": playerBGod = reader.readString(); break;
+                default: reader.skipValue(); break;
+            }
+        }
+        if (reader.failed()) {
+            JSONObject json = parseJson(request);
+            playerAGod = json.optString("playerAGod", "");
+            playerBGod = json.optString("playerBGod", "");
+        }
+        playerAGod = playerAGod.toLowerCase();
+        playerBGod = playerBGod.toLowerCase();
+
+        // Validate and create GodStrategy instances
+        GodStrategy playerAStrategy = Game.createGodStrategy(playerAGod);
+        GodStrategy playerBStrategy = Game.createGodStrategy(playerBGod);
+
+        // Check if both gods are valid (i.e., not DefaultGodStrategy)
+        if (playerAGod.isEmpty() || playerBGod.isEmpty()) {
+            throw new Exception("God names cannot be empty.");
+        }
+
+        // Optionally, check if gods are unique or allow duplicates
+        // For example, to prevent both players from having the same god:
+        if (playerAGod.equals(playerBGod)) {
+            throw new Exception("Both players cannot have the same God.");
+        }
+
+        return new Game(playerAStrategy, playerBStrategy);
+    }
+
+    private HttpResponse handleGetSelectableBuildCells(HttpRequest request, GameSession game) throws Exception {
+        Map<String, String> params = request.getParams();
+        int workerIndex = Integer.parseInt(params.get("workerIndex"));
+
+        if (BinaryProtocol.accepts(request.getHeader("accept"))) {
+            return createCachedResponse(request, game, "build.bin:" + workerIndex,
+                    () -> BinaryProtocol.writeCellMask(timedCells(game.getGame(), "build", workerIndex)));
+        }
+        return createCachedResponse(request, game, "build:" + workerIndex, () -> {
+            Map<String, Object> response = new HashMap<>();
+            response.put("selectableCells", timedCells(game.getGame(), "build", workerIndex));
+            return new JSONObject(response).toString().getBytes(StandardCharsets.UTF_8);
+        });
+    }
+
+    private HttpResponse handleGetSelectableMoveCells(HttpRequest request, GameSession game) throws Exception {
+        Map<String, String> params = request.getParams();
+        int workerIndex = Integer.parseInt(params.get("workerIndex"));
+
+        if (BinaryProtocol.accepts(request.getHeader("accept"))) {
+            return createCachedResponse(request, game, "move.bin:" + workerIndex,
+                    () -> BinaryProtocol.writeCellMask(timedCells(game.getGame(), "move", workerIndex)));
+        }
+        return createCachedResponse(request, game, "move:" + workerIndex, () -> {
+            Map<String, Object> response = new HashMap<>();
+            response.put("selectableCells", timedCells(game.getGame(), "move", workerIndex));
+            return new JSONObject(response).toString().getBytes(StandardCharsets.UTF_8);
+        });
+    }
+
+    /**
+     * Works out a worker's selectable cells, timing it by the current player's god.
+     *
+     * @param kind {@code "move"} or {@code "build"}.
+     */
+    private List<Map<String, Integer>> timedCells(Game game, String kind, int workerIndex) throws Exception {
+        long start = System.nanoTime();
+        List<Map<String, Integer>> cells = kind.equals("move")
+                ? game.getSelectableMoveCells(workerIndex) : game.getSelectableBuildCells(workerIndex);
+        moveGenerationTimer(game, kind).recordSince(start);
+        return cells;
+    }
+
+    private Metrics.Histogram moveGenerationTimer(Game game, String kind) throws Exception {
+        return metrics.histogram("santorini_move_generation_seconds", "Time to work out legal moves, by god.",
+                "god", game.getCurrentPlayer().getGodStrategy().getName(), "kind", kind);
+    }
+
+    /**
+     * Lists everything the current player may do now, so that clients need not query each
+     * worker's cells: {@code "actions"} holds one {@code /action} body per legal action, with
+     * {@code "dome": true} on builds that complete a dome, and {@code "endTurn"} says whether
+     * the player may end the turn. Worked out once per version.
+     */
+    private HttpResponse handleGetLegalActions(HttpRequest request, GameSession game) throws Exception {
+        return createCachedResponse(request, game, "legal-actions", () -> {
+            Game current = game.getGame();
+            List<Map<String, Object>> actions = new ArrayList<>();
+            boolean endTurn = false;
+            long start = System.nanoTime();
+            List<Action> legalActions = TurnGenerator.legalActions(current);
+            moveGenerationTimer(current, "legal-actions").recordSince(start);
+            for (Action action : legalActions) {
+                Map<String, Object> entry = action.toMap();
+                if (action.getType() == Action.Type.BUILD) {
+                    entry.put("dome", current.getBoard().getTowerHeight(action.getX(), action.getY()) == 3);
+                } else if (action.getType() == Action.Type.END_TURN) {
+                    endTurn = true;
+                }
+                actions.add(entry);
+            }
+            Map<String, Object> response = new HashMap<>();
+            response.put("version", game.getVersion());
+            response.put("gamePhase", current.getCurrentPhase().toString());
+            response.put("currentPlayer", current.getCurrentPlayer().getName());
+            response.put("actions", actions);
+            response.put("endTurn", endTurn);
+            return new JSONObject(response).toString().getBytes(StandardCharsets.UTF_8);
+        });
+    }
+
+    /**
+     * Serves a read-only response from the game's {@link ResponseCache}, building it on the game's
+     * shard only when the current version has not been serialized yet. The response carries the
+     * version as its ETag, and a request whose If-None-Match already names it gets a 304.
+     * Keys of binary responses contain {@code ".bin"}; they get their own ETags. JSON bodies are
+     * compressed as the client accepts, and the compressed bytes are cached too, so each version
+     * is compressed once however many clients read it.
+     *
+     * @param key   Identifies the response within a version.
+     * @param build Builds the response; runs on the game's shard.
+     */
+    private HttpResponse createCachedResponse(HttpRequest request, GameSession gameSession, String key,
+                                              Callable<byte[]> build) throws Exception {
+        boolean binary = key.contains(".bin");
+        long version = gameSession.getVersion();
+        byte[] body = gameSession.getResponses().get(version, key);
+        if (body == null) {
+            Object[] built = gameShards.call(gameSession.getId(), () -> {
+                // The version cannot change on the shard, so it is read again to match the body
+                long current = gameSession.getVersion();
+                byte[] bytes = gameSession.getResponses().get(current, key);
+                if (bytes == null) {
+                    bytes = build.call();
+                    gameSession.getResponses().put(current, key, bytes);
+                }
+                return new Object[]{current, bytes};
+            });
+            version = (Long) built[0];
+            body = (byte[]) built[1];
+        }
+
+        String encoding = binary || body.length < Compression.MIN_BYTES
+                ? null : Compression.negotiate(request.getHeader("accept-encoding"));
+        String etag = etag(version, binary ? "-b" : encoding != null ? "-" + encoding : "");
+        if (request.etagMatches(etag)) {
+            return HttpResponse.text(HttpResponse.NOT_MODIFIED, null, "")
+                    .header("ETag", etag)
+                    .header("Vary", "Accept, Accept-Encoding");
+        }
+        if (encoding != null) {
+            String encodedKey = key + ":" + encoding;
+            byte[] encoded = gameSession.getResponses().get(version, encodedKey);
+            if (encoded == null) {
+                encoded = Compression.compress(body, encoding);
+                gameSession.getResponses().put(version, encodedKey, encoded);
+            }
+            body = encoded;
+        }
+        HttpResponse response = HttpResponse.fixed(HttpResponse.OK, binary ? BinaryProtocol.CONTENT_TYPE : "application/json", body)
+                .header("ETag", etag)
+                .header("Cache-Control", "no-cache")
+                .header("Vary", "Accept, Accept-Encoding");
+        return encoding != null ? response.header("Content-Encoding", encoding) : response;
+    }
+
+    private String etag(long version, String variant) {
+        return "\"" + etagPrefix + "-" + version + variant + "\"";
+    }
+
+    /**
+     * Returns the game state. With {@code ?since=<version>}, only the changes since that version
+     * are returned ({@code "delta": true}), or the full state ({@code "delta": false}) if the
+     * version is too old to compare against. Binary states are always full; they are small enough.
+     */
+    private HttpResponse handleGetGameState(HttpRequest request, GameSession game) throws Exception {
+        if (BinaryProtocol.accepts(request.getHeader("accept"))) {
+            return createCachedResponse(request, game, "state.bin",
+                    () -> BinaryProtocol.writeState(game.getGame(), game.getVersion()));
+        }
+        String since = request.getParams().get("since");
+        if (since == null) {
+            return createCachedResponse(request, game, "state",
+                    () -> GameStateWriter.write(game.getGame(), game.getVersion(), null));
+        }
+        long sinceVersion = Long.parseLong(since);
+        return HttpResponse.fixed(HttpResponse.OK, "application/json", gameShards.call(game.getId(), () -> {
+            Map<String, Object> delta = createDeltaState(game, sinceVersion);
+            if (delta != null) return new JSONObject(delta).toString().getBytes(StandardCharsets.UTF_8);
+            return GameStateWriter.withField(writeState(game, null), "delta", false);
+        }));
+    }
+
+    private HttpResponse handleAction(HttpRequest request, GameSession game) throws Exception {
+        ActionRequest action = ActionRequest.parse(request);
+        if (BinaryProtocol.accepts(request.getHeader("accept"))) {
+            return HttpResponse.fixed(HttpResponse.OK, BinaryProtocol.CONTENT_TYPE, gameShards.call(game.getId(), () -> {
+                applyAction(game, action.actionType, action.workerIndex, action.x, action.y);
+                return BinaryProtocol.writeState(game.getGame(), game.getVersion());
+            })).header("Vary", "Accept");
+        }
+        return HttpResponse.fixed(HttpResponse.OK, "application/json", gameShards.call(game.getId(), () -> {
+            applyAction(game, action.actionType, action.workerIndex, action.x, action.y);
+            return GameStateWriter.write(game.getGame(), game.getVersion(), actionMessage(action.actionType));
+        })).header("Vary", "Accept");
+    }
+
+    /**
+     * Applies a list of actions atomically: they are played on a copy of the game, which replaces
+     * the game only if every action succeeds. The response is the resulting state, or a 409 naming
+     * the index of the failing action ({@code "failedAction"}), in which case the game is untouched.
+     */
+    private HttpResponse handleActions(HttpRequest request, GameSession game) throws Exception {
+        List<ActionRequest> actions = ActionRequest.parseBatch(request);
+        boolean binary = BinaryProtocol.accepts(request.getHeader("accept"));
+        Object result = gameShards.call(game.getId(), () -> {
+            Game played = game.getGame().copy();
+            for (int i = 0; i < actions.size(); i++) {
+                ActionRequest action = actions.get(i);
+                try {
+                    applyTo(played, action.actionType, action.workerIndex, action.x, action.y);
+                } catch (Exception e) {
+                    Map<String, Object> failure = new HashMap<>();
+                    failure.put("error", String.valueOf(e.getMessage()));
+                    failure.put("failedAction", i);
+                    return failure;
+                }
+            }
+            if (!actions.isEmpty()) {
+                countIfFinished(game.getGame().isGameEnded(), played);
+                game.advanceTo(played);
+                if (game.isWatched()) publishState(game);
+            }
+            return binary
+                    ? BinaryProtocol.writeState(game.getGame(), game.getVersion())
+                    : GameStateWriter.write(game.getGame(), game.getVersion(),
+                            actions.size() + " actions processed successfully.");
+        });
+        if (result instanceof Map) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> failure = (Map<String, Object>) result;
+            return createJsonResponse(HttpResponse.CONFLICT, failure);
+        }
+        return HttpResponse.fixed(HttpResponse.OK, binary ? BinaryProtocol.CONTENT_TYPE : "application/json", (byte[]) result)
+                .header("Vary", "Accept");
+    }
+
+    /**
+     * Parses a request body with org.json, for bodies {@link FlatJsonReader} does not handle.
+     */
+    private static JSONObject parseJson(HttpRequest request) throws Exception {
+        try {
+            return new JSONObject(request.getBodyAsString());
+        } catch (Exception e) {
+            throw new Exception("Invalid JSON format.");
+        }
+    }
+
+    /**
+     * The fields of an action request. Bots send these by the thousand, so the body is read
+     * with {@link FlatJsonReader}, and only unusual bodies are left to org.json. Bodies of type
+     * {@link BinaryProtocol#CONTENT_TYPE} are binary actions.
+     */
+    private static final class ActionRequest {
+        String actionType = "";
+        int workerIndex = -1;
+        int x = -1;
+        int y = -1;
+        boolean buildDome; // For Atlas
+
+        static ActionRequest parse(HttpRequest request) throws Exception {
+            byte[] body = request.getBody();
+            if (body.length == 0) {
+                throw new Exception("Empty request body.");
+            }
+
+            if (BinaryProtocol.isBinary(request.getHeader("content-type"))) {
+                if (body.length != BinaryProtocol.ACTION_BYTES) {
+                    throw new Exception("Invalid binary action.");
+                }
+                return fromBinary(body, 0);
+            }
+
+            ActionRequest action = new ActionRequest();
+            FlatJsonReader reader = new FlatJsonReader(body);
+            for (String key = reader.nextKey(); key != null; key = reader.nextKey()) {
+                switch (key) {
+                    case "actionType": action.actionType = reader.readString(); break;
+                    case "workerIndex": action.workerIndex = reader.readInt(); break;
+                    case "x": action.x = reader.readInt(); break;
+                    case "y": action.y = reader.readInt(); break;
+                    case "buildDome": action.buildDome = reader.readBoolean(); break;
+                    default: reader.skipValue(); break;
+                }
+            }
+            if (!reader.failed()) {
+                return action;
+            }
+
+            return fromJson(parseJson(request));
+        }
+
+        /**
+         * Reads a batch for {@code /actions}: a JSON object whose {@code "actions"} array holds
+         * actions as for {@code /action}, or binary actions back to back.
+         */
+        static List<ActionRequest> parseBatch(HttpRequest request) throws Exception {
+            byte[] body = request.getBody();
+            if (body.length == 0) {
+                throw new Exception("Empty request body.");
+            }
+
+            List<ActionRequest> actions = new ArrayList<>();
+            if (BinaryProtocol.isBinary(request.getHeader("content-type"))) {
+                if (body.length % BinaryProtocol.ACTION_BYTES != 0) {
+                    throw new Exception("Invalid binary action.");
+                }
+                for (int offset = 0; offset < body.length; offset += BinaryProtocol.ACTION_BYTES) {
+                    actions.add(fromBinary(body, offset));
+                }
+                return actions;
+            }
+
+            JSONArray array = parseJson(request).optJSONArray("actions");
+            if (array == null) {
+                throw new Exception("Missing actions.");
+            }
+            for (int i = 0; i < array.length(); i++) {
+                JSONObject json = array.optJSONObject(i);
+                if (json == null) {
+                    throw new Exception("Action " + i + " is not an object.");
+                }
+                actions.add(fromJson(json));
+            }
+            return actions;
+        }
+
+        private static ActionRequest fromBinary(byte[] body, int offset) throws Exception {
+            if (body[offset] < 0 || body[offset] >= BinaryProtocol.ACTION_TYPES.size()) {
+                throw new Exception("Invalid binary action.");
+            }
+            ActionRequest action = new ActionRequest();
+            action.actionType = BinaryProtocol.ACTION_TYPES.get(body[offset]);
+            action.workerIndex = body[offset + 1];
+            action.x = body[offset + 2];
+            action.y = body[offset + 3];
+            return action;
+        }
+
+        /**
+         * Reads an action already parsed by org.json, such as one from a batch or a channel message.
+         */
+        static ActionRequest fromJson(JSONObject json) {
+            ActionRequest action = new ActionRequest();
+            action.actionType = json.optString("actionType", "");
+            action.workerIndex = json.optInt("workerIndex", -1);
+            action.x = json.optInt("x", -1);
+            action.y = json.optInt("y", -1);
+            action.buildDome = json.optBoolean("buildDome", false);
+            return action;
+        }
+    }
+
+    private static String actionMessage(String actionType) {
+        return "Action " + actionType + " processed successfully.";
+    }
+
+    /**
+     * Applies an action and records the new version. Runs on the game's shard.
+     */
+    private void applyAction(GameSession gameSession, String actionType, int workerIndex, int x, int y) throws Exception {
+        boolean wasEnded = gameSession.getGame().isGameEnded();
+        applyTo(gameSession.getGame(), actionType, workerIndex, x, y);
+        countIfFinished(wasEnded, gameSession.getGame());
+        gameSession.advanceVersion();
+        if (gameSession.isWatched()) publishState(gameSession);
+    }
+
+    /**
+     * Applies an action, timing it by the acting player's god and the action type.
+     */
+    private void applyTo(Game game, String actionType, int workerIndex, int x, int y) throws Exception {
+        String god = game.getCurrentPlayer().getGodStrategy().getName();
+        long start = System.nanoTime();
+        try {
+            play(game, actionType, workerIndex, x, y);
+        } finally {
+            String type = BinaryProtocol.ACTION_TYPES.contains(actionType) ? actionType : "unknown";
+            metrics.histogram("santorini_action_duration_seconds", "Time to apply an action, by god and action type.",
+                    "god", god, "action", type).recordSince(start);
+        }
+    }
+
+    private static void play(Game game, String actionType, int workerIndex, int x, int y) throws Exception {
+        switch (actionType) {
+            case "placeWorker":
+                if (x == -1 || y == -1) throw new Exception("Invalid coordinates for placement.");
+                game.placeWorker(x, y);
+                break;
+
+            case "move":
+                if (workerIndex == -1 || x == -1 || y == -1) throw new Exception("Invalid move parameters.");
+                game.moveWorker(workerIndex, x, y);
+                break;
+
+            case "build":
+                if (workerIndex == -1 || x == -1 || y == -1) throw new Exception("Invalid build parameters.");
+                // Strategies handle build actions internally
+                game.build(x, y);
+                break;
+
+            case "endTurn":
+                game.getCurrentPlayer().getGodStrategy().playerEndsTurn(game);
+                break;
+
+            default:
+                throw new Exception("Unknown action type.");
+        }
+    }
+
+    /**
+     * Returns the best complete turns for the current player with scores and principal variations.
+     */
+    private HttpResponse handleAnalysis(HttpRequest request, GameSession gameSession) throws Exception {
+        Map<String, String> params = request.getParams();
+        int lines = Math.max(1, Math.min(MAX_ANALYSIS_LINES, Integer.parseInt(params.getOrDefault("lines", "3"))));
+        int depth = Math.max(1, Math.min(MAX_ANALYSIS_DEPTH, Integer.parseInt(params.getOrDefault("depth", "2"))));
+        // Search a snapshot so that long searches do not hold up the game's shard
+        Game game = gameShards.call(gameSession.getId(), () -> gameSession.getGame().copy());
+
+        AnalysisService.Analysis analysis = analysisService.analyse(game, lines, depth);
+
+        List<Map<String, Object>> serializedLines = new ArrayList<>();
+        for (Search.Line line : analysis.getLines()) {
+            List<List<Map<String, Object>>> pv = new ArrayList<>();
+            for (List<Action> turn : line.getPrincipalVariation()) {
+                pv.add(serializeTurn(turn));
+            }
+            serializedLines.add(Map.of(
+                    "turn", serializeTurn(line.getTurn()),
+                    "score", line.getScore(),
+                    "pv", pv
+            ));
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("positionHash", Long.toHexString(analysis.getPositionHash()));
+        response.put("depth", analysis.getDepth());
+        response.put("cached", analysis.isCached());
+        response.put("currentPlayer", game.getCurrentPlayer().getName());
+        response.put("lines", serializedLines);
+        return createJsonResponse(HttpResponse.OK, response);
+    }
+
+    /**
+     * Suggests the next action for the current player, searched to at least the requested depth.
+     */
+    private HttpResponse handleHint(HttpRequest request, GameSession gameSession) throws Exception {
+        Map<String, String> params = request.getParams();
+        int depth = Math.max(1, Math.min(MAX_HINT_DEPTH, Integer.parseInt(params.getOrDefault("depth", "2"))));
+        Game game = gameShards.call(gameSession.getId(), () -> gameSession.getGame().copy());
+
+        HintService.Hint hint = hintService.hint(game, depth);
+        if (hint == null) {
+            return createJsonResponse(HttpResponse.CONFLICT, Map.of("error", "No action available to suggest."));
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("phase", game.getCurrentPhase().toString());
+        response.put("currentPlayer", game.getCurrentPlayer().getName());
+        response.put("hint", hint.getAction().toMap());
+        response.put("score", hint.getScore());
+        response.put("depth", hint.getDepth());
+        response.put("cached", hint.isCached());
+        return createJsonResponse(HttpResponse.OK, response);
+    }
+
+    private List<Map<String, Object>> serializeTurn(List<Action> turn) {
+        List<Map<String, Object>> actions = new ArrayList<>();
+        for (Action action : turn) {
+            actions.add(action.toMap());
+        }
+        return actions;
+    }
+
+    /**
+     * Evaluates many positions in one request. The body holds one position per line in the
+     * {@link org.example.engine.PositionCodec} form; the response streams one JSON object per
+     * line, in input order, as soon as each evaluation finishes.
+     */
+    private HttpResponse handleEvaluateBatch(HttpRequest request) throws Exception {
+        String body = request.getBodyAsString();
+        if (body == null || body.isEmpty()) {
+            throw new Exception("Empty request body.");
+        }
+
+        List<String> positions = new ArrayList<>();
+        for (String line : body.split("\\r?\\n")) {
+            if (!line.isBlank()) positions.add(line);
+        }
+        if (positions.size() > MAX_BATCH_SIZE) {
+            return createJsonResponse(HttpResponse.BAD_REQUEST,
+                    Map.of("error", "At most " + MAX_BATCH_SIZE + " positions per batch."));
+        }
+
+        return HttpResponse.chunked(HttpResponse.OK, "application/x-ndjson",
+                new ResultLineStream(batchEvaluator.submit(positions)));
+    }
+
+    /**
+     * Streams evaluation results as JSON lines in order, blocking only on the next pending result.
+     */
+    private static class ResultLineStream extends InputStream {
+        private final Iterator<CompletableFuture<Map<String, Object>>> results;
+        private byte[] line = new byte[0];
+        private int position = 0;
+
+        ResultLineStream(List<CompletableFuture<Map<String, Object>>> results) {
+            this.results = results.iterator();
+        }
+
+        private boolean fill() {
+            while (position == line.length) {
+                if (!results.hasNext()) return false;
+                line = (new JSONObject(results.next().join()).toString() + "\n").getBytes(StandardCharsets.UTF_8);
+                position = 0;
+            }
+            return true;
+        }
+
+        @Override
+        public int read() {
+            return fill() ? line[position++] & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (length == 0) return 0;
+            if (!fill()) return -1;
+            int count = Math.min(length, line.length - position);
+            System.arraycopy(line, position, buffer, offset, count);
+            position += count;
+            return count;
+        }
+    }
+
+    /**
+     * Streams the game's state as Server-Sent Events: the current state at once, then a new event
+     * each time the game changes. Each event carries the game version as its ID. With
+     * {@code ?delta=true}, events after the first carry only the changes since the previous event,
+     * as for {@code /game-state?since=}, unless the client fell behind.
+     */
+    private HttpResponse handleEvents(HttpRequest request, GameSession gameSession) throws Exception {
+        return streamState(gameSession, Boolean.parseBoolean(request.getParams().get("delta")));
+    }
+
+    /**
+     * Streams the game's state to a read-only spectator, as Server-Sent Events of full snapshots.
+     */
+    private HttpResponse handleSpectate(GameSession gameSession) throws Exception {
+        return streamState(gameSession, false);
+    }
+
+    /**
+     * Subscribes to the game's events. Every subscriber of a game is sent the same encoded frame
+     * of each version, and one that falls behind skips to the newest. On
+     * {@link org.example.server.NioHttpServer} subscribers hold no thread; the frames are written
+     * by the selector threads as the connections drain.
+     */
+    private HttpResponse streamState(GameSession gameSession, boolean deltas) throws Exception {
+        SseBroadcaster.Reservation reservation = gameShards.call(gameSession.getId(), () -> {
+            // Subscribing on the shard means no change can slip in between the subscription and the snapshot
+            SseBroadcaster.Reservation reserved = gameSession.getEvents().reserve(deltas);
+            if (gameSession.getEvents().getVersion() != gameSession.getVersion()) publishState(gameSession);
+            return reserved;
+        });
+        return HttpResponse.broadcast(HttpResponse.OK, "text/event-stream", reservation)
+                .header("Cache-Control", "no-cache");
+    }
+
+    /**
+     * Encodes the current state once and hands it to every event subscriber and channel. Runs on
+     * the game's shard.
+     */
+    private void publishState(GameSession gameSession) throws Exception {
+        // Also warms the cache behind /game-state, since watchers of a game tend to read it too
+        String state = new String(writeState(gameSession, null), StandardCharsets.UTF_8);
+        if (gameSession.getEvents().hasSubscribers()) {
+            Map<String, Object> delta = gameSession.getEvents().hasDeltaSubscribers()
+                    ? createDeltaState(gameSession, gameSession.getVersion() - 1)
+                    : null;
+            gameSession.getEvents().publish(gameSession.getVersion(), state,
+                    delta != null ? new JSONObject(delta).toString() : null);
+        }
+        if (!gameSession.getChannels().isEmpty()) {
+            String message = "{\"type\":\"state\",\"state\":" + state + "}";
+            for (Consumer<String> channel : gameSession.getChannels()) {
+                channel.accept(message);
+            }
+        }
+    }
+
+    /**
+     * Finds the game a channel URI addresses: {@code /ws} for the default game, or
+     * {@code /games/{id}/ws}.
+     *
+     * @return The game, or null if the URI is not a channel endpoint or there is no such game.
+     */
+    private GameSession channelGame(String uri) {
+        if (uri.equals("/ws")) {
+            return defaultSession;
+        }
+        String[] parts = uri.split("/", 4); // "", "games", id, "ws"
+        if (parts.length == 4 && parts[1].equals("games") && parts[3].equals("ws")) {
+            return registry.get(parts[2]);
+        }
+        return null;
+    }
+
+    /**
+     * @return Whether {@link #openChannel} would accept the URI.
+     */
+    public boolean isChannel(String uri) {
+        return channelGame(uri) != null;
+    }
+
+    /**
+     * Opens a channel to the game a URI addresses, as described for {@link #channelGame}. The
+     * current state is pushed at once.
+     *
+     * @param uri    The request URI.
+     * @param sender Sends a text message to the client; it must be safe to call from any thread.
+     * @return The channel, or null if the URI does not address a game.
+     * @throws Exception If the channel cannot be registered with the game.
+     */
+    public Channel openChannel(String uri, Consumer<String> sender) throws Exception {
+        GameSession gameSession = channelGame(uri);
+        if (gameSession == null) {
+            return null;
+        }
+        Channel channel = new Channel(gameSession, sender);
+        gameShards.call(gameSession.getId(), () -> {
+            // Registered on the shard, so the initial state is never newer than the first push
+            gameSession.getChannels().add(channel.pushes);
+            channel.push("{\"type\":\"state\",\"state\":"
+                    + new String(writeState(gameSession, null), StandardCharsets.UTF_8) + "}");
+            return null;
+        });
+        return channel;
+    }
+
+    /**
+     * A persistent connection to one game, for clients that would rather not pay for an HTTP
+     * request per action. Requests and replies are JSON text messages:
+     * <ul>
+     *   <li>{@code {"type":"action", ...}} takes the same fields as {@code POST /action} and is
+     *       answered with {@code {"type":"reply","state":{...}}};</li>
+     *   <li>{@code {"type":"selectableMoveCells"|"selectableBuildCells","workerIndex":i}} is
+     *       answered with {@code {"type":"reply","selectableCells":[...]}};</li>
+     *   <li>{@code {"type":"state"}} is answered with {@code {"type":"reply","state":{...}}}.</li>
+     * </ul>
+     * A request may carry an {@code id}, which its reply echoes. Failures are answered with
+     * {@code {"type":"error","error":"..."}}. Whenever the game changes, whoever changed it, the
+     * channel is pushed {@code {"type":"state","state":{...}}}; a client that reads slowly only
+     * receives the newest state.
+     */
+    public final class Channel {
+        private final GameSession gameSession;
+        private final Consumer<String> sender;
+        private final Consumer<String> pushes = this::push;
+        private final AtomicReference<String> pendingPush = new AtomicReference<>();
+        private final AtomicBoolean pushing = new AtomicBoolean();
+
+        private Channel(GameSession gameSession, Consumer<String> sender) {
+            this.gameSession = gameSession;
+            this.sender = sender;
+        }
+
+        /**
+         * Handles one request from the client and sends the reply.
+         */
+        public void onMessage(String text) {
+            Object id = null;
+            Map<String, Object> reply;
+            try {
+                JSONObject json;
+                try {
+                    json = new JSONObject(text);
+                } catch (Exception e) {
+                    throw new Exception("Invalid JSON format.");
+                }
+                id = json.opt("id");
+                reply = handleMessage(json);
+            } catch (Exception e) {
+                reply = new HashMap<>();
+                reply.put("type", "error");
+                reply.put("error", String.valueOf(e.getMessage()));
+            }
+            if (id != null) reply.put("id", id);
+            sender.accept(new JSONObject(reply).toString());
+        }
+
+        private Map<String, Object> handleMessage(JSONObject json) throws Exception {
+            if (gameSession.isClosed()) {
+                throw new Exception("Game " + gameSession.getId() + " not found.");
+            }
+            Map<String, Object> reply = new HashMap<>();
+            reply.put("type", "reply");
+            String type = json.optString("type", "");
+            switch (type) {
+                case "action": {
+                    // The fields of an action, read as for POST /action
+                    ActionRequest action = ActionRequest.fromJson(json);
+                    reply.put("state", gameShards.call(gameSession.getId(), () -> {
+                        applyAction(gameSession, action.actionType, action.workerIndex, action.x, action.y);
+                        return rawJson(writeState(gameSession, actionMessage(action.actionType)));
+                    }));
+                    break;
+                }
+                case "selectableMoveCells":
+                case "selectableBuildCells": {
+                    if (!json.has("workerIndex")) throw new Exception("Missing workerIndex.");
+                    int workerIndex = json.getInt("workerIndex");
+                    reply.put("selectableCells", gameShards.call(gameSession.getId(), () -> type.equals("selectableMoveCells")
+                            ? gameSession.getGame().getSelectableMoveCells(workerIndex)
+                            : gameSession.getGame().getSelectableBuildCells(workerIndex)));
+                    break;
+                }
+                case "state":
+                    reply.put("state", gameShards.call(gameSession.getId(), () -> rawJson(writeState(gameSession, null))));
+                    break;
+                default:
+                    throw new Exception("Unknown message type.");
+            }
+            return reply;
+        }
+
+        /**
+         * Queues a state push. Only the newest undelivered push is kept, and pushes are sent one
+         * at a time, in order.
+         */
+        private void push(String message) {
+            pendingPush.set(message);
+            if (pushing.compareAndSet(false, true)) {
+                pushExecutor.execute(this::drainPushes);
+            }
+        }
+
+        private void drainPushes() {
+            while (true) {
+                String message = pendingPush.getAndSet(null);
+                if (message != null) {
+                    try {
+                        sender.accept(message);
+                    } catch (RuntimeException e) {
+                        close(); // The connection is gone
+                    }
+                }
+                pushing.set(false);
+                if (pendingPush.get() == null || !pushing.compareAndSet(false, true)) return;
+            }
+        }
+
+        /**
+         * Stops the pushes; call it when the connection closes.
+         */
+        public void close() {
+            gameSession.getChannels().remove(pushes);
+        }
+    }
+
+    /**
+     * Writes the game's state, taking it from the response cache when there is no message. Runs
+     * on the game's shard.
+     */
+    private byte[] writeState(GameSession gameSession, String message) throws Exception {
+        if (message != null) {
+            return GameStateWriter.write(gameSession.getGame(), gameSession.getVersion(), message);
+        }
+        byte[] cached = gameSession.getResponses().get(gameSession.getVersion(), "state");
+        if (cached == null) {
+            cached = GameStateWriter.write(gameSession.getGame(), gameSession.getVersion(), null);
+            gameSession.getResponses().put(gameSession.getVersion(), "state", cached);
+        }
+        return cached;
+    }
+
+    /**
+     * @return A value that {@link JSONObject} embeds as the given JSON, unchanged.
+     */
+    private static JSONString rawJson(byte[] json) {
+        String text = new String(json, StandardCharsets.UTF_8);
+        return () -> text;
+    }
+
+    /**
+     * Describes what changed since an earlier version: the cells whose height or worker changed,
+     * the workers that moved or were placed, and the usual phase and status fields.
+     *
+     * @return The delta, or null if the version is no longer retained. Runs on the game's shard.
+     */
+    private Map<String, Object> createDeltaState(GameSession gameSession, long since) throws Exception {
+        Game game = gameSession.getGame();
+        StateHistory.Delta delta = gameSession.getHistory().since(since, game);
+        if (delta == null) {
+            return null;
+        }
+
+        List<Map<String, Object>> cells = new ArrayList<>();
+        for (int square : delta.getCells()) {
+            cells.add(serializeCell(game, square / 5, square % 5));
+        }
+        List<Worker> workers = game.getAllWorkers();
+        List<Map<String, Object>> workerMoves = new ArrayList<>();
+        for (int[] move : delta.getWorkerMoves()) {
+            Worker worker = workers.get(move[0]);
+            Map<String, Object> workerMove = new HashMap<>();
+            workerMove.put("index", move[0]); // Position in the full state's workers list
+            workerMove.put("id", worker.hashCode());
+            workerMove.put("player", worker.getOwner().getName());
+            workerMove.put("position", Map.of("x", worker.getX(), "y", worker.getY()));
+            if (move[1] >= 0) {
+                workerMove.put("from", Map.of("x", move[1] / 5, "y", move[1] % 5)); // Absent for placements
+            }
+            workerMoves.add(workerMove);
+        }
+
+        Map<String, Object> state = createStateSummary(gameSession);
+        state.put("delta", true);
+        state.put("since", since);
+        state.put("cells", cells);
+        state.put("workerMoves", workerMoves);
+        return state;
+    }
+
+    /**
+     * @return The version, phase, status and god fields shared by full and delta states.
+     */
+    private Map<String, Object> createStateSummary(GameSession gameSession) throws Exception {
+        Game game = gameSession.getGame();
+        Map<String, Object> state = new HashMap<>();
+        state.put("version", gameSession.getVersion());
+        state.put("currentPlayer", game.getCurrentPlayer().getName());
+        state.put("gamePhase", game.getCurrentPhase().toString());
+        state.put("gameEnded", game.isGameEnded());
+        String status = game.isGameEnded() ? game.getWinner() + " Wins!" : "In Progress";
+        state.put("status", status);
+        state.put("winner", game.getWinner()); // Add this line
+        state.put("playerAGod", game.getPlayerA().getGodStrategy().getName());
+        state.put("playerBGod", game.getPlayerB().getGodStrategy().getName());
+
+        // Ensure strategyState is never null
+        Map<String, Object> strategyState = game.getCurrentPlayer().getGodStrategy().getStrategyState();
+        if (strategyState == null) {
+            strategyState = new HashMap<>();
+        }
+        state.put("strategyState", strategyState);
+
+        state.put("currentPlayerGod", game.getCurrentPlayer().getGodStrategy().getName());
+        return state;
+    }
+
+    private Map<String, Object> serializeCell(Game game, int x, int y) {
+        Map<String, Object> cell = new HashMap<>();
+        cell.put("x", x);
+        cell.put("y", y);
+        cell.put("height", game.getBoard().getTowerHeight(x, y));
+
+        Worker worker = game.getBoard().getWorkerAt(x, y);
+        if (worker != null) {
+            cell.put("worker", Map.of(
+                    "id", worker.hashCode(),
+                    "player", worker.getOwner().getName(),
+                    "x", worker.getX(),
+                    "y", worker.getY()
+            ));
+        }
+        return cell;
+    }
+
+    private HttpResponse createJsonResponse(int status, Map<String, Object> data) {
+        return HttpResponse.text(status, "application/json", new JSONObject(data).toString());
+    }
+
+    private static StaticAssets loadStaticAssets() {
+        try {
+            return StaticAssets.load(Paths.get("static"), "/static/");
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Could not read the static directory; static files will not be served", e);
+            return StaticAssets.empty();
+        }
+    }
+
+    private HttpResponse serveStaticFile(HttpRequest request) {
+        HttpResponse response = staticAssets.serve(request.getUri().equals("/") ? "/static/index.html" : request.getUri(), request);
+        return response != null ? response : HttpResponse.text(HttpResponse.NOT_FOUND, NanoHTTPD.MIME_PLAINTEXT, "File not found");
+    }
+
+    private HttpResponse addCORSHeaders(HttpResponse response) {
+        response.header("Access-Control-Allow-Origin", "*");
+        response.header("Access-Control-Allow-Methods", "GET, POST, DELETE, OPTIONS");
+        response.header("Access-Control-Allow-Headers", "Content-Type, Authorization, If-None-Match");
+        response.header("Access-Control-Expose-Headers", "ETag");
+        return response;
+    }
+}
@@ -0,0 +1,123 @@
+// src/main/java/org/example/GameRegistry.java
+package org.example;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Concurrent games keyed by ID. The number of games is bounded; games nobody has used for
+ * longer than the idle timeout are evicted, either by {@link #evictIdle()} or to make room
+ * for a new game when the registry is full.
+ */
+public class GameRegistry {
+    private final Map<String, GameSession> sessions = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final int capacity;
+    private final long idleTimeoutMillis;
+    private final LongSupplier clock;
+
+    /**
+     * @param capacity          Maximum number of concurrent games.
+     * @param idleTimeoutMillis How long a game may go unused before it is evicted.
+     */
+    public GameRegistry(int capacity, long idleTimeoutMillis) {
+        this(capacity, idleTimeoutMillis, System::currentTimeMillis);
+    }
+
+    GameRegistry(int capacity, long idleTimeoutMillis, LongSupplier clock) {
+        this.capacity = capacity;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * Registers a new game under a fresh ID.
+     *
+     * @param game The game to host.
+     * @return The new session, or null if the registry is full even after evicting idle games.
+     */
+    public GameSession create(Game game) {
+        if (!reserve()) {
+            evictIdle();
+            if (!reserve()) {
+                return null;
+            }
+        }
+        GameSession session = new GameSession(UUID.randomUUID().toString(), game, clock.getAsLong());
+        sessions.put(session.getId(), session);
+        return session;
+    }
+
+    private boolean reserve() {
+        while (true) {
+            int current = size.get();
+            if (current >= capacity) {
+                return false;
+            }
+            if (size.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Looks up a game and marks it as used.
+     *
+     * @param id The game ID.
+     * @return The session, or null if there is no such game or it has been evicted.
+     */
+    public GameSession get(String id) {
+        GameSession session = sessions.get(id);
+        if (session != null) {
+            session.touch(clock.getAsLong());
+        }
+        return session;
+    }
+
+    /**
+     * Removes a game.
+     *
+     * @param id The game ID.
+     * @return Whether the game existed.
+     */
+    public boolean remove(String id) {
+        GameSession session = sessions.remove(id);
+        if (session != null) {
+            session.close();
+            size.decrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Removes every game that has been idle for longer than the timeout. A game with open event
+     * streams or channels is being watched, so it is never idle.
+     *
+     * @return The number of games evicted.
+     */
+    public int evictIdle() {
+        long cutoff = clock.getAsLong() - idleTimeoutMillis;
+        int evicted = 0;
+        for (GameSession session : sessions.values()) {
+            if (session.getLastAccess() < cutoff && !session.isWatched()
+                    && sessions.remove(session.getId(), session)) {
+                session.close();
+                size.decrementAndGet();
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,140 @@
+// src/main/java/org/example/GameSession.java
+package org.example;
+
+import org.example.server.SseBroadcaster;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * One hosted match: its ID, the current game, its version and when a client last used it.
+ * The version increases whenever the game changes, and each version is pushed to the
+ * session's event subscribers and channels. Recent versions are kept in a {@link StateHistory}
+ * so that clients can catch up with a delta.
+ */
+public class GameSession {
+    // Versions a client may be behind and still be sent a delta
+    private static final int HISTORY_VERSIONS = 32;
+
+    private final String id;
+    private final SseBroadcaster events = new SseBroadcaster();
+    private final Set<Consumer<String>> channels = ConcurrentHashMap.newKeySet();
+    private final StateHistory history = new StateHistory(HISTORY_VERSIONS);
+    private final ResponseCache responses = new ResponseCache();
+    private volatile Game game;
+    private volatile long version;
+    private volatile long lastAccess;
+    private volatile boolean closed;
+
+    public GameSession(String id, Game game, long now) {
+        this.id = id;
+        this.game = game;
+        this.lastAccess = now;
+        history.record(0, game);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Game getGame() {
+        return game;
+    }
+
+    /**
+     * Replaces the game, for example when the players start a new match in the same session.
+     */
+    public void setGame(Game game) {
+        this.game = game;
+        this.version++;
+        history.clear(); // Nothing of the old game carries over
+        history.record(version, game);
+    }
+
+    /**
+     * @return The number of changes made to the session's games so far.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Records that the game has changed. Only the game's shard calls this, so the increment is not racy.
+     *
+     * @return The new version.
+     */
+    public long advanceVersion() {
+        history.record(++version, game);
+        return version;
+    }
+
+    /**
+     * Continues the match with a game played forward from a copy of the current one, for example
+     * by a batch of actions that all succeeded. Only the game's shard calls this.
+     *
+     * @return The new version.
+     */
+    public long advanceTo(Game game) {
+        this.game = game;
+        return advanceVersion();
+    }
+
+    /**
+     * @return Snapshots of recent versions; only the game's shard may use it.
+     */
+    public StateHistory getHistory() {
+        return history;
+    }
+
+    /**
+     * @return Serialized read responses for the current version.
+     */
+    public ResponseCache getResponses() {
+        return responses;
+    }
+
+    /**
+     * @return The stream of state snapshots for this session's subscribers.
+     */
+    public SseBroadcaster getEvents() {
+        return events;
+    }
+
+    /**
+     * @return Receivers of state push messages, one per open channel.
+     */
+    public Set<Consumer<String>> getChannels() {
+        return channels;
+    }
+
+    /**
+     * @return Whether anyone is following the game through an event stream or a channel.
+     */
+    public boolean isWatched() {
+        return events.hasSubscribers() || !channels.isEmpty();
+    }
+
+    /**
+     * @return Whether the game is no longer hosted.
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public long getLastAccess() {
+        return lastAccess;
+    }
+
+    void touch(long now) {
+        this.lastAccess = now;
+    }
+
+    /**
+     * Marks the game as no longer hosted and ends its event streams.
+     */
+    void close() {
+        closed = true;
+        events.close();
+    }
+}
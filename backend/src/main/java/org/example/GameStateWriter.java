@@ -0,0 +1,265 @@
+// src/main/java/org/example/GameStateWriter.java
+package org.example;
+
+import org.json.JSONObject;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the game-state JSON served by {@code /game-state} and {@code /action} straight from a
+ * {@link Game} into a reusable byte buffer, instead of building maps and a {@link JSONObject}
+ * first. Keys are written from precomputed byte fragments.
+ *
+ * <p>The output is byte-for-byte what serializing the state map with {@link JSONObject} produces.
+ * That depends on the order of the JSONObject's internal hash map, which in turn depends on which
+ * keys are present; the top-level order is therefore worked out once per combination of optional
+ * keys by building such a map, and frozen.</p>
+ *
+ * <p>Every JSON response that carries a whole state is written here, so that clients get the
+ * same bytes for the same version whichever endpoint or channel they use.</p>
+ *
+ * <p>Each thread has its own writer, so the buffer is reused without locking.</p>
+ */
+public final class GameStateWriter {
+    private static final int BOARD_SIZE = 5;
+    private static final ThreadLocal<GameStateWriter> WRITERS = ThreadLocal.withInitial(GameStateWriter::new);
+
+    // Top-level keys in the order the state map was filled; the order only matters for deriving TOP_LEVEL
+    private static final List<String> KEYS = List.of("version", "currentPlayer", "gamePhase", "gameEnded", "status",
+            "winner", "playerAGod", "playerBGod", "strategyState", "currentPlayerGod", "message", "grid", "workers");
+    private static final int VERSION = 0, CURRENT_PLAYER = 1, GAME_PHASE = 2, GAME_ENDED = 3, STATUS = 4,
+            WINNER = 5, PLAYER_A_GOD = 6, PLAYER_B_GOD = 7, STRATEGY_STATE = 8, CURRENT_PLAYER_GOD = 9,
+            MESSAGE = 10, GRID = 11, WORKERS = 12;
+    private static final byte[][] KEY_FRAGMENTS = new byte[KEYS.size()][];
+    // Indices into KEYS by [message present][winner present], in serialized order
+    private static final int[][][] TOP_LEVEL = new int[2][2][];
+
+    static {
+        for (int i = 0; i < KEYS.size(); i++) {
+            KEY_FRAGMENTS[i] = key(KEYS.get(i));
+        }
+        for (int message = 0; message < 2; message++) {
+            for (int winner = 0; winner < 2; winner++) {
+                Map<String, Object> template = new HashMap<>();
+                for (int i = 0; i < KEYS.size(); i++) {
+                    if (i == MESSAGE && message == 0) continue;
+                    // A null winner is put but then skipped by JSONObject, which still sizes its map for it
+                    template.put(KEYS.get(i), i == WINNER && winner == 0 ? null : "");
+                }
+                TOP_LEVEL[message][winner] = new JSONObject(template).keySet().stream().mapToInt(KEYS::indexOf).toArray();
+            }
+        }
+    }
+
+    private static final byte[] X = key("x");
+    private static final byte[] Y = key("y");
+    private static final byte[] HEIGHT = key("height");
+    private static final byte[] WORKER = key("worker");
+    private static final byte[] ID = key("id");
+    private static final byte[] PLAYER = key("player");
+    private static final byte[] POSITION = key("position");
+
+    private byte[] buffer = new byte[4096];
+    private int length;
+
+    private GameStateWriter() {
+    }
+
+    private static byte[] key(String name) {
+        return ("\"" + name + "\":").getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Serializes the state of a game.
+     *
+     * @param game    The game; it is only read.
+     * @param version The game's version.
+     * @param message The message to include, or null for none.
+     * @return The JSON as UTF-8.
+     * @throws Exception If a god strategy cannot describe itself.
+     */
+    public static byte[] write(Game game, long version, String message) throws Exception {
+        return WRITERS.get().writeState(game, version, message);
+    }
+
+    /**
+     * Adds a field in front of a written state, for responses that carry more than the state.
+     *
+     * @param state A state from {@link #write}.
+     * @param name  The field's name.
+     * @param value The field's value, as {@link JSONObject} would serialize it.
+     * @return The state with the field first.
+     */
+    public static byte[] withField(byte[] state, String name, Object value) {
+        byte[] field = (JSONObject.quote(name) + ":" + JSONObject.valueToString(value) + ",").getBytes(StandardCharsets.UTF_8);
+        byte[] result = new byte[state.length + field.length];
+        result[0] = state[0];
+        System.arraycopy(field, 0, result, 1, field.length);
+        System.arraycopy(state, 1, result, 1 + field.length, state.length - 1);
+        return result;
+    }
+
+    private byte[] writeState(Game game, long version, String message) throws Exception {
+        length = 0;
+        List<Worker> workers = game.getAllWorkers();
+        // A worker's ID is its hash code, which hashes its position; work each out once
+        int[] workerIds = new int[workers.size()];
+        for (int i = 0; i < workerIds.length; i++) {
+            workerIds[i] = workers.get(i).hashCode();
+        }
+
+        String winner = game.getWinner();
+        int[] keys = TOP_LEVEL[message != null ? 1 : 0][winner != null ? 1 : 0];
+        append('{');
+        for (int k = 0; k < keys.length; k++) {
+            if (k > 0) append(',');
+            append(KEY_FRAGMENTS[keys[k]]);
+            switch (keys[k]) {
+                case VERSION: appendNumber(version); break;
+                case CURRENT_PLAYER: appendString(game.getCurrentPlayer().getName()); break;
+                case GAME_PHASE: appendString(game.getCurrentPhase().toString()); break;
+                case GAME_ENDED: appendAscii(game.isGameEnded() ? "true" : "false"); break;
+                case STATUS: appendString(game.isGameEnded() ? winner + " Wins!" : "In Progress"); break;
+                case WINNER: appendString(winner); break;
+                case PLAYER_A_GOD: appendString(game.getPlayerA().getGodStrategy().getName()); break;
+                case PLAYER_B_GOD: appendString(game.getPlayerB().getGodStrategy().getName()); break;
+                case STRATEGY_STATE: appendStrategyState(game); break;
+                case CURRENT_PLAYER_GOD: appendString(game.getCurrentPlayer().getGodStrategy().getName()); break;
+                case MESSAGE: appendString(message); break;
+                case GRID: appendGrid(game, workers, workerIds); break;
+                default: appendWorkers(workers, workerIds); break;
+            }
+        }
+        append('}');
+        return Arrays.copyOf(buffer, length);
+    }
+
+    private void appendGrid(Game game, List<Worker> workers, int[] workerIds) {
+        append('[');
+        for (int x = 0; x < BOARD_SIZE; x++) {
+            if (x > 0) append(',');
+            append('[');
+            for (int y = 0; y < BOARD_SIZE; y++) {
+                if (y > 0) append(',');
+                append('{');
+                append(X);
+                appendNumber(x);
+                append(',');
+                append(Y);
+                appendNumber(y);
+                append(',');
+                Worker worker = game.getBoard().getWorkerAt(x, y);
+                if (worker != null) {
+                    append(WORKER);
+                    append('{');
+                    append(X);
+                    appendNumber(worker.getX());
+                    append(',');
+                    append(Y);
+                    appendNumber(worker.getY());
+                    append(',');
+                    append(ID);
+                    int index = workers.indexOf(worker);
+                    appendNumber(index >= 0 ? workerIds[index] : worker.hashCode());
+                    append(',');
+                    append(PLAYER);
+                    appendString(worker.getOwner().getName());
+                    append('}');
+                    append(',');
+                }
+                append(HEIGHT);
+                appendNumber(game.getBoard().getTowerHeight(x, y));
+                append('}');
+            }
+            append(']');
+        }
+        append(']');
+    }
+
+    private void appendWorkers(List<Worker> workers, int[] workerIds) {
+        append('[');
+        for (int i = 0; i < workers.size(); i++) {
+            if (i > 0) append(',');
+            Worker worker = workers.get(i);
+            append('{');
+            append(ID);
+            appendNumber(workerIds[i]);
+            append(',');
+            append(PLAYER);
+            appendString(worker.getOwner().getName());
+            append(',');
+            append(POSITION);
+            append('{');
+            append(X);
+            appendNumber(worker.getX());
+            append(',');
+            append(Y);
+            appendNumber(worker.getY());
+            append('}');
+            append('}');
+        }
+        append(']');
+    }
+
+    private void appendStrategyState(Game game) throws Exception {
+        Map<String, Object> strategyState = game.getCurrentPlayer().getGodStrategy().getStrategyState();
+        if (strategyState == null || strategyState.isEmpty()) {
+            appendAscii("{}");
+        } else {
+            // Small, rare and of any shape, so it is left to JSONObject
+            append(new JSONObject(strategyState).toString().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private void appendNumber(long value) {
+        if (value >= 0 && value < 10) {
+            append((char) ('0' + value));
+        } else {
+            appendAscii(Long.toString(value));
+        }
+    }
+
+    /**
+     * Appends a string quoted and escaped exactly as {@link JSONObject#quote(String)} does.
+     */
+    private void appendString(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < ' ' || c > '~' || c == '"' || c == '\\' || c == '/') {
+                append(JSONObject.quote(value).getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+        }
+        append('"');
+        appendAscii(value);
+        append('"');
+    }
+
+    private void appendAscii(String value) {
+        ensureCapacity(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            buffer[length++] = (byte) value.charAt(i);
+        }
+    }
+
+    private void append(char c) {
+        ensureCapacity(1);
+        buffer[length++] = (byte) c;
+    }
+
+    private void append(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, length, bytes.length);
+        length += bytes.length;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (length + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + extra));
+        }
+    }
+}
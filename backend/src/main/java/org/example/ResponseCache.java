@@ -0,0 +1,53 @@
+// src/main/java/org/example/ResponseCache.java
+package org.example;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Serialized responses for the current version of a game, such as its state or the selectable
+ * cells of a worker. Entries are only valid for the version they were built for; the first entry
+ * for a newer version drops everything cached for older ones. Reads need no lock, so repeated
+ * reads between changes are served without touching the game's shard.
+ */
+public class ResponseCache {
+    private static final class Generation {
+        final long version;
+        final Map<String, byte[]> entries = new ConcurrentHashMap<>();
+
+        Generation(long version) {
+            this.version = version;
+        }
+    }
+
+    private final AtomicReference<Generation> current = new AtomicReference<>(new Generation(-1));
+
+    /**
+     * @param version The game version the caller wants.
+     * @param key     Identifies the response, for example {@code "state"} or {@code "move:0"}.
+     * @return The cached bytes, or null if they are not cached for that version.
+     */
+    public byte[] get(long version, String key) {
+        Generation generation = current.get();
+        return generation.version == version ? generation.entries.get(key) : null;
+    }
+
+    /**
+     * Caches a response built for the given version. Responses for versions older than the newest
+     * cached one are dropped.
+     */
+    public void put(long version, String key, byte[] body) {
+        while (true) {
+            Generation generation = current.get();
+            if (generation.version == version) {
+                generation.entries.put(key, body);
+                return;
+            }
+            if (generation.version > version) {
+                return;
+            }
+            current.compareAndSet(generation, new Generation(version));
+        }
+    }
+}
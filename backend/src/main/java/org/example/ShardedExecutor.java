@@ -0,0 +1,65 @@
+// src/main/java/org/example/ShardedExecutor.java
+package org.example;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * A fixed set of single-threaded executors. Work is pinned to a shard by the hash of its key,
+ * so all work for one key runs in submission order on one thread and never concurrently, while
+ * different keys spread across the shards. {@link Game} and the god strategies keep unsynchronized
+ * per-turn state, so every read and mutation of a hosted game runs on its game ID's shard.
+ */
+public class ShardedExecutor {
+    private final ExecutorService[] shards;
+
+    /**
+     * @param count Number of shards, typically the number of cores.
+     * @param name  Prefix for the shard thread names.
+     */
+    public ShardedExecutor(int count, String name) {
+        shards = new ExecutorService[count];
+        for (int i = 0; i < count; i++) {
+            String threadName = name + "-" + i;
+            shards[i] = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, threadName);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * @return The index of the shard that owns the key.
+     */
+    public int shardOf(String key) {
+        return Math.floorMod(key.hashCode(), shards.length);
+    }
+
+    /**
+     * Runs the task on the key's shard and waits for it. Must not be called from a shard thread.
+     *
+     * @param key  The key that selects the shard, such as a game ID.
+     * @param task The work to run.
+     * @return The task's result.
+     * @throws Exception Whatever the task threw, unwrapped.
+     */
+    public <T> T call(String key, Callable<T> task) throws Exception {
+        try {
+            return shards[shardOf(key)].submit(task).get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) throw (Exception) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw e;
+        }
+    }
+
+    public void shutdown() {
+        for (ExecutorService shard : shards) {
+            shard.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+// src/main/java/org/example/StateHistory.java
+package org.example;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Compact board snapshots of a game's recent versions, so that a client can be sent only what
+ * changed since a version it already has. Each snapshot packs the tower heights, the occupant of
+ * every square and every worker's square into one small array. Only the board is kept; phase,
+ * status and the like are cheap enough to send in full.
+ *
+ * <p>Not thread-safe: the game's shard records and reads the history.</p>
+ */
+public class StateHistory {
+    private static final int SQUARES = 25;
+    private static final int NO_SQUARE = -1;
+
+    /**
+     * What changed on the board between two versions.
+     */
+    public static final class Delta {
+        private final List<Integer> cells;
+        private final List<int[]> workerMoves;
+
+        Delta(List<Integer> cells, List<int[]> workerMoves) {
+            this.cells = cells;
+            this.workerMoves = workerMoves;
+        }
+
+        /**
+         * @return The squares (x * 5 + y) whose height or occupant changed.
+         */
+        public List<Integer> getCells() {
+            return cells;
+        }
+
+        /**
+         * @return For each worker that moved or was placed, its index in {@link Game#getAllWorkers()}
+         *         and its earlier square, or -1 if it has been placed since.
+         */
+        public List<int[]> getWorkerMoves() {
+            return workerMoves;
+        }
+    }
+
+    private static final class Entry {
+        final long version;
+        final byte[] snapshot;
+
+        Entry(long version, byte[] snapshot) {
+            this.version = version;
+            this.snapshot = snapshot;
+        }
+    }
+
+    private final int capacity;
+    private final ArrayDeque<Entry> entries = new ArrayDeque<>();
+
+    /**
+     * @param capacity Number of versions to keep; clients further behind get a full state.
+     */
+    public StateHistory(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Records the board as it is at the given version, dropping the oldest snapshot if full.
+     */
+    public void record(long version, Game game) {
+        if (entries.size() == capacity) {
+            entries.removeFirst();
+        }
+        entries.addLast(new Entry(version, pack(game)));
+    }
+
+    /**
+     * Forgets every snapshot, for example when the session starts a new game.
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Compares a retained version with the current board.
+     *
+     * @param since The version the client has.
+     * @param game  The game at its current version.
+     * @return The changes, or null if the version is no longer (or was never) retained.
+     */
+    public Delta since(long since, Game game) {
+        byte[] base = find(since);
+        if (base == null) {
+            return null;
+        }
+        byte[] current = pack(game);
+
+        List<Integer> cells = new ArrayList<>();
+        for (int square = 0; square < SQUARES; square++) {
+            if (base[square] != current[square] || base[SQUARES + square] != current[SQUARES + square]) {
+                cells.add(square);
+            }
+        }
+        List<int[]> workerMoves = new ArrayList<>();
+        int workersBefore = base.length - 2 * SQUARES;
+        for (int i = 0; i < current.length - 2 * SQUARES; i++) {
+            int from = i < workersBefore ? base[2 * SQUARES + i] : NO_SQUARE;
+            if (from != current[2 * SQUARES + i]) {
+                workerMoves.add(new int[]{i, from});
+            }
+        }
+        return new Delta(cells, workerMoves);
+    }
+
+    private byte[] find(long version) {
+        Iterator<Entry> newestFirst = entries.descendingIterator();
+        while (newestFirst.hasNext()) {
+            Entry entry = newestFirst.next();
+            if (entry.version == version) return entry.snapshot;
+            if (entry.version < version) return null;
+        }
+        return null;
+    }
+
+    private static byte[] pack(Game game) {
+        List<Worker> workers = game.getAllWorkers();
+        byte[] snapshot = new byte[2 * SQUARES + workers.size()];
+        game.getBoard().writeHeights(snapshot, 0);
+        for (int i = 0; i < workers.size(); i++) {
+            int square = workers.get(i).getX() * 5 + workers.get(i).getY();
+            snapshot[SQUARES + square] = (byte) (i + 1); // 0 marks an empty square
+            snapshot[2 * SQUARES + i] = (byte) square;
+        }
+        return snapshot;
+    }
+}
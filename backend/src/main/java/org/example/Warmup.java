@@ -0,0 +1,126 @@
+// src/main/java/org/example/Warmup.java
+package org.example;
+
+import org.example.server.HttpRequest;
+import org.example.server.HttpResponse;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/**
+ * Plays synthetic games through a {@link GameApi} so that the JIT compiles the hot paths before
+ * real traffic arrives. Games cycle through every pair of gods, and each one is played to its end
+ * through the same endpoints clients use: game creation, JSON, gzip and binary states, selectable
+ * cells, legal actions, and JSON, binary and batched actions. Requests go straight to
+ * {@link GameApi#handle}, so no port is needed.
+ *
+ * <p>Compiled code is shared by the whole JVM, so warming one instance warms every instance; the
+ * server warms a separate one, which keeps the synthetic games out of the served one's metrics.</p>
+ */
+public final class Warmup {
+    // Gods the server accepts; each game pairs two different ones
+    private static final List<String> GODS =
+            Game.GOD_NAMES.stream().filter(name -> !name.equals("Default")).collect(Collectors.toList());
+    // Random games that run longer than this are abandoned
+    private static final int MAX_ACTIONS_PER_GAME = 300;
+    private static final Map<String, String> BINARY = Map.of("accept", BinaryProtocol.CONTENT_TYPE);
+    private static final Map<String, String> GZIP = Map.of("accept-encoding", "gzip");
+
+    private final GameApi api;
+    private final Random random;
+    private int requests;
+
+    private Warmup(GameApi api, long seed) {
+        this.api = api;
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Plays the games one after another.
+     *
+     * @param api   The API to warm; the games are deleted once played.
+     * @param games Games to play.
+     * @param seed  Seed for the random choice of actions.
+     * @return The number of requests made.
+     * @throws Exception If an endpoint fails, in which case the server should not report itself ready.
+     */
+    public static int run(GameApi api, int games, long seed) throws Exception {
+        Warmup warmup = new Warmup(api, seed);
+        for (int game = 0; game < games; game++) {
+            warmup.play(game);
+        }
+        return warmup.requests;
+    }
+
+    private void play(int game) throws Exception {
+        // Ordered pairs of different gods, so that every god plays both sides
+        int pair = game % (GODS.size() * (GODS.size() - 1));
+        int a = pair / (GODS.size() - 1);
+        int b = pair % (GODS.size() - 1);
+        if (b >= a) b++;
+        JSONObject created = json(send("POST", "/games", Map.of(), Map.of(),
+                new JSONObject(Map.of("playerAGod", GODS.get(a), "playerBGod", GODS.get(b))).toString()));
+        String path = "/games/" + created.getString("gameId");
+
+        for (int i = 0; i < MAX_ACTIONS_PER_GAME; i++) {
+            send("GET", path + "/state", Map.of(), i % 3 == 0 ? Map.of() : i % 3 == 1 ? GZIP : BINARY, "");
+            JSONArray actions = json(send("GET", path + "/legal-actions", Map.of(), Map.of(), "")).getJSONArray("actions");
+            if (actions.length() == 0) break; // Won, or the player is blocked
+            JSONObject action = actions.getJSONObject(random.nextInt(actions.length()));
+            action.remove("dome");
+
+            String type = action.getString("actionType");
+            if (type.equals("move") || type.equals("build")) {
+                Map<String, String> params = Map.of("workerIndex", String.valueOf(action.getInt("workerIndex")));
+                send("GET", path + "/selectable-" + type + "-cells", params, i % 2 == 0 ? Map.of() : BINARY, "");
+            }
+            switch (i % 3) {
+                case 0:
+                    send("POST", path + "/action", Map.of(), Map.of(), action.toString());
+                    break;
+                case 1:
+                    send("POST", path + "/action", Map.of(), Map.of("content-type", BinaryProtocol.CONTENT_TYPE,
+                            "accept", BinaryProtocol.CONTENT_TYPE), binaryAction(action));
+                    break;
+                default:
+                    send("POST", path + "/actions", Map.of(), GZIP,
+                            new JSONObject(Map.of("actions", new JSONArray().put(action))).toString());
+                    break;
+            }
+        }
+        send("DELETE", path, Map.of(), Map.of(), "");
+    }
+
+    private static byte[] binaryAction(JSONObject action) {
+        return new byte[]{
+                (byte) BinaryProtocol.ACTION_TYPES.indexOf(action.getString("actionType")),
+                (byte) action.optInt("workerIndex", -1),
+                (byte) action.optInt("x", -1),
+                (byte) action.optInt("y", -1)};
+    }
+
+    private HttpResponse send(String method, String uri, Map<String, String> params, Map<String, String> headers,
+                              String body) throws Exception {
+        return send(method, uri, params, headers, body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private HttpResponse send(String method, String uri, Map<String, String> params, Map<String, String> headers,
+                              byte[] body) throws Exception {
+        HttpResponse response = api.handle(new HttpRequest(method, uri, params, headers, body));
+        requests++;
+        if (response.getStatus() >= 400) {
+            throw new Exception("Warm-up request " + method + " " + uri + " failed with status " + response.getStatus()
+                    + ": " + new String(response.getBody(), StandardCharsets.UTF_8));
+        }
+        return response;
+    }
+
+    private static JSONObject json(HttpResponse response) {
+        return new JSONObject(new String(response.getBody(), StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,149 @@
+// src/main/java/org/example/engine/Action.java
+package org.example.engine;
+
+import org.example.Game;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A single player action, mirroring the action types accepted by the {@code /action} endpoint.
+ * Actions are immutable and can be applied to any {@link Game}, typically a copy.
+ */
+public final class Action {
+
+    public enum Type {
+        PLACE_WORKER("placeWorker"),
+        MOVE("move"),
+        BUILD("build"),
+        END_TURN("endTurn");
+
+        private final String wireName;
+
+        Type(String wireName) {
+            this.wireName = wireName;
+        }
+
+        /**
+         * @return The action type name used in request and response bodies.
+         */
+        public String getWireName() {
+            return wireName;
+        }
+    }
+
+    private static final Action END_TURN = new Action(Type.END_TURN, -1, -1, -1);
+
+    private final Type type;
+    private final int workerIndex;
+    private final int x;
+    private final int y;
+
+    private Action(Type type, int workerIndex, int x, int y) {
+        this.type = type;
+        this.workerIndex = workerIndex;
+        this.x = x;
+        this.y = y;
+    }
+
+    public static Action placeWorker(int x, int y) {
+        return new Action(Type.PLACE_WORKER, -1, x, y);
+    }
+
+    public static Action move(int workerIndex, int x, int y) {
+        return new Action(Type.MOVE, workerIndex, x, y);
+    }
+
+    public static Action build(int workerIndex, int x, int y) {
+        return new Action(Type.BUILD, workerIndex, x, y);
+    }
+
+    public static Action endTurn() {
+        return END_TURN;
+    }
+
+    /**
+     * Applies this action to the given game through its public API.
+     *
+     * @param game The game to mutate.
+     * @throws Exception If the game rejects the action.
+     */
+    public void applyTo(Game game) throws Exception {
+        switch (type) {
+            case PLACE_WORKER:
+                game.placeWorker(x, y);
+                break;
+            case MOVE:
+                game.moveWorker(workerIndex, x, y);
+                break;
+            case BUILD:
+                game.build(x, y);
+                break;
+            case END_TURN:
+                game.getCurrentPlayer().getGodStrategy().playerEndsTurn(game);
+                break;
+            default:
+                throw new Exception("Unknown action type.");
+        }
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public int getWorkerIndex() {
+        return workerIndex;
+    }
+
+    public int getX() {
+        return x;
+    }
+
+    public int getY() {
+        return y;
+    }
+
+    /**
+     * Serializes the action in the same shape as an {@code /action} request body.
+     *
+     * @return A map with the action type and whichever of workerIndex, x and y apply.
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("actionType", type.getWireName());
+        if (workerIndex != -1) map.put("workerIndex", workerIndex);
+        if (type != Type.END_TURN) {
+            map.put("x", x);
+            map.put("y", y);
+        }
+        return map;
+    }
+
+    @Override
+    public String toString() {
+        switch (type) {
+            case PLACE_WORKER:
+                return String.format("place(%d, %d)", x, y);
+            case MOVE:
+                return String.format("move[%d](%d, %d)", workerIndex, x, y);
+            case BUILD:
+                return String.format("build[%d](%d, %d)", workerIndex, x, y);
+            default:
+                return "endTurn";
+        }
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (!(obj instanceof Action)) return false;
+        Action other = (Action) obj;
+        return type == other.type && workerIndex == other.workerIndex && x == other.x && y == other.y;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, workerIndex, x, y);
+    }
+}
@@ -0,0 +1,131 @@
+// src/main/java/org/example/engine/AnalysisService.java
+package org.example.engine;
+
+import org.example.Game;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Multi-line analysis with results cached per position hash. A cached analysis answers any
+ * request for the same or fewer lines at the same or lower depth, and concurrent requests for
+ * a position that is already being analysed wait for that search instead of starting another.
+ */
+public class AnalysisService {
+
+    /**
+     * The outcome of one analysis.
+     */
+    public static final class Analysis {
+        private final long positionHash;
+        private final int depth;
+        private final int requestedLines;
+        private final List<Search.Line> lines;
+        private final boolean cached;
+
+        Analysis(long positionHash, int depth, int requestedLines, List<Search.Line> lines, boolean cached) {
+            this.positionHash = positionHash;
+            this.depth = depth;
+            this.requestedLines = requestedLines;
+            this.lines = lines;
+            this.cached = cached;
+        }
+
+        public long getPositionHash() {
+            return positionHash;
+        }
+
+        /**
+         * @return The depth actually searched, which may exceed the requested depth.
+         */
+        public int getDepth() {
+            return depth;
+        }
+
+        public List<Search.Line> getLines() {
+            return lines;
+        }
+
+        public boolean isCached() {
+            return cached;
+        }
+    }
+
+    private final Map<Long, Analysis> cache;
+    private final ConcurrentHashMap<String, CompletableFuture<Analysis>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * @param capacity Maximum number of positions kept; the least recently used are dropped first.
+     */
+    public AnalysisService(int capacity) {
+        this.cache = new LinkedHashMap<Long, Analysis>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Analysis> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Analyses the position, reusing a cached or in-progress search when possible.
+     *
+     * @param game  The position; it is copied before searching and never modified.
+     * @param lines Number of best turns wanted.
+     * @param depth Search depth in turns.
+     * @return The analysis.
+     * @throws Exception If the search fails.
+     */
+    public Analysis analyse(Game game, int lines, int depth) throws Exception {
+        long hash = PositionHash.of(game);
+        Analysis hit = lookup(hash, lines, depth);
+        if (hit != null) {
+            return hit;
+        }
+
+        Game snapshot = game.copy();
+        String key = hash + ":" + lines + ":" + depth;
+        CompletableFuture<Analysis> search = new CompletableFuture<>();
+        CompletableFuture<Analysis> running = inFlight.putIfAbsent(key, search);
+        if (running != null) {
+            try {
+                return running.get();
+            } catch (ExecutionException e) {
+                throw (Exception) e.getCause();
+            }
+        }
+
+        try {
+            Analysis analysis = new Analysis(hash, depth, lines, Search.analyse(snapshot, lines, depth), false);
+            synchronized (cache) {
+                Analysis existing = cache.get(hash);
+                if (existing == null || existing.depth < depth
+                        || (existing.depth == depth && existing.requestedLines < lines)) {
+                    cache.put(hash, analysis);
+                }
+            }
+            search.complete(analysis);
+            return analysis;
+        } catch (RuntimeException e) {
+            search.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key);
+        }
+    }
+
+    private Analysis lookup(long hash, int lines, int depth) {
+        Analysis entry;
+        synchronized (cache) {
+            entry = cache.get(hash);
+        }
+        if (entry == null || entry.depth < depth || entry.requestedLines < lines) {
+            return null;
+        }
+        List<Search.Line> slice = entry.lines.subList(0, Math.min(lines, entry.lines.size()));
+        return new Analysis(hash, entry.depth, lines, slice, true);
+    }
+}
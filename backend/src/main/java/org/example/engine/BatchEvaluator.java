@@ -0,0 +1,75 @@
+// src/main/java/org/example/engine/BatchEvaluator.java
+package org.example.engine;
+
+import org.example.Game;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Evaluates batches of encoded positions in parallel. For each position it reports the
+ * number of complete legal turns, the static evaluation and whether a winning turn exists.
+ */
+public class BatchEvaluator {
+    private final ExecutorService executor;
+
+    /**
+     * @param executor Runs the individual evaluations; shared across requests.
+     */
+    public BatchEvaluator(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Starts evaluating every position. Results complete independently and never fail:
+     * malformed positions, and positions the engine fails on, produce an entry with an
+     * {@code error} field.
+     *
+     * @param codes Positions in {@link PositionCodec} form.
+     * @return One future per position, in input order.
+     */
+    public List<CompletableFuture<Map<String, Object>>> submit(List<String> codes) {
+        List<CompletableFuture<Map<String, Object>>> results = new ArrayList<>(codes.size());
+        for (int i = 0; i < codes.size(); i++) {
+            int index = i;
+            String code = codes.get(i);
+            results.add(CompletableFuture.supplyAsync(() -> evaluate(index, code), executor));
+        }
+        return results;
+    }
+
+    /**
+     * Evaluates a single encoded position.
+     *
+     * @param index The position's index in its batch, echoed in the result.
+     * @param code  The encoded position.
+     * @return The result fields.
+     */
+    public static Map<String, Object> evaluate(int index, String code) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("index", index);
+        try {
+            Game game = PositionCodec.decode(code);
+            List<Turn> turns = TurnGenerator.completeTurns(game);
+            boolean immediateWin = false;
+            for (Turn turn : turns) {
+                if (turn.isWinning()) {
+                    immediateWin = true;
+                    break;
+                }
+            }
+            int evaluation = Evaluator.evaluate(game);
+            result.put("legalTurns", turns.size());
+            result.put("evaluation", evaluation);
+            result.put("immediateWin", immediateWin);
+        } catch (RuntimeException e) {
+            // Malformed positions are rejected by the codec; any other failure also stays with its own position
+            result.put("error", e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,70 @@
+// src/main/java/org/example/engine/CanonicalAction.java
+package org.example.engine;
+
+import org.example.Game;
+import org.example.Worker;
+
+import java.util.List;
+
+/**
+ * An action expressed in a position's canonical orientation, with the acting worker identified
+ * by its square instead of its index, so it can be replayed on any symmetric copy of the position.
+ * Squares are -1 where they do not apply.
+ */
+final class CanonicalAction {
+    final Action.Type type;
+    final int workerSquare;
+    final int targetSquare;
+
+    CanonicalAction(Action.Type type, int workerSquare, int targetSquare) {
+        this.type = type;
+        this.workerSquare = workerSquare;
+        this.targetSquare = targetSquare;
+    }
+
+    /**
+     * @param action   An action of the current player of {@code game}.
+     * @param symmetry The symmetry taking {@code game} to its canonical orientation.
+     */
+    static CanonicalAction of(Action action, Game game, int symmetry) {
+        int workerSquare = -1;
+        if (action.getWorkerIndex() != -1) {
+            Worker worker = game.getCurrentPlayer().getWorkers().get(action.getWorkerIndex());
+            workerSquare = Symmetry.apply(symmetry, worker.getX() * 5 + worker.getY());
+        }
+        int targetSquare = action.getType() == Action.Type.END_TURN
+                ? -1 : Symmetry.apply(symmetry, action.getX() * 5 + action.getY());
+        return new CanonicalAction(action.getType(), workerSquare, targetSquare);
+    }
+
+    /**
+     * @param game     A game whose canonical position is the one this action was recorded in.
+     * @param symmetry The symmetry taking {@code game} to its canonical orientation.
+     * @return The same action in the orientation and worker order of {@code game}.
+     */
+    Action toAction(Game game, int symmetry) {
+        int inverse = Symmetry.inverse(symmetry);
+        int workerIndex = -1;
+        if (workerSquare != -1) {
+            int square = Symmetry.apply(inverse, workerSquare);
+            List<Worker> workers = game.getCurrentPlayer().getWorkers();
+            for (int i = 0; i < workers.size(); i++) {
+                if (workers.get(i).getX() * 5 + workers.get(i).getY() == square) {
+                    workerIndex = i;
+                }
+            }
+        }
+        int target = targetSquare == -1 ? -1 : Symmetry.apply(inverse, targetSquare);
+
+        switch (type) {
+            case PLACE_WORKER:
+                return Action.placeWorker(target / 5, target % 5);
+            case MOVE:
+                return Action.move(workerIndex, target / 5, target % 5);
+            case BUILD:
+                return Action.build(workerIndex, target / 5, target % 5);
+            default:
+                return Action.endTurn();
+        }
+    }
+}
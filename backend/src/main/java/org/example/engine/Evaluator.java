@@ -0,0 +1,65 @@
+// src/main/java/org/example/engine/Evaluator.java
+package org.example.engine;
+
+import org.example.Board;
+import org.example.Game;
+import org.example.Player;
+import org.example.Worker;
+
+/**
+ * Static position evaluation from the point of view of the player to move.
+ * Scores favour standing high, having room to climb and being next to a level-3 tower
+ * one could step onto; the opponent's terms are subtracted.
+ */
+public final class Evaluator {
+    /** Score of a won position; losses score the negation. */
+    public static final int WIN = 100_000;
+
+    private static final int[] HEIGHT_WEIGHT = {0, 40, 120, 0, 0};
+    private static final int CLIMB_WEIGHT = 15;
+    private static final int FREE_WEIGHT = 3;
+    private static final int THREAT_WEIGHT = 200;
+
+    private Evaluator() {
+    }
+
+    /**
+     * Evaluates the position without looking ahead.
+     *
+     * @param game The position; it is not modified.
+     * @return The score for the player to move.
+     */
+    public static int evaluate(Game game) {
+        if (game.isGameEnded()) {
+            return game.getCurrentPlayer().getName().equals(game.getWinner()) ? WIN : -WIN;
+        }
+        return playerScore(game.getBoard(), game.getCurrentPlayer())
+                - playerScore(game.getBoard(), game.getOpponentPlayer());
+    }
+
+    private static int playerScore(Board board, Player player) {
+        int score = 0;
+        for (Worker worker : player.getWorkers()) {
+            int x = worker.getX();
+            int y = worker.getY();
+            int height = board.getTowerHeight(x, y);
+            score += HEIGHT_WEIGHT[height];
+
+            for (int dx = -1; dx <= 1; dx++) {
+                for (int dy = -1; dy <= 1; dy++) {
+                    if (dx == 0 && dy == 0) continue;
+                    int nx = x + dx;
+                    int ny = y + dy;
+                    if (!board.isWithinBounds(nx, ny) || board.isOccupied(nx, ny)) continue;
+
+                    int target = board.getTowerHeight(nx, ny);
+                    if (target - height > 1) continue;
+                    score += FREE_WEIGHT;
+                    if (target > height) score += CLIMB_WEIGHT;
+                    if (target == 3 && height == 2) score += THREAT_WEIGHT;
+                }
+            }
+        }
+        return score;
+    }
+}
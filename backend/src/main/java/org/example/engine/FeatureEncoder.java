@@ -0,0 +1,134 @@
+// src/main/java/org/example/engine/FeatureEncoder.java
+package org.example.engine;
+
+import org.example.Game;
+import org.example.Player;
+import org.example.Worker;
+
+/**
+ * Encodes positions into fixed-width feature records, seen from the side to move.
+ * Each record is split into columns so that every column can be stored and memory-mapped
+ * as a dense array:
+ * <ul>
+ *   <li>heights: 5 one-hot planes (levels 0 to 4, level 4 being a dome) of 25 bytes</li>
+ *   <li>workers: 2 planes of 25 bytes, side to move first, then the opponent</li>
+ *   <li>gods: 2 one-hot vectors over {@link Game#GOD_NAMES}, side to move first</li>
+ *   <li>side: 0 if Player A is to move, 1 for Player B</li>
+ *   <li>outcome: +1 if the side to move went on to win, -1 if it lost, 0 if undecided</li>
+ * </ul>
+ * Planes are indexed by square, x * 5 + y.
+ */
+public final class FeatureEncoder {
+    public static final int SQUARES = 25;
+    public static final int HEIGHT_PLANES = 5;
+    public static final int HEIGHT_WIDTH = HEIGHT_PLANES * SQUARES;
+    public static final int WORKER_WIDTH = 2 * SQUARES;
+    public static final int GOD_WIDTH = 2 * Game.GOD_NAMES.size();
+
+    private final byte[] heights = new byte[SQUARES];
+
+    /**
+     * Writes the record columns for one position at the given record index of a block.
+     *
+     * @param game  The position to encode; it is not modified.
+     * @param block The destination block.
+     * @param index The record index within the block.
+     * @throws Exception If a strategy cannot report its name.
+     */
+    public void encode(Game game, FeatureBlock block, int index) throws Exception {
+        game.getBoard().writeHeights(heights, 0);
+        int heightBase = index * HEIGHT_WIDTH;
+        for (int square = 0; square < SQUARES; square++) {
+            block.heights[heightBase + heights[square] * SQUARES + square] = 1;
+        }
+
+        Player toMove = game.getCurrentPlayer();
+        Player opponent = game.getOpponentPlayer();
+        int workerBase = index * WORKER_WIDTH;
+        for (Worker worker : toMove.getWorkers()) {
+            block.workers[workerBase + worker.getX() * 5 + worker.getY()] = 1;
+        }
+        for (Worker worker : opponent.getWorkers()) {
+            block.workers[workerBase + SQUARES + worker.getX() * 5 + worker.getY()] = 1;
+        }
+
+        int godBase = index * GOD_WIDTH;
+        block.gods[godBase + godIndex(toMove)] = 1;
+        block.gods[godBase + Game.GOD_NAMES.size() + godIndex(opponent)] = 1;
+
+        block.side[index] = (byte) (toMove == game.getPlayerA() ? 0 : 1);
+    }
+
+    private static int godIndex(Player player) throws Exception {
+        int index = Game.GOD_NAMES.indexOf(player.getGodStrategy().getName());
+        return Math.max(index, 0);
+    }
+
+    /**
+     * A batch of feature records stored column by column.
+     */
+    public static final class FeatureBlock {
+        final byte[] heights;
+        final byte[] workers;
+        final byte[] gods;
+        final byte[] side;
+        final float[] outcome;
+        private int size;
+
+        public FeatureBlock(int capacity) {
+            heights = new byte[capacity * HEIGHT_WIDTH];
+            workers = new byte[capacity * WORKER_WIDTH];
+            gods = new byte[capacity * GOD_WIDTH];
+            side = new byte[capacity];
+            outcome = new float[capacity];
+        }
+
+        public int capacity() {
+            return side.length;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Reserves the next record slot.
+         *
+         * @return The index of the reserved record.
+         */
+        public int add() {
+            if (size == capacity()) {
+                throw new IllegalStateException("Feature block is full.");
+            }
+            return size++;
+        }
+
+        public void setOutcome(int index, float value) {
+            outcome[index] = value;
+        }
+
+        public byte getSide(int index) {
+            return side[index];
+        }
+
+        public byte[] heights() {
+            return heights;
+        }
+
+        public byte[] workers() {
+            return workers;
+        }
+
+        public byte[] gods() {
+            return gods;
+        }
+
+        public byte[] side() {
+            return side;
+        }
+
+        public float[] outcome() {
+            return outcome;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+// src/main/java/org/example/engine/HintService.java
+package org.example.engine;
+
+import org.example.Game;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Suggests the best next action for the current phase. Suggestions are cached by canonical
+ * position hash and god pair, so symmetric copies of a position in any number of games are
+ * searched once. Each entry records its search depth and is only replaced by a deeper one.
+ * Cached actions are stored in the canonical orientation, with the acting worker identified
+ * by its square, and mapped back onto each requesting game. An optional {@link OpeningBook}
+ * answers well-known positions without searching.
+ */
+public class HintService {
+
+    /**
+     * A suggested action for a particular game.
+     */
+    public static final class Hint {
+        private final Action action;
+        private final int score;
+        private final int depth;
+        private final boolean cached;
+
+        Hint(Action action, int score, int depth, boolean cached) {
+            this.action = action;
+            this.score = score;
+            this.depth = depth;
+            this.cached = cached;
+        }
+
+        public Action getAction() {
+            return action;
+        }
+
+        public int getScore() {
+            return score;
+        }
+
+        public int getDepth() {
+            return depth;
+        }
+
+        public boolean isCached() {
+            return cached;
+        }
+    }
+
+    private static final class Key {
+        private final long hash;
+        private final String godA;
+        private final String godB;
+
+        Key(long hash, String godA, String godB) {
+            this.hash = hash;
+            this.godA = godA;
+            this.godB = godB;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (!(obj instanceof Key)) return false;
+            Key other = (Key) obj;
+            return hash == other.hash && godA.equals(other.godA) && godB.equals(other.godB);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(hash, godA, godB);
+        }
+    }
+
+    /**
+     * A cached suggestion in canonical orientation.
+     */
+    private static final class Entry {
+        private final CanonicalAction move;
+        private final int score;
+        private final int depth;
+
+        Entry(CanonicalAction move, int score, int depth) {
+            this.move = move;
+            this.score = score;
+            this.depth = depth;
+        }
+    }
+
+    private final Map<Key, Entry> cache;
+    private final ConcurrentHashMap<Key, CompletableFuture<Entry>> inFlight = new ConcurrentHashMap<>();
+    private final OpeningBook book;
+
+    /**
+     * @param capacity Maximum number of cached positions; the least recently used are dropped first.
+     */
+    public HintService(int capacity) {
+        this(capacity, null);
+    }
+
+    /**
+     * @param capacity Maximum number of cached positions; the least recently used are dropped first.
+     * @param book     Opening book consulted before searching, or null for none.
+     */
+    public HintService(int capacity, OpeningBook book) {
+        this.book = book;
+        this.cache = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Suggests the next action for the current player.
+     *
+     * @param game  The game; it is copied before searching and never modified.
+     * @param depth Minimum search depth in turns.
+     * @return The hint, or null if the game has ended or the player has no legal action.
+     * @throws Exception If the search fails.
+     */
+    public Hint hint(Game game, int depth) throws Exception {
+        if (game.isGameEnded()) {
+            return null;
+        }
+        PositionHash.Canonical canonical = PositionHash.canonical(game);
+        int symmetry = canonical.getSymmetry();
+        Key key = new Key(canonical.getHash(),
+                game.getPlayerA().getGodStrategy().getName(), game.getPlayerB().getGodStrategy().getName());
+
+        Entry entry;
+        synchronized (cache) {
+            entry = cache.get(key);
+        }
+        if (entry != null && entry.depth >= depth) {
+            return toHint(entry, game, symmetry, true);
+        }
+        if (book != null) {
+            OpeningBook.Move move = book.lookup(game, canonical);
+            if (move != null && move.getDepth() >= depth) {
+                return new Hint(move.getAction(), move.getScore(), move.getDepth(), true);
+            }
+        }
+
+        CompletableFuture<Entry> search = new CompletableFuture<>();
+        CompletableFuture<Entry> running = inFlight.putIfAbsent(key, search);
+        if (running != null) {
+            try {
+                Entry shared = running.get();
+                if (shared == null || shared.depth >= depth) {
+                    return shared == null ? null : toHint(shared, game, symmetry, true);
+                }
+            } catch (ExecutionException e) {
+                throw (Exception) e.getCause();
+            }
+            return hint(game, depth); // The shared search was too shallow; search again
+        }
+
+        try {
+            entry = search(game.copy(), symmetry, depth);
+            if (entry != null) {
+                synchronized (cache) {
+                    Entry existing = cache.get(key);
+                    if (existing == null || existing.depth < entry.depth) {
+                        cache.put(key, entry);
+                    }
+                }
+            }
+            search.complete(entry);
+        } catch (RuntimeException e) {
+            search.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, search);
+        }
+        return entry == null ? null : toHint(entry, game, symmetry, false);
+    }
+
+    private static Entry search(Game game, int symmetry, int depth) {
+        List<Search.Line> lines = Search.analyse(game, 1, depth);
+        if (lines.isEmpty()) {
+            return null;
+        }
+        Search.Line best = lines.get(0);
+        return new Entry(CanonicalAction.of(best.getTurn().get(0), game, symmetry), best.getScore(), depth);
+    }
+
+    private static Hint toHint(Entry entry, Game game, int symmetry, boolean cached) {
+        return new Hint(entry.move.toAction(game, symmetry), entry.score, entry.depth, cached);
+    }
+}
@@ -0,0 +1,215 @@
+// src/main/java/org/example/engine/OpeningBook.java
+package org.example.engine;
+
+import org.example.Game;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A read-only table of searched moves for opening positions, keyed by canonical position hash
+ * and god pair. The file is memory-mapped and searched in place, so a book of any size costs no
+ * heap and is shared by every game. Books are produced offline by
+ * {@link org.example.tools.OpeningBookBuilder}.
+ *
+ * <p>File layout (big-endian): the magic number and the record count as ints, then fixed-width
+ * records sorted by unsigned hash and god pair. Each record holds the hash (long), both god
+ * indices, the action type, worker and target squares in canonical orientation and the search
+ * depth (one byte each), and the score (int).</p>
+ */
+public final class OpeningBook {
+    private static final int MAGIC = 0x53424B31; // "SBK1"
+    private static final int HEADER_SIZE = 8;
+    private static final int RECORD_SIZE = 18;
+
+    /**
+     * A book move for a particular game.
+     */
+    public static final class Move {
+        private final Action action;
+        private final int score;
+        private final int depth;
+
+        Move(Action action, int score, int depth) {
+            this.action = action;
+            this.score = score;
+            this.depth = depth;
+        }
+
+        public Action getAction() {
+            return action;
+        }
+
+        public int getScore() {
+            return score;
+        }
+
+        /**
+         * @return The depth in turns the move was searched to when the book was built.
+         */
+        public int getDepth() {
+            return depth;
+        }
+    }
+
+    private final ByteBuffer records;
+    private final int count;
+
+    private OpeningBook(ByteBuffer records, int count) {
+        this.records = records;
+        this.count = count;
+    }
+
+    /**
+     * Maps a book file into memory.
+     *
+     * @param file The book file.
+     * @return The book.
+     * @throws IOException If the file cannot be read or is not a valid book.
+     */
+    public static OpeningBook open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                throw new IOException("Not an opening book: " + file);
+            }
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            int count = buffer.getInt(4);
+            if (buffer.getInt(0) != MAGIC || size != HEADER_SIZE + (long) count * RECORD_SIZE) {
+                throw new IOException("Not an opening book: " + file);
+            }
+            return new OpeningBook(buffer, count);
+        }
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Looks up the book move for the position.
+     *
+     * @param game The position; it is not modified.
+     * @return The move mapped onto the game's own orientation, or null if the position is not in the book.
+     * @throws Exception If the position cannot be hashed.
+     */
+    public Move lookup(Game game) throws Exception {
+        return lookup(game, PositionHash.canonical(game));
+    }
+
+    Move lookup(Game game, PositionHash.Canonical canonical) throws Exception {
+        long hash = canonical.getHash();
+        int gods = gods(game);
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int offset = HEADER_SIZE + mid * RECORD_SIZE;
+            int cmp = compare(records.getLong(offset), records.getShort(offset + 8) & 0xFFFF, hash, gods);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                CanonicalAction move = new CanonicalAction(Action.Type.values()[records.get(offset + 10)],
+                        records.get(offset + 11), records.get(offset + 12));
+                return new Move(move.toAction(game, canonical.getSymmetry()),
+                        records.getInt(offset + 14), records.get(offset + 13));
+            }
+        }
+        return null;
+    }
+
+    private static int gods(Game game) throws Exception {
+        return PositionHash.godIndex(game.getPlayerA().getGodStrategy().getName()) << 8
+                | PositionHash.godIndex(game.getPlayerB().getGodStrategy().getName());
+    }
+
+    private static int compare(long hashA, int godsA, long hashB, int godsB) {
+        int cmp = Long.compareUnsigned(hashA, hashB);
+        return cmp != 0 ? cmp : Integer.compare(godsA, godsB);
+    }
+
+    /**
+     * Collects searched positions and writes them as a sorted book. When a position is added
+     * more than once, the deepest search is kept.
+     */
+    public static final class Builder {
+        private static final class Entry {
+            final long hash;
+            final int gods;
+            final CanonicalAction move;
+            final int score;
+            final int depth;
+
+            Entry(long hash, int gods, CanonicalAction move, int score, int depth) {
+                this.hash = hash;
+                this.gods = gods;
+                this.move = move;
+                this.score = score;
+                this.depth = depth;
+            }
+        }
+
+        private final List<Entry> entries = new ArrayList<>();
+
+        /**
+         * Records the best action for a position.
+         *
+         * @param game   The position; it is not modified.
+         * @param action The best action for the current player.
+         * @param score  The search score of the action.
+         * @param depth  The depth in turns the action was searched to.
+         * @throws Exception If the position cannot be hashed.
+         */
+        public synchronized void add(Game game, Action action, int score, int depth) throws Exception {
+            PositionHash.Canonical canonical = PositionHash.canonical(game);
+            entries.add(new Entry(canonical.getHash(), gods(game),
+                    CanonicalAction.of(action, game, canonical.getSymmetry()), score, depth));
+        }
+
+        /**
+         * Sorts the collected positions and writes the book.
+         *
+         * @param file The book file; it is replaced if it exists.
+         * @return The number of distinct positions written.
+         * @throws IOException If the file cannot be written.
+         */
+        public synchronized int write(Path file) throws IOException {
+            entries.sort(Comparator.comparing((Entry e) -> e.hash, Long::compareUnsigned)
+                    .thenComparingInt(e -> e.gods)
+                    .thenComparing(Comparator.comparingInt((Entry e) -> e.depth).reversed()));
+            List<Entry> unique = new ArrayList<>();
+            for (Entry entry : entries) {
+                Entry last = unique.isEmpty() ? null : unique.get(unique.size() - 1);
+                if (last == null || last.hash != entry.hash || last.gods != entry.gods) {
+                    unique.add(entry); // The deepest search for a key sorts first
+                }
+            }
+
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(unique.size());
+                for (Entry entry : unique) {
+                    out.writeLong(entry.hash);
+                    out.writeShort(entry.gods);
+                    out.writeByte(entry.move.type.ordinal());
+                    out.writeByte(entry.move.workerSquare);
+                    out.writeByte(entry.move.targetSquare);
+                    out.writeByte(entry.depth);
+                    out.writeInt(entry.score);
+                }
+            }
+            return unique.size();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+// src/main/java/org/example/engine/PositionCodec.java
+package org.example.engine;
+
+import org.example.Board;
+import org.example.Game;
+import org.example.Player;
+import org.example.Worker;
+
+import java.util.List;
+
+/**
+ * Converts turn-start positions to and from a compact one-line text form:
+ * <pre>
+ *   heights workersA workersB side [godA godB]
+ *   0000000000001000000000000 6,18 8,16 A apollo pan
+ * </pre>
+ * {@code heights} holds 25 digits (0 to 4, 4 being a dome) in square order, square = x * 5 + y.
+ * Each workers field lists that player's worker squares in placement order, or {@code -} if none
+ * are placed yet. {@code side} is the player to move, {@code A} or {@code B}. Gods default to Default.
+ */
+public final class PositionCodec {
+
+    private PositionCodec() {
+    }
+
+    /**
+     * Builds a game at the start of a turn from its compact form.
+     *
+     * @param code The encoded position.
+     * @return A new game in the placement or move phase.
+     * @throws IllegalArgumentException If the encoding is malformed or describes an impossible position.
+     */
+    public static Game decode(String code) {
+        String[] fields = code.trim().split("\\s+");
+        if (fields.length != 4 && fields.length != 6) {
+            throw new IllegalArgumentException("Expected 4 or 6 fields but found " + fields.length + ".");
+        }
+        String heights = fields[0];
+        if (heights.length() != 25) {
+            throw new IllegalArgumentException("Heights must have 25 digits.");
+        }
+        Game game = fields.length == 6
+                ? new Game(Game.createGodStrategy(fields[4]), Game.createGodStrategy(fields[5]))
+                : new Game();
+
+        Board board = game.getBoard();
+        for (int square = 0; square < 25; square++) {
+            char c = heights.charAt(square);
+            if (c < '0' || c > '4') {
+                throw new IllegalArgumentException("Heights must be digits from 0 to 4.");
+            }
+            board.setTowerHeight(square / 5, square % 5, c - '0');
+        }
+
+        int[] squaresA = parseWorkers(fields[1]);
+        int[] squaresB = parseWorkers(fields[2]);
+        if (squaresB.length > 0 && squaresA.length < 2) {
+            throw new IllegalArgumentException("Player A places both workers before Player B.");
+        }
+        try {
+            for (int square : squaresA) game.placeWorker(square / 5, square % 5);
+            for (int square : squaresB) game.placeWorker(square / 5, square % 5);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid worker placement: " + e.getMessage());
+        }
+
+        String side = fields[3];
+        if (!side.equals("A") && !side.equals("B")) {
+            throw new IllegalArgumentException("Side to move must be A or B.");
+        }
+        boolean sideIsA = side.equals("A");
+        if (game.getCurrentPhase() == Game.GamePhase.MOVE) {
+            if (!sideIsA) game.switchPlayer();
+        } else if (sideIsA != (game.getCurrentPlayer() == game.getPlayerA())) {
+            throw new IllegalArgumentException("Side to move does not match the placement order.");
+        }
+        return game;
+    }
+
+    /**
+     * Encodes the board, workers, side to move and gods of a game.
+     *
+     * @param game The game to encode; mid-turn strategy state is not captured.
+     * @return The compact form.
+     * @throws Exception If a strategy cannot report its name.
+     */
+    public static String encode(Game game) throws Exception {
+        StringBuilder sb = new StringBuilder(48);
+        Board board = game.getBoard();
+        for (int x = 0; x < 5; x++) {
+            for (int y = 0; y < 5; y++) {
+                sb.append(board.getTowerHeight(x, y));
+            }
+        }
+        sb.append(' ');
+        appendWorkers(sb, game.getPlayerA());
+        sb.append(' ');
+        appendWorkers(sb, game.getPlayerB());
+        sb.append(' ').append(game.getCurrentPlayer() == game.getPlayerA() ? 'A' : 'B');
+        sb.append(' ').append(game.getPlayerA().getGodStrategy().getName().toLowerCase());
+        sb.append(' ').append(game.getPlayerB().getGodStrategy().getName().toLowerCase());
+        return sb.toString();
+    }
+
+    private static int[] parseWorkers(String field) {
+        if (field.equals("-")) {
+            return new int[0];
+        }
+        String[] parts = field.split(",");
+        if (parts.length > 2) {
+            throw new IllegalArgumentException("A player has at most two workers.");
+        }
+        int[] squares = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            try {
+                squares[i] = Integer.parseInt(parts[i]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Worker squares must be numbers from 0 to 24.");
+            }
+            if (squares[i] < 0 || squares[i] > 24) {
+                throw new IllegalArgumentException("Worker squares must be numbers from 0 to 24.");
+            }
+        }
+        return squares;
+    }
+
+    private static void appendWorkers(StringBuilder sb, Player player) {
+        List<Worker> workers = player.getWorkers();
+        if (workers.isEmpty()) {
+            sb.append('-');
+            return;
+        }
+        for (int i = 0; i < workers.size(); i++) {
+            if (i > 0) sb.append(',');
+            sb.append(workers.get(i).getX() * 5 + workers.get(i).getY());
+        }
+    }
+}
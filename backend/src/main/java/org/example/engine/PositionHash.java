@@ -0,0 +1,142 @@
+// src/main/java/org/example/engine/PositionHash.java
+package org.example.engine;
+
+import org.example.Board;
+import org.example.Game;
+import org.example.Worker;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+
+/**
+ * Zobrist hashing of game positions. The hash covers tower heights, each player's worker
+ * squares, the side to move, the phase, both gods and, for positions in the middle of a turn,
+ * the moved worker and the mover's strategy state.
+ */
+public final class PositionHash {
+    private static final long[][] HEIGHT = new long[25][5];
+    private static final long[][] WORKER = new long[2][25];
+    private static final long[] SELECTED = new long[25];
+    private static final long[] PHASE = new long[Game.GamePhase.values().length];
+    private static final long[][] GOD = new long[2][Game.GOD_NAMES.size() + 1];
+    private static final long SIDE_B;
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x5A27041L);
+        for (long[] row : HEIGHT) fill(row, random);
+        for (long[] row : WORKER) fill(row, random);
+        for (long[] row : GOD) fill(row, random);
+        fill(SELECTED, random);
+        fill(PHASE, random);
+        SIDE_B = random.nextLong();
+    }
+
+    private PositionHash() {
+    }
+
+    private static void fill(long[] keys, SplittableRandom random) {
+        for (int i = 0; i < keys.length; i++) keys[i] = random.nextLong();
+    }
+
+    /**
+     * A symmetry-independent hash together with the symmetry that maps the position onto
+     * its canonical orientation.
+     */
+    public static final class Canonical {
+        private final long hash;
+        private final int symmetry;
+
+        Canonical(long hash, int symmetry) {
+            this.hash = hash;
+            this.symmetry = symmetry;
+        }
+
+        public long getHash() {
+            return hash;
+        }
+
+        /**
+         * @return The {@link Symmetry} that takes squares of the hashed game to the canonical orientation.
+         */
+        public int getSymmetry() {
+            return symmetry;
+        }
+    }
+
+    /**
+     * Hashes the full position, including any mid-turn state.
+     *
+     * @param game The position; it is not modified.
+     * @return The 64-bit hash.
+     * @throws Exception If a strategy cannot report its name or state.
+     */
+    public static long of(Game game) throws Exception {
+        return of(game, Symmetry.IDENTITY);
+    }
+
+    /**
+     * Hashes the position so that all eight symmetric orientations share one hash.
+     * Mid-turn strategy state may hold coordinates that are not transformed, so positions in
+     * the middle of a turn are only hashed in their own orientation.
+     *
+     * @param game The position; it is not modified.
+     * @return The smallest hash over all orientations and the symmetry that produced it.
+     * @throws Exception If a strategy cannot report its name or state.
+     */
+    public static Canonical canonical(Game game) throws Exception {
+        if (TurnGenerator.movedWorkerIndex(game) != -1) {
+            return new Canonical(of(game), Symmetry.IDENTITY);
+        }
+        long best = of(game, Symmetry.IDENTITY);
+        int bestSymmetry = Symmetry.IDENTITY;
+        for (int t = 1; t < Symmetry.COUNT; t++) {
+            long hash = of(game, t);
+            if (Long.compareUnsigned(hash, best) < 0) {
+                best = hash;
+                bestSymmetry = t;
+            }
+        }
+        return new Canonical(best, bestSymmetry);
+    }
+
+    private static long of(Game game, int symmetry) throws Exception {
+        Board board = game.getBoard();
+        long hash = 0;
+        for (int x = 0; x < 5; x++) {
+            for (int y = 0; y < 5; y++) {
+                hash ^= HEIGHT[Symmetry.apply(symmetry, x * 5 + y)][board.getTowerHeight(x, y)];
+            }
+        }
+        for (Worker worker : game.getPlayerA().getWorkers()) hash ^= WORKER[0][Symmetry.apply(symmetry, square(worker))];
+        for (Worker worker : game.getPlayerB().getWorkers()) hash ^= WORKER[1][Symmetry.apply(symmetry, square(worker))];
+        if (game.getCurrentPlayer() == game.getPlayerB()) hash ^= SIDE_B;
+        hash ^= PHASE[game.getCurrentPhase().ordinal()];
+        hash ^= GOD[0][godIndex(game.getPlayerA().getGodStrategy().getName())];
+        hash ^= GOD[1][godIndex(game.getPlayerB().getGodStrategy().getName())];
+
+        if (TurnGenerator.movedWorkerIndex(game) != -1) {
+            hash ^= SELECTED[square(game.getSelectedWorker())];
+            Map<String, Object> state = game.getCurrentPlayer().getGodStrategy().getStrategyState();
+            if (state != null && !state.isEmpty()) {
+                hash ^= mix(new TreeMap<>(state).toString().hashCode());
+            }
+        }
+        return hash;
+    }
+
+    private static int square(Worker worker) {
+        return worker.getX() * 5 + worker.getY();
+    }
+
+    static int godIndex(String name) {
+        return Game.GOD_NAMES.indexOf(name) + 1;
+    }
+
+    private static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,135 @@
+// src/main/java/org/example/engine/Search.java
+package org.example.engine;
+
+import org.example.Game;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Fixed-depth negamax search with alpha-beta pruning over complete turns.
+ * Depth counts turns, so depth 1 looks only at the player's own turn and depth 2 adds the
+ * opponent's reply. Scores are from the point of view of the player to move at the root.
+ */
+public final class Search {
+
+    /**
+     * One analysed root turn with its score and principal variation.
+     */
+    public static final class Line {
+        private final List<Action> turn;
+        private final int score;
+        private final List<List<Action>> principalVariation;
+
+        Line(List<Action> turn, int score, List<List<Action>> principalVariation) {
+            this.turn = turn;
+            this.score = score;
+            this.principalVariation = Collections.unmodifiableList(principalVariation);
+        }
+
+        public List<Action> getTurn() {
+            return turn;
+        }
+
+        public int getScore() {
+            return score;
+        }
+
+        /**
+         * @return The expected sequence of turns, starting with this line's own turn.
+         */
+        public List<List<Action>> getPrincipalVariation() {
+            return principalVariation;
+        }
+    }
+
+    private Search() {
+    }
+
+    /**
+     * Finds the best complete turns for the player to move.
+     *
+     * @param game  The position; it is not modified.
+     * @param lines How many of the best turns to return.
+     * @param depth Search depth in turns, at least 1.
+     * @return Up to {@code lines} turns, best first.
+     */
+    public static List<Line> analyse(Game game, int lines, int depth) {
+        List<Turn> turns = ordered(game, TurnGenerator.completeTurns(game));
+        List<Line> best = new ArrayList<>();
+        for (Turn turn : turns) {
+            // Turns that cannot beat the current k-th line only need a bound, not an exact score
+            int alpha = best.size() < lines ? -Evaluator.WIN - 1 : best.get(best.size() - 1).getScore();
+            List<List<Action>> pv = new ArrayList<>();
+            pv.add(turn.getActions());
+            int score;
+            if (turn.isWinning()) {
+                score = Evaluator.WIN;
+            } else if (sameSide(game, turn)) {
+                score = negamax(turn.getResult(), depth - 1, 1, alpha, Evaluator.WIN + 1, pv);
+            } else {
+                score = -negamax(turn.getResult(), depth - 1, 1, -Evaluator.WIN - 1, -alpha, pv);
+            }
+            if (best.size() < lines || score > alpha) {
+                best.add(new Line(turn.getActions(), score, pv));
+                best.sort(Comparator.comparingInt(Line::getScore).reversed());
+                if (best.size() > lines) best.remove(best.size() - 1);
+            }
+        }
+        return best;
+    }
+
+    private static int negamax(Game game, int depth, int ply, int alpha, int beta, List<List<Action>> pv) {
+        if (depth <= 0) {
+            return Evaluator.evaluate(game);
+        }
+        List<Turn> turns = TurnGenerator.completeTurns(game);
+        if (turns.isEmpty()) {
+            return -Evaluator.WIN + ply; // Stuck players lose
+        }
+        for (Turn turn : turns) {
+            if (turn.isWinning()) {
+                pv.add(turn.getActions());
+                return Evaluator.WIN - ply;
+            }
+        }
+
+        List<List<Action>> bestLine = Collections.emptyList();
+        int bestScore = -Evaluator.WIN - 1;
+        for (Turn turn : ordered(game, turns)) {
+            List<List<Action>> line = new ArrayList<>();
+            line.add(turn.getActions());
+            int score = sameSide(game, turn)
+                    ? negamax(turn.getResult(), depth - 1, ply + 1, alpha, beta, line)
+                    : -negamax(turn.getResult(), depth - 1, ply + 1, -beta, -alpha, line);
+            if (score > bestScore) {
+                bestScore = score;
+                bestLine = line;
+            }
+            if (score > alpha) alpha = score;
+            if (alpha >= beta) break;
+        }
+        pv.addAll(bestLine);
+        return bestScore;
+    }
+
+    /**
+     * Orders turns so that winning turns come first, then those leaving the opponent worst off.
+     */
+    private static List<Turn> ordered(Game game, List<Turn> turns) {
+        List<Turn> sorted = new ArrayList<>(turns);
+        sorted.sort(Comparator.comparingInt((Turn turn) -> turn.isWinning() ? 0 : 1)
+                .thenComparingInt(turn -> turn.isWinning() ? 0
+                        : sameSide(game, turn) ? -Evaluator.evaluate(turn.getResult()) : Evaluator.evaluate(turn.getResult())));
+        return sorted;
+    }
+
+    /**
+     * During placement a player places both workers in a row, so a turn does not always pass the move.
+     */
+    private static boolean sameSide(Game game, Turn turn) {
+        return turn.getResult().getCurrentPlayer().getName().equals(game.getCurrentPlayer().getName());
+    }
+}
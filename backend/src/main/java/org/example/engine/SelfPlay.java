@@ -0,0 +1,66 @@
+// src/main/java/org/example/engine/SelfPlay.java
+package org.example.engine;
+
+import org.example.Game;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+
+/**
+ * Plays complete games against itself using a pluggable turn-selection policy.
+ */
+public final class SelfPlay {
+
+    /**
+     * Chooses one of the available complete turns.
+     */
+    public interface Policy {
+        Turn choose(Game game, List<Turn> turns, Random random) throws Exception;
+    }
+
+    /**
+     * Plays a winning turn when one exists, otherwise a uniformly random turn.
+     */
+    public static final Policy RANDOM = (game, turns, random) -> {
+        List<Turn> winning = new ArrayList<>();
+        for (Turn turn : turns) {
+            if (turn.isWinning()) winning.add(turn);
+        }
+        List<Turn> pool = winning.isEmpty() ? turns : winning;
+        return pool.get(random.nextInt(pool.size()));
+    };
+
+    private SelfPlay() {
+    }
+
+    /**
+     * Plays the game forward until it ends, a player is stuck, or the turn limit is reached.
+     *
+     * @param game        The game to play; it is advanced turn by turn and replaced by each turn's result.
+     * @param policy      Chooses each turn.
+     * @param random      Source of randomness for the policy.
+     * @param maxTurns    Maximum number of turns, placements included, before the game is abandoned.
+     * @param onTurnStart Receives the position at the start of every turn; it must not modify it.
+     * @return The winner's name, or null if the game was abandoned.
+     * @throws Exception If the policy fails.
+     */
+    public static String play(Game game, Policy policy, Random random, int maxTurns, Consumer<Game> onTurnStart) throws Exception {
+        Game current = game;
+        for (int turn = 0; turn < maxTurns; turn++) {
+            if (current.isGameEnded()) {
+                return current.getWinner();
+            }
+            onTurnStart.accept(current);
+
+            List<Turn> turns = TurnGenerator.completeTurns(current);
+            if (turns.isEmpty()) {
+                // A player who cannot move loses
+                return current.getOpponentPlayer().getName();
+            }
+            current = policy.choose(current, turns, random).getResult();
+        }
+        return current.isGameEnded() ? current.getWinner() : null;
+    }
+}
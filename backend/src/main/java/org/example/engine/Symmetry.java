@@ -0,0 +1,62 @@
+// src/main/java/org/example/engine/Symmetry.java
+package org.example.engine;
+
+/**
+ * The eight symmetries of the square board (four rotations, each optionally mirrored).
+ * Every god power is unaffected by them, so symmetric positions share analyses.
+ * Squares are numbered x * 5 + y.
+ */
+public final class Symmetry {
+    public static final int COUNT = 8;
+    public static final int IDENTITY = 0;
+
+    // MAP[t][square] is the image of square under symmetry t
+    private static final int[][] MAP = new int[COUNT][25];
+    private static final int[] INVERSE = new int[COUNT];
+
+    static {
+        for (int t = 0; t < COUNT; t++) {
+            for (int x = 0; x < 5; x++) {
+                for (int y = 0; y < 5; y++) {
+                    int tx;
+                    int ty;
+                    switch (t) {
+                        case 0: tx = x; ty = y; break;
+                        case 1: tx = y; ty = 4 - x; break;
+                        case 2: tx = 4 - x; ty = 4 - y; break;
+                        case 3: tx = 4 - y; ty = x; break;
+                        case 4: tx = x; ty = 4 - y; break;
+                        case 5: tx = 4 - x; ty = y; break;
+                        case 6: tx = y; ty = x; break;
+                        default: tx = 4 - y; ty = 4 - x; break;
+                    }
+                    MAP[t][x * 5 + y] = tx * 5 + ty;
+                }
+            }
+        }
+        for (int t = 0; t < COUNT; t++) {
+            for (int u = 0; u < COUNT; u++) {
+                if (MAP[u][MAP[t][1]] == 1 && MAP[u][MAP[t][5]] == 5) {
+                    INVERSE[t] = u;
+                }
+            }
+        }
+    }
+
+    private Symmetry() {
+    }
+
+    /**
+     * @return The image of the square under the given symmetry.
+     */
+    public static int apply(int symmetry, int square) {
+        return MAP[symmetry][square];
+    }
+
+    /**
+     * @return The symmetry that undoes the given one.
+     */
+    public static int inverse(int symmetry) {
+        return INVERSE[symmetry];
+    }
+}
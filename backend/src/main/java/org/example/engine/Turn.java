@@ -0,0 +1,41 @@
+// src/main/java/org/example/engine/Turn.java
+package org.example.engine;
+
+import org.example.Game;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A complete turn for one player: the actions taken and the game they lead to.
+ * The resulting game is a private copy owned by the turn.
+ */
+public final class Turn {
+    private final List<Action> actions;
+    private final Game result;
+
+    Turn(List<Action> actions, Game result) {
+        this.actions = Collections.unmodifiableList(actions);
+        this.result = result;
+    }
+
+    public List<Action> getActions() {
+        return actions;
+    }
+
+    public Game getResult() {
+        return result;
+    }
+
+    /**
+     * @return True if the turn ended the game with a win for the player who took it.
+     */
+    public boolean isWinning() {
+        return result.isGameEnded();
+    }
+
+    @Override
+    public String toString() {
+        return actions.toString();
+    }
+}
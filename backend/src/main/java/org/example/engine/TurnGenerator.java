@@ -0,0 +1,248 @@
+// src/main/java/org/example/engine/TurnGenerator.java
+package org.example.engine;
+
+import org.example.Board;
+import org.example.Game;
+import org.example.Player;
+import org.example.Worker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Enumerates legal actions and complete turns by driving copies of a {@link Game}
+ * through the players' God strategies, so every god power is honoured exactly as in live play.
+ * Candidate actions come from the strategies' selectable cells and are kept only if the
+ * game accepts them.
+ */
+public final class TurnGenerator {
+    // No god grants more than two moves and two builds in a turn
+    private static final int MAX_TURN_ACTIONS = 5;
+    // Set while this thread plays candidate actions, whose logging quietSimulations() drops
+    private static final ThreadLocal<Boolean> SIMULATING = ThreadLocal.withInitial(() -> false);
+
+    private TurnGenerator() {
+    }
+
+    /**
+     * Quiets game and strategy logging down to severe errors. Strategies log every call at INFO
+     * and every rejected candidate at WARNING, which floods the console and serializes worker
+     * threads once positions are simulated in bulk, so engine users call this once at startup.
+     */
+    public static void quietLogging() {
+        Logger.getLogger("org.example.gods").setLevel(Level.SEVERE);
+        Logger.getLogger(Game.class.getName()).setLevel(Level.SEVERE);
+    }
+
+    /**
+     * Undoes {@link #quietLogging()}, returning game and strategy logging to the configured levels.
+     */
+    public static void restoreLogging() {
+        Logger.getLogger("org.example.gods").setLevel(null);
+        Logger.getLogger(Game.class.getName()).setLevel(null);
+    }
+
+    /**
+     * Drops game and strategy logging only while the engine simulates, and only on the simulating
+     * thread, so that a server still logs what happens in live games. Records are dropped by
+     * logger filters, before they reach the shared handlers.
+     */
+    public static void quietSimulations() {
+        List<String> names = new ArrayList<>();
+        names.add(Game.class.getName());
+        for (String god : Game.GOD_NAMES) {
+            // Creating the strategy also initializes the class, and with it the logger it keeps
+            for (Class<?> type = Game.createGodStrategy(god).getClass(); type != Object.class; type = type.getSuperclass()) {
+                names.add(type.getName());
+            }
+        }
+        for (String name : names) {
+            Logger.getLogger(name).setFilter(record -> !SIMULATING.get());
+        }
+    }
+
+    /**
+     * Lists every action the current player may take right now.
+     *
+     * @param game The game to inspect; it is not modified.
+     * @return The legal actions, in board order.
+     */
+    public static List<Action> legalActions(Game game) {
+        if (!SIMULATING.get()) {
+            SIMULATING.set(true);
+            try {
+                return legalActions(game);
+            } finally {
+                SIMULATING.set(false);
+            }
+        }
+        List<Action> actions = new ArrayList<>();
+        for (Turn step : successors(game)) {
+            actions.add(step.getActions().get(0));
+        }
+        return actions;
+    }
+
+    /**
+     * Lists every complete turn for the current player: sequences of actions that end with
+     * the turn passing to the opponent or with the game ending. During placement each turn is
+     * a single worker placement. An empty list in the move phase means the player is stuck.
+     *
+     * @param game The game to expand; it is not modified.
+     * @return The complete turns with their resulting games.
+     */
+    public static List<Turn> completeTurns(Game game) {
+        if (!SIMULATING.get()) {
+            SIMULATING.set(true);
+            try {
+                return completeTurns(game);
+            } finally {
+                SIMULATING.set(false);
+            }
+        }
+        List<Turn> turns = new ArrayList<>();
+        if (game.isGameEnded()) {
+            return turns;
+        }
+        String player = game.getCurrentPlayer().getName();
+        expand(game, player, new ArrayList<>(), turns);
+        return turns;
+    }
+
+    private static void expand(Game game, String player, List<Action> prefix, List<Turn> turns) {
+        for (Turn step : successors(game)) {
+            Action action = step.getActions().get(0);
+            List<Action> actions = new ArrayList<>(prefix);
+            actions.add(action);
+            Game next = step.getResult();
+            if (next.isGameEnded()
+                    || !next.getCurrentPlayer().getName().equals(player)
+                    || action.getType() == Action.Type.PLACE_WORKER) {
+                turns.add(new Turn(actions, next));
+            } else if (action.getType() == Action.Type.BUILD && next.getCurrentPhase() == Game.GamePhase.MOVE) {
+                // Some strategies (Hermes) return to MOVE after building and rely on the
+                // player ending the turn; no further moves are allowed once a turn has built.
+                endTurn(next, actions, turns);
+            } else if (actions.size() < MAX_TURN_ACTIONS) {
+                expand(next, player, actions, turns);
+            }
+        }
+    }
+
+    private static void endTurn(Game game, List<Action> actions, List<Turn> turns) {
+        try {
+            Action.endTurn().applyTo(game);
+        } catch (Exception e) {
+            return;
+        }
+        actions.add(Action.endTurn());
+        turns.add(new Turn(actions, game));
+    }
+
+    /**
+     * Applies every candidate action to its own copy of the game and keeps the accepted ones.
+     */
+    static List<Turn> successors(Game game) {
+        List<Turn> steps = new ArrayList<>();
+        for (Action action : candidates(game)) {
+            Game copy = game.copy();
+            try {
+                action.applyTo(copy);
+            } catch (Exception e) {
+                continue; // Rejected by the game or strategy
+            }
+            steps.add(new Turn(List.of(action), copy));
+        }
+        return steps;
+    }
+
+    private static List<Action> candidates(Game game) {
+        List<Action> candidates = new ArrayList<>();
+        if (game.isGameEnded()) {
+            return candidates;
+        }
+
+        Board board = game.getBoard();
+        Player player = game.getCurrentPlayer();
+        switch (game.getCurrentPhase()) {
+            case PLACEMENT:
+                for (int x = 0; x < 5; x++) {
+                    for (int y = 0; y < 5; y++) {
+                        if (!board.isOccupied(x, y)) {
+                            candidates.add(Action.placeWorker(x, y));
+                        }
+                    }
+                }
+                break;
+
+            case MOVE:
+                int movedIndex = movedWorkerIndex(game);
+                if (movedIndex != -1) {
+                    // A second move offered by the god power (Artemis, Hermes); the player may decline
+                    addMoves(game, movedIndex, candidates);
+                    candidates.add(Action.endTurn());
+                } else {
+                    for (int i = 0; i < player.getWorkers().size(); i++) {
+                        addMoves(game, i, candidates);
+                    }
+                }
+                break;
+
+            case BUILD:
+            case BUILD_AFTER_MOVE:
+                int builderIndex = movedWorkerIndex(game);
+                if (builderIndex == -1) {
+                    break;
+                }
+                try {
+                    for (Map<String, Integer> cell : game.getSelectableBuildCells(builderIndex)) {
+                        candidates.add(Action.build(builderIndex, cell.get("x"), cell.get("y")));
+                    }
+                    Object extraBuild = player.getGodStrategy().getStrategyState().get("extraBuildAvailable");
+                    if (Boolean.TRUE.equals(extraBuild)) {
+                        // An optional second build (Demeter, Hephaestus) may be declined
+                        candidates.add(Action.endTurn());
+                    }
+                } catch (Exception e) {
+                    // No build options
+                }
+                break;
+
+            default:
+                break;
+        }
+        return candidates;
+    }
+
+    private static void addMoves(Game game, int workerIndex, List<Action> candidates) {
+        try {
+            for (Map<String, Integer> cell : game.getSelectableMoveCells(workerIndex)) {
+                candidates.add(Action.move(workerIndex, cell.get("x"), cell.get("y")));
+            }
+        } catch (Exception e) {
+            // No move options for this worker
+        }
+    }
+
+    /**
+     * Finds the index of the worker the current player has already moved this turn.
+     *
+     * @return The worker index, or -1 if the current player has not moved yet.
+     */
+    static int movedWorkerIndex(Game game) {
+        Worker selected = game.getSelectedWorker();
+        if (selected == null) {
+            return -1;
+        }
+        List<Worker> workers = game.getCurrentPlayer().getWorkers();
+        for (int i = 0; i < workers.size(); i++) {
+            if (workers.get(i) == selected) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -15,7 +15,7 @@ import java.util.logging.Logger;
  * Abstract base class for God strategies.
  * Provides default implementations to avoid code duplication.
  */
-public abstract class AbstractGodStrategy implements GodStrategy {
+public abstract class AbstractGodStrategy implements GodStrategy, Cloneable {
     protected static final Logger logger = Logger.getLogger(AbstractGodStrategy.class.getName());
     protected Map<String, Object> strategyState = new HashMap<>();
 
@@ -146,4 +146,17 @@ public abstract class AbstractGodStrategy implements GodStrategy {
     public void setCannotMoveUp(boolean cannotMoveUp) {
         // Default implementation does nothing
     }
+
+    @Override
+    public GodStrategy copy() {
+        try {
+            // Per-turn fields in every strategy are primitives, so a field copy is enough
+            // once the shared strategyState map has been duplicated.
+            AbstractGodStrategy copy = (AbstractGodStrategy) super.clone();
+            copy.strategyState = new HashMap<>(strategyState);
+            return copy;
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError("Strategies are cloneable", e);
+        }
+    }
 }
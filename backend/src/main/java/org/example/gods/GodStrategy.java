@@ -22,6 +22,14 @@ public interface GodStrategy {
     void playerEndsTurn(Game game)throws Exception;
     
     void setCannotMoveUp(boolean cannotMoveUp);
+
+    /**
+     * Creates an independent copy of this strategy, including its per-turn state,
+     * so that a copied {@link Game} can be played forward without affecting the original.
+     *
+     * @return A copy of this strategy.
+     */
+    GodStrategy copy();
     // void setBuildDome(boolean buildDome);
     
 }
@@ -0,0 +1,130 @@
+// src/main/java/org/example/server/AdmissionControl.java
+package org.example.server;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounds the requests in flight per kind of endpoint, so that an overloaded server turns extra
+ * requests away at once instead of slowing every request down. Game actions have priority: each
+ * kind has its own limit, and reads and engine requests are also turned away once the requests
+ * in flight of every kind reach a shared limit, which actions may exceed.
+ */
+public final class AdmissionControl {
+
+    /**
+     * The kinds of request with separate limits.
+     */
+    public enum Kind {
+        /** Requests that change a game, such as actions and new games. */
+        ACTION,
+        /** Reads of game state, such as polls by spectators. */
+        READ,
+        /** Engine searches, such as analysis and hints. */
+        AI
+    }
+
+    // Seconds a turned-away client should wait; engine requests take longest to clear
+    private static final Map<Kind, Integer> RETRY_AFTER_SECONDS = Map.of(Kind.ACTION, 1, Kind.READ, 1, Kind.AI, 5);
+
+    private final Map<Kind, Integer> limits;
+    private final int sharedLimit;
+    private final Map<Kind, AtomicInteger> inFlight = new EnumMap<>(Kind.class);
+    private final AtomicInteger total = new AtomicInteger();
+
+    /**
+     * @param actions     Actions allowed in flight.
+     * @param reads       Reads allowed in flight.
+     * @param ai          Engine requests allowed in flight.
+     * @param sharedLimit Requests of all kinds in flight beyond which only actions are admitted.
+     */
+    public AdmissionControl(int actions, int reads, int ai, int sharedLimit) {
+        this.limits = new EnumMap<>(Map.of(Kind.ACTION, actions, Kind.READ, reads, Kind.AI, ai));
+        this.sharedLimit = sharedLimit;
+        for (Kind kind : Kind.values()) {
+            inFlight.put(kind, new AtomicInteger());
+        }
+    }
+
+    /**
+     * @return Limits that only shed load well beyond what the server handles comfortably.
+     */
+    public static AdmissionControl defaults() {
+        int processors = Runtime.getRuntime().availableProcessors();
+        return new AdmissionControl(512, 512, Math.max(2, processors), 768);
+    }
+
+    /**
+     * Parses limits such as {@code actions=64,reads=256,ai=4,shared=256}; omitted limits keep
+     * their {@link #defaults()}.
+     *
+     * @throws IllegalArgumentException If the spec is malformed.
+     */
+    public static AdmissionControl fromSpec(String spec) {
+        AdmissionControl defaults = defaults();
+        int actions = defaults.limits.get(Kind.ACTION);
+        int reads = defaults.limits.get(Kind.READ);
+        int ai = defaults.limits.get(Kind.AI);
+        int shared = defaults.sharedLimit;
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected name=limit but found " + entry);
+            }
+            int limit = Integer.parseInt(parts[1].trim());
+            if (limit < 1) {
+                throw new IllegalArgumentException("Limits must be positive: " + entry);
+            }
+            switch (parts[0].trim()) {
+                case "actions": actions = limit; break;
+                case "reads": reads = limit; break;
+                case "ai": ai = limit; break;
+                case "shared": shared = limit; break;
+                default: throw new IllegalArgumentException("Unknown limit: " + parts[0]);
+            }
+        }
+        return new AdmissionControl(actions, reads, ai, shared);
+    }
+
+    /**
+     * Admits a request if its kind has room. Every admitted request must be {@link #release released}.
+     *
+     * @return Whether the request may proceed.
+     */
+    public boolean tryAcquire(Kind kind) {
+        AtomicInteger count = inFlight.get(kind);
+        if (count.incrementAndGet() > limits.get(kind)) {
+            count.decrementAndGet();
+            return false;
+        }
+        if (total.incrementAndGet() > sharedLimit && kind != Kind.ACTION) {
+            total.decrementAndGet();
+            count.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Ends an admitted request.
+     */
+    public void release(Kind kind) {
+        total.decrementAndGet();
+        inFlight.get(kind).decrementAndGet();
+    }
+
+    /**
+     * @return Requests of the kind in flight.
+     */
+    public int getInFlight(Kind kind) {
+        return inFlight.get(kind).get();
+    }
+
+    /**
+     * @return The Retry-After value, in seconds, for a turned-away request of the kind.
+     */
+    public static int retryAfterSeconds(Kind kind) {
+        return RETRY_AFTER_SECONDS.get(kind);
+    }
+}
@@ -0,0 +1,107 @@
+// src/main/java/org/example/server/Compression.java
+package org.example.server;
+
+import java.io.ByteArrayOutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Content-Encoding negotiation and compression for response bodies. Compressing with a fresh
+ * {@link java.util.zip.GZIPOutputStream} per response allocates a deflater and its native
+ * buffers every time, so each thread keeps one deflater per encoding and resets it between uses.
+ */
+public final class Compression {
+    public static final String GZIP = "gzip";
+    public static final String DEFLATE = "deflate";
+    // Smaller bodies are outweighed by their headers, so compressing them saves nothing worth the CPU
+    public static final int MIN_BYTES = 256;
+
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+    // gzip wraps raw deflate data in its own header and trailer; deflate is the zlib format
+    private static final ThreadLocal<Deflater> RAW_DEFLATERS =
+            ThreadLocal.withInitial(() -> new Deflater(Deflater.DEFAULT_COMPRESSION, true));
+    private static final ThreadLocal<Deflater> ZLIB_DEFLATERS =
+            ThreadLocal.withInitial(() -> new Deflater(Deflater.DEFAULT_COMPRESSION, false));
+    private static final ThreadLocal<byte[]> BUFFERS = ThreadLocal.withInitial(() -> new byte[8192]);
+
+    private Compression() {
+    }
+
+    /**
+     * Picks an encoding from an Accept-Encoding header, preferring gzip where both are equally acceptable.
+     *
+     * @param acceptEncoding The header, or null.
+     * @return {@link #GZIP}, {@link #DEFLATE}, or null to send the body as it is.
+     */
+    public static String negotiate(String acceptEncoding) {
+        if (acceptEncoding == null) return null;
+        double gzip = -1; // Not listed
+        double deflate = -1;
+        double any = 0;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            double quality = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2));
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            String name = parts[0].trim().toLowerCase();
+            if (name.equals(GZIP) || name.equals("x-gzip")) gzip = quality;
+            else if (name.equals(DEFLATE)) deflate = quality;
+            else if (name.equals("*")) any = quality;
+        }
+        if (gzip < 0) gzip = any;
+        if (deflate < 0) deflate = any;
+        if (gzip > 0 && gzip >= deflate) return GZIP;
+        return deflate > 0 ? DEFLATE : null;
+    }
+
+    /**
+     * @return Whether a body of this type is worth compressing.
+     */
+    public static boolean isCompressible(String contentType) {
+        return contentType != null && (contentType.startsWith("text/") || contentType.contains("json")
+                || contentType.contains("javascript") || contentType.contains("xml") || contentType.contains("svg"));
+    }
+
+    /**
+     * @param encoding {@link #GZIP} or {@link #DEFLATE}.
+     * @return The body in that encoding.
+     */
+    public static byte[] compress(byte[] body, String encoding) {
+        boolean gzip = encoding.equals(GZIP);
+        Deflater deflater = (gzip ? RAW_DEFLATERS : ZLIB_DEFLATERS).get();
+        byte[] buffer = BUFFERS.get();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, body.length / 4));
+        if (gzip) out.write(GZIP_HEADER, 0, GZIP_HEADER.length);
+        try {
+            deflater.setInput(body);
+            deflater.finish();
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+        } finally {
+            deflater.reset();
+        }
+        if (gzip) {
+            CRC32 crc = new CRC32();
+            crc.update(body);
+            writeIntLE(out, (int) crc.getValue());
+            writeIntLE(out, body.length);
+        }
+        return out.toByteArray();
+    }
+
+    private static void writeIntLE(ByteArrayOutputStream out, int value) {
+        out.write(value);
+        out.write(value >>> 8);
+        out.write(value >>> 16);
+        out.write(value >>> 24);
+    }
+}
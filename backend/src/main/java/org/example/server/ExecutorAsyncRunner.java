@@ -0,0 +1,109 @@
+// src/main/java/org/example/server/ExecutorAsyncRunner.java
+package org.example.server;
+
+import fi.iki.elonen.NanoHTTPD;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs NanoHTTPD connections on an {@link ExecutorService} instead of a new platform thread per
+ * connection. Each connection occupies its task for as long as it is kept alive, so with a bounded
+ * pool, connections beyond the pool size wait in the queue until another connection closes.
+ * Virtual threads have no such limit and cost a few hundred bytes per idle connection.
+ */
+public class ExecutorAsyncRunner implements NanoHTTPD.AsyncRunner {
+    private final ExecutorService executor;
+    private final Set<NanoHTTPD.ClientHandler> running = ConcurrentHashMap.newKeySet();
+
+    public ExecutorAsyncRunner(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Creates a runner from a startup option.
+     *
+     * @param spec {@code virtual} for one virtual thread per connection, {@code pooled:N} for a
+     *             fixed pool of N platform threads, or {@code thread} for NanoHTTPD's own
+     *             thread-per-connection runner.
+     * @return The runner.
+     * @throws IllegalArgumentException If the option is unknown or virtual threads are unavailable.
+     */
+    public static NanoHTTPD.AsyncRunner fromSpec(String spec) {
+        if (spec.equals("virtual")) {
+            return virtualThreads();
+        } else if (spec.startsWith("pooled:")) {
+            return pooled(Integer.parseInt(spec.substring("pooled:".length())));
+        } else if (spec.equals("thread")) {
+            return new NanoHTTPD.DefaultAsyncRunner();
+        }
+        throw new IllegalArgumentException("Unknown runner: " + spec + " (expected virtual, pooled:N or thread)");
+    }
+
+    /**
+     * @return Whether the running JVM offers virtual threads (Java 21 and later).
+     */
+    public static boolean virtualThreadsAvailable() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Runs every connection on its own virtual thread.
+     */
+    public static ExecutorAsyncRunner virtualThreads() {
+        return new ExecutorAsyncRunner(virtualThreadExecutor());
+    }
+
+    /**
+     * Creates an executor that starts a virtual thread per task. The build targets Java 17, so the
+     * executor is looked up reflectively and only exists on Java 21 and later runtimes.
+     *
+     * @throws IllegalArgumentException If the runtime has no virtual threads.
+     */
+    public static ExecutorService virtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Virtual threads need Java 21 or later; running on "
+                    + System.getProperty("java.version"), e);
+        }
+    }
+
+    /**
+     * Runs connections on a fixed pool of daemon platform threads.
+     */
+    public static ExecutorAsyncRunner pooled(int threads) {
+        AtomicInteger count = new AtomicInteger();
+        return new ExecutorAsyncRunner(Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "http-" + count.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    @Override
+    public void exec(NanoHTTPD.ClientHandler clientHandler) {
+        running.add(clientHandler);
+        executor.execute(clientHandler);
+    }
+
+    @Override
+    public void closed(NanoHTTPD.ClientHandler clientHandler) {
+        running.remove(clientHandler);
+    }
+
+    @Override
+    public void closeAll() {
+        for (NanoHTTPD.ClientHandler clientHandler : running) {
+            clientHandler.close();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+// src/main/java/org/example/server/HttpRequest.java
+package org.example.server;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * A transport-neutral HTTP request: method, decoded path, query parameters, headers with
+ * lower-case names, and the body.
+ */
+public final class HttpRequest {
+    private final String method;
+    private final String uri;
+    private final Map<String, String> params;
+    private final Map<String, String> headers;
+    private final byte[] body;
+
+    public HttpRequest(String method, String uri, Map<String, String> params, Map<String, String> headers, byte[] body) {
+        this.method = method;
+        this.uri = uri;
+        this.params = params;
+        this.headers = headers;
+        this.body = body;
+    }
+
+    /**
+     * @return The upper-case method name, such as {@code GET}.
+     */
+    public String getMethod() {
+        return method;
+    }
+
+    public String getUri() {
+        return uri;
+    }
+
+    public Map<String, String> getParams() {
+        return params;
+    }
+
+    /**
+     * @param name Header name in lower case.
+     * @return The header value, or null if absent.
+     */
+    public String getHeader(String name) {
+        return headers.get(name);
+    }
+
+    /**
+     * @return Whether the If-None-Match header names the ETag, weakly or not, or is {@code *}.
+     */
+    public boolean etagMatches(String etag) {
+        String ifNoneMatch = getHeader("if-none-match");
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.startsWith("W/")) candidate = candidate.substring(2);
+            if (candidate.equals("*") || candidate.equals(etag)) return true;
+        }
+        return false;
+    }
+
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public String getBodyAsString() {
+        return new String(body, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,145 @@
+// src/main/java/org/example/server/HttpResponse.java
+package org.example.server;
+
+import fi.iki.elonen.NanoHTTPD;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A transport-neutral HTTP response with either a fixed body or a stream that is sent chunked.
+ * A fixed body is a byte array or, for large static files, a buffer such as a memory-mapped
+ * file that transports send without copying. A broadcast is a stream of an
+ * {@link SseBroadcaster}'s versions, which transports may write from the broadcaster's shared
+ * frames instead of reading the stream.
+ */
+public final class HttpResponse {
+    public static final int OK = 200;
+    public static final int CREATED = 201;
+    public static final int NOT_MODIFIED = 304;
+    public static final int BAD_REQUEST = 400;
+    public static final int NOT_FOUND = 404;
+    public static final int CONFLICT = 409;
+    public static final int INTERNAL_ERROR = 500;
+    public static final int SERVICE_UNAVAILABLE = 503;
+
+    private final int status;
+    private final String contentType;
+    private final ByteBuffer body;
+    private final InputStream stream;
+    private final SseBroadcaster.Reservation broadcast;
+    private final Map<String, String> headers = new LinkedHashMap<>();
+
+    private HttpResponse(int status, String contentType, ByteBuffer body, InputStream stream,
+                         SseBroadcaster.Reservation broadcast) {
+        this.status = status;
+        this.contentType = contentType;
+        this.body = body;
+        this.stream = stream;
+        this.broadcast = broadcast;
+    }
+
+    public static HttpResponse fixed(int status, String contentType, byte[] body) {
+        return new HttpResponse(status, contentType, ByteBuffer.wrap(body), null, null);
+    }
+
+    /**
+     * @param body The body; it is shared, not copied, so it must not change afterwards.
+     */
+    public static HttpResponse fixed(int status, String contentType, ByteBuffer body) {
+        return new HttpResponse(status, contentType, body.asReadOnlyBuffer(), null, null);
+    }
+
+    public static HttpResponse text(int status, String contentType, String body) {
+        return fixed(status, contentType, body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param stream The body, sent with chunked transfer encoding as it becomes available and closed afterwards.
+     */
+    public static HttpResponse chunked(int status, String contentType, InputStream stream) {
+        return new HttpResponse(status, contentType, null, stream, null);
+    }
+
+    /**
+     * @param broadcast The subscription to send, chunked; the transport takes it over.
+     */
+    public static HttpResponse broadcast(int status, String contentType, SseBroadcaster.Reservation broadcast) {
+        return new HttpResponse(status, contentType, null, null, broadcast);
+    }
+
+    public HttpResponse header(String name, String value) {
+        headers.put(name, value);
+        return this;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * @return The status line text, such as {@code 200 OK}.
+     */
+    public String getStatusLine() {
+        NanoHTTPD.Response.Status known = NanoHTTPD.Response.Status.lookup(status);
+        return known != null ? known.getDescription() : status + " Status " + status;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public boolean isChunked() {
+        return stream != null || broadcast != null;
+    }
+
+    /**
+     * @return A copy of the fixed body, or null for chunked responses.
+     */
+    public byte[] getBody() {
+        if (body == null) return null;
+        if (body.hasArray() && body.arrayOffset() == 0 && body.position() == 0 && body.remaining() == body.array().length) {
+            return body.array();
+        }
+        byte[] copy = new byte[body.remaining()];
+        body.duplicate().get(copy);
+        return copy;
+    }
+
+    /**
+     * @return A view of the fixed body with its own position, or null for chunked responses.
+     */
+    public ByteBuffer getBodyBuffer() {
+        return body != null ? body.duplicate() : null;
+    }
+
+    /**
+     * @return The length of the fixed body, or -1 for chunked responses.
+     */
+    public int getContentLength() {
+        return body != null ? body.remaining() : -1;
+    }
+
+    /**
+     * @return The streamed body, or null for fixed responses. For a broadcast this takes the
+     *         subscription over as a stream, so it may only be called once.
+     */
+    public InputStream getStream() {
+        return broadcast != null ? broadcast.stream() : stream;
+    }
+
+    /**
+     * @return The subscription of a broadcast, for transports that write its frames themselves;
+     *         null for other responses.
+     */
+    public SseBroadcaster.Reservation getBroadcast() {
+        return broadcast;
+    }
+
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+}
@@ -0,0 +1,232 @@
+// src/main/java/org/example/server/Metrics.java
+package org.example.server;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Counters, gauges and latency histograms, rendered in the Prometheus text format (version 0.0.4)
+ * together with the JVM's heap, GC and thread statistics. Recording is lock-free: counters are
+ * {@link LongAdder}s and histograms bump one slot of an {@link AtomicLongArray}, so request threads
+ * never wait on each other or on a scrape.
+ *
+ * <p>Series are named by alternating label names and values, such as
+ * {@code counter("http_requests_total", "Requests.", "endpoint", "/game-state")}. Every distinct
+ * set of values is kept for good, so label values must come from a small, fixed set.</p>
+ */
+public final class Metrics {
+    /**
+     * The content type of {@link #render()}.
+     */
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final class Family {
+        final String help;
+        final String type;
+        final Map<String, Object> series = new ConcurrentHashMap<>();
+
+        Family(String help, String type) {
+            this.help = help;
+            this.type = type;
+        }
+    }
+
+    private final Map<String, Family> families = new ConcurrentHashMap<>();
+
+    /**
+     * Latencies in buckets whose bounds double from 1µs to about 16.8 s, as HdrHistogram does at its
+     * coarsest precision: recording a value finds its bucket with one leading-zero count, and the
+     * relative error of any quantile read from the buckets is at most a factor of two.
+     */
+    public static final class Histogram {
+        // Bucket i holds latencies below 2^i µs; the last one holds everything slower
+        static final int BUCKETS = 26;
+
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+        private final LongAdder sumNanos = new LongAdder();
+
+        /**
+         * Records a latency; negative values count as zero.
+         */
+        public void record(long nanos) {
+            long micros = Math.max(0, nanos / 1000);
+            counts.incrementAndGet(Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros)));
+            sumNanos.add(Math.max(0, nanos));
+        }
+
+        /**
+         * Records the time elapsed since a {@link System#nanoTime()} reading.
+         */
+        public void recordSince(long startNanos) {
+            record(System.nanoTime() - startNanos);
+        }
+
+        /**
+         * @return Latencies recorded so far.
+         */
+        public long getCount() {
+            long count = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                count += counts.get(i);
+            }
+            return count;
+        }
+
+        private void write(StringBuilder out, String name, String labels) {
+            long cumulative = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                cumulative += counts.get(i);
+                String bound = i == BUCKETS - 1 ? "+Inf" : BigDecimal.valueOf(1L << i, 6).stripTrailingZeros().toPlainString();
+                out.append(name).append("_bucket{").append(labels).append(labels.isEmpty() ? "" : ",")
+                        .append("le=\"").append(bound).append("\"} ").append(cumulative).append('\n');
+            }
+            String braces = labels.isEmpty() ? "" : "{" + labels + "}";
+            out.append(name).append("_sum").append(braces).append(' ').append(sumNanos.sum() / 1e9).append('\n');
+            out.append(name).append("_count").append(braces).append(' ').append(cumulative).append('\n');
+        }
+    }
+
+    /**
+     * @param help   What the counter counts; used the first time the name is seen.
+     * @param labels Label names alternating with their values.
+     * @return The counter for the labels, created at zero if new.
+     */
+    public LongAdder counter(String name, String help, String... labels) {
+        return (LongAdder) series(name, help, "counter", labels);
+    }
+
+    /**
+     * @param help   What the histogram measures, in seconds; used the first time the name is seen.
+     * @param labels Label names alternating with their values.
+     * @return The histogram for the labels, created empty if new.
+     */
+    public Histogram histogram(String name, String help, String... labels) {
+        return (Histogram) series(name, help, "histogram", labels);
+    }
+
+    /**
+     * Registers a value read at every scrape, replacing any gauge with the same name and labels.
+     *
+     * @param labels Label names alternating with their values.
+     */
+    public void gauge(String name, String help, DoubleSupplier value, String... labels) {
+        family(name, help, "gauge").series.put(labelText(labels), value);
+    }
+
+    private Object series(String name, String help, String type, String[] labels) {
+        Family family = family(name, help, type);
+        String key = labelText(labels);
+        Object series = family.series.get(key);
+        if (series == null) {
+            series = family.series.computeIfAbsent(key, k -> type.equals("counter") ? new LongAdder() : new Histogram());
+        }
+        return series;
+    }
+
+    private Family family(String name, String help, String type) {
+        Family family = families.get(name);
+        if (family == null) {
+            family = families.computeIfAbsent(name, k -> new Family(help, type));
+        }
+        if (!family.type.equals(type)) {
+            throw new IllegalArgumentException(name + " is a " + family.type + ", not a " + type);
+        }
+        return family;
+    }
+
+    private static String labelText(String[] labels) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels must come in name-value pairs");
+        }
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0) text.append(',');
+            text.append(labels[i]).append("=\"");
+            String value = labels[i + 1];
+            for (int j = 0; j < value.length(); j++) {
+                char c = value.charAt(j);
+                if (c == '\\' || c == '"') text.append('\\').append(c);
+                else if (c == '\n') text.append("\\n");
+                else text.append(c);
+            }
+            text.append('"');
+        }
+        return text.toString();
+    }
+
+    /**
+     * @return Every metric followed by the JVM's, in the Prometheus text format.
+     */
+    public String render() {
+        StringBuilder out = new StringBuilder(4096);
+        for (Map.Entry<String, Family> entry : new TreeMap<>(families).entrySet()) {
+            String name = entry.getKey();
+            Family family = entry.getValue();
+            writeHeader(out, name, family.help, family.type);
+            for (Map.Entry<String, Object> series : new TreeMap<>(family.series).entrySet()) {
+                String labels = series.getKey();
+                Object value = series.getValue();
+                if (value instanceof Histogram) {
+                    ((Histogram) value).write(out, name, labels);
+                } else {
+                    double number = value instanceof LongAdder
+                            ? ((LongAdder) value).sum() : ((DoubleSupplier) value).getAsDouble();
+                    writeSample(out, name, labels, number);
+                }
+            }
+        }
+        writeJvm(out);
+        return out.toString();
+    }
+
+    private static void writeJvm(StringBuilder out) {
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        MemoryUsage nonHeap = ManagementFactory.getMemoryMXBean().getNonHeapMemoryUsage();
+        writeHeader(out, "jvm_memory_bytes_used", "Used bytes of a memory area.", "gauge");
+        writeSample(out, "jvm_memory_bytes_used", "area=\"heap\"", heap.getUsed());
+        writeSample(out, "jvm_memory_bytes_used", "area=\"nonheap\"", nonHeap.getUsed());
+        writeHeader(out, "jvm_memory_bytes_committed", "Committed bytes of a memory area.", "gauge");
+        writeSample(out, "jvm_memory_bytes_committed", "area=\"heap\"", heap.getCommitted());
+        writeSample(out, "jvm_memory_bytes_committed", "area=\"nonheap\"", nonHeap.getCommitted());
+        writeHeader(out, "jvm_memory_bytes_max", "Maximum bytes of a memory area, or -1 if unbounded.", "gauge");
+        writeSample(out, "jvm_memory_bytes_max", "area=\"heap\"", heap.getMax());
+
+        writeHeader(out, "jvm_gc_collections_total", "Collections run by a garbage collector.", "counter");
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            writeSample(out, "jvm_gc_collections_total", labelText(new String[]{"gc", gc.getName()}), gc.getCollectionCount());
+        }
+        writeHeader(out, "jvm_gc_collection_seconds_total", "Time spent in a garbage collector.", "counter");
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            writeSample(out, "jvm_gc_collection_seconds_total", labelText(new String[]{"gc", gc.getName()}),
+                    gc.getCollectionTime() / 1e3);
+        }
+
+        writeHeader(out, "jvm_threads_current", "Live threads.", "gauge");
+        writeSample(out, "jvm_threads_current", "", ManagementFactory.getThreadMXBean().getThreadCount());
+    }
+
+    private static void writeHeader(StringBuilder out, String name, String help, String type) {
+        out.append("# HELP ").append(name).append(' ').append(help.replace("\\", "\\\\").replace("\n", "\\n")).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void writeSample(StringBuilder out, String name, String labels, double value) {
+        out.append(name);
+        if (!labels.isEmpty()) out.append('{').append(labels).append('}');
+        out.append(' ');
+        if (value == Math.rint(value) && !Double.isInfinite(value)) {
+            out.append((long) value);
+        } else {
+            out.append(value);
+        }
+        out.append('\n');
+    }
+}
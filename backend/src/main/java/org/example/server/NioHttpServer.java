@@ -0,0 +1,536 @@
+// src/main/java/org/example/server/NioHttpServer.java
+package org.example.server;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A non-blocking HTTP/1.1 server. The listening socket is registered with several selector
+ * threads; each one accepts connections and then does all reads and writes for the connections
+ * it accepted, so a reconnect storm is spread across all of them. Requests are parsed on the
+ * selector thread and handed to a worker pool, which may block; responses are queued back to
+ * the connection's selector. Streamed responses are sent chunked, and the worker pauses while
+ * too much of the response is still unsent. Broadcasts hold no worker: the selector thread writes
+ * each new version's shared frame to the connection once the previous one is out, so however many
+ * connections follow a broadcast, a version is encoded once and a slow reader skips to the newest.
+ *
+ * <p>Each connection handles one request at a time; pipelined requests wait in its buffer.</p>
+ *
+ * <p>A selector that fails is replaced, closing the connections it served, so the server keeps
+ * all of its selector threads. If no replacement can be opened, the server stops.</p>
+ */
+public class NioHttpServer {
+    private static final Logger logger = Logger.getLogger(NioHttpServer.class.getName());
+    private static final int MAX_HEADER_BYTES = 16 * 1024;
+    private static final int MAX_BODY_BYTES = 1 << 20;
+    private static final int CHUNK_SIZE = 16 * 1024;
+    // A streaming worker waits while more than this many bytes are queued for the client
+    private static final int MAX_PENDING_BYTES = 256 * 1024;
+    private static final byte[] HEADER_END = {'\r', '\n', '\r', '\n'};
+
+    private final int port;
+    private final RequestHandler handler;
+    private final int selectorCount;
+    private final ExecutorService workers;
+    private final List<SelectorLoop> loops = new ArrayList<>();
+    private final List<Thread> threads = new ArrayList<>();
+    private ServerSocketChannel serverChannel;
+    private volatile boolean running;
+
+    /**
+     * @param port      Port to listen on, or 0 for any free port.
+     * @param handler   Serves the requests.
+     * @param selectors Number of selector threads.
+     * @param workers   Runs the handler; owned by the caller.
+     */
+    public NioHttpServer(int port, RequestHandler handler, int selectors, ExecutorService workers) {
+        this.port = port;
+        this.handler = handler;
+        this.selectorCount = selectors;
+        this.workers = workers;
+    }
+
+    public void start() throws IOException {
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+        serverChannel.bind(new InetSocketAddress(port), 1024);
+        serverChannel.configureBlocking(false);
+        running = true;
+        for (int i = 0; i < selectorCount; i++) {
+            SelectorLoop loop = new SelectorLoop(Selector.open());
+            serverChannel.register(loop.selector, SelectionKey.OP_ACCEPT);
+            loops.add(loop);
+            Thread thread = new Thread(loop, "nio-selector-" + i);
+            threads.add(thread);
+            thread.start();
+        }
+    }
+
+    /**
+     * @return The port actually bound, which differs from the requested one when that was 0.
+     */
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * Closes the listening socket and every connection, and waits for the selector threads to exit.
+     */
+    public void stop() {
+        running = false;
+        try {
+            serverChannel.close();
+        } catch (IOException ignored) {
+        }
+        for (SelectorLoop loop : loops) {
+            loop.selector.wakeup();
+        }
+        for (Thread thread : threads) {
+            if (thread == Thread.currentThread()) continue; // A selector that could not be replaced
+            try {
+                thread.join(5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private final class SelectorLoop implements Runnable {
+        // Replaced by this loop's thread if it fails
+        private volatile Selector selector;
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+        SelectorLoop(Selector selector) {
+            this.selector = selector;
+        }
+
+        /**
+         * Runs the task on this selector's thread.
+         */
+        void execute(Runnable task) {
+            tasks.add(task);
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                try {
+                    select();
+                } catch (IOException e) {
+                    if (!running) break;
+                    logger.log(Level.SEVERE, Thread.currentThread().getName() + " failed; replacing its selector", e);
+                    closeAll();
+                    try {
+                        selector = Selector.open();
+                        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+                    } catch (IOException reopenFailure) {
+                        logger.log(Level.SEVERE, "Could not replace the selector; stopping the server", reopenFailure);
+                        stop();
+                        return;
+                    }
+                }
+            }
+            closeAll();
+        }
+
+        private void select() throws IOException {
+            while (running) {
+                selector.select();
+                Runnable task;
+                while ((task = tasks.poll()) != null) {
+                    task.run();
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) continue;
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+                    Connection connection = (Connection) key.attachment();
+                    if (key.isReadable()) connection.onReadable();
+                    if (key.isValid() && key.isWritable()) connection.onWritable();
+                }
+            }
+        }
+
+        /**
+         * Closes the selector and every connection registered with it.
+         */
+        private void closeAll() {
+            for (SelectionKey key : selector.keys()) {
+                if (key.attachment() instanceof Connection) {
+                    ((Connection) key.attachment()).close();
+                }
+            }
+            try {
+                selector.close();
+            } catch (IOException ignored) {
+            }
+        }
+
+        /**
+         * Accepts the pending connections. Failing to accept one, say because the process is out
+         * of file descriptors, does not affect the selector, so it is logged and the loop goes on.
+         */
+        private void accept() {
+            SocketChannel channel;
+            // Every selector is woken for each connection; whichever accepts first owns it
+            while (true) {
+                try {
+                    channel = serverChannel.accept();
+                } catch (IOException e) {
+                    if (running) logger.log(Level.WARNING, "Could not accept a connection", e);
+                    return;
+                }
+                if (channel == null) return;
+                try {
+                    channel.configureBlocking(false);
+                    channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                    SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+                    key.attach(new Connection(this, channel, key));
+                } catch (IOException e) {
+                    logger.log(Level.WARNING, "Could not set up a connection", e);
+                    try {
+                        channel.close();
+                    } catch (IOException ignored) {
+                    }
+                }
+            }
+        }
+    }
+
+    private final class Connection {
+        private final SelectorLoop loop;
+        private final SocketChannel channel;
+        private final SelectionKey key;
+        private byte[] buffer = new byte[8192];
+        private int length;
+        // Selector thread only: whether a request is being handled
+        private boolean busy;
+        private boolean keepAlive;
+
+        // Guarded by this: output queued by workers and drained by the selector thread
+        private final ArrayDeque<ByteBuffer> output = new ArrayDeque<>();
+        private int pendingBytes;
+        private boolean responseComplete;
+        private volatile boolean closed;
+        // The broadcast being written, if any; selector thread only after setup
+        private volatile SseBroadcaster.Reservation broadcast;
+
+        Connection(SelectorLoop loop, SocketChannel channel, SelectionKey key) {
+            this.loop = loop;
+            this.channel = channel;
+            this.key = key;
+        }
+
+        void onReadable() {
+            try {
+                if (length == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+                int read = channel.read(ByteBuffer.wrap(buffer, length, buffer.length - length));
+                if (read == -1) {
+                    close();
+                    return;
+                }
+                if (broadcast != null) return; // Only read to notice the client leaving
+                length += read;
+                processBuffered();
+            } catch (IOException e) {
+                close();
+            }
+        }
+
+        /**
+         * Starts handling the next complete request in the buffer, if any.
+         */
+        private void processBuffered() {
+            if (busy || closed) return;
+            int headerEnd = indexOf(buffer, length, HEADER_END);
+            if (headerEnd == -1) {
+                if (length > MAX_HEADER_BYTES) rejectAndClose(431);
+                return;
+            }
+
+            String[] lines = new String(buffer, 0, headerEnd, StandardCharsets.ISO_8859_1).split("\r\n");
+            String[] requestLine = lines[0].split(" ");
+            if (requestLine.length != 3) {
+                rejectAndClose(400);
+                return;
+            }
+            Map<String, String> headers = new HashMap<>();
+            for (int i = 1; i < lines.length; i++) {
+                int colon = lines[i].indexOf(':');
+                if (colon > 0) {
+                    headers.put(lines[i].substring(0, colon).trim().toLowerCase(), lines[i].substring(colon + 1).trim());
+                }
+            }
+            if (headers.containsKey("transfer-encoding")) {
+                rejectAndClose(411); // Only Content-Length request bodies are supported
+                return;
+            }
+            int contentLength;
+            try {
+                contentLength = Integer.parseInt(headers.getOrDefault("content-length", "0"));
+            } catch (NumberFormatException e) {
+                rejectAndClose(400);
+                return;
+            }
+            if (contentLength < 0 || contentLength > MAX_BODY_BYTES) {
+                rejectAndClose(413);
+                return;
+            }
+            int total = headerEnd + HEADER_END.length + contentLength;
+            if (length < total) {
+                if (buffer.length < total) buffer = Arrays.copyOf(buffer, total);
+                return;
+            }
+
+            byte[] body = Arrays.copyOfRange(buffer, headerEnd + HEADER_END.length, total);
+            System.arraycopy(buffer, total, buffer, 0, length - total);
+            length -= total;
+
+            String connectionHeader = headers.getOrDefault("connection", "");
+            keepAlive = requestLine[2].equals("HTTP/1.1")
+                    ? !connectionHeader.equalsIgnoreCase("close")
+                    : connectionHeader.equalsIgnoreCase("keep-alive");
+            String target = requestLine[1];
+            int query = target.indexOf('?');
+            HttpRequest request = new HttpRequest(requestLine[0].toUpperCase(),
+                    decode(query == -1 ? target : target.substring(0, query)),
+                    query == -1 ? new HashMap<>() : parseQuery(target.substring(query + 1)), headers, body);
+
+            busy = true;
+            key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+            workers.execute(() -> respond(request));
+        }
+
+        /**
+         * Runs on a worker thread: handles the request and queues the response.
+         */
+        private void respond(HttpRequest request) {
+            HttpResponse response;
+            try {
+                response = handler.handle(request);
+            } catch (RuntimeException e) {
+                logger.log(Level.SEVERE, "Failed to handle " + request.getMethod() + " " + request.getUri(), e);
+                response = HttpResponse.text(HttpResponse.INTERNAL_ERROR, "text/plain", "Internal Server Error");
+            }
+
+            StringBuilder head = new StringBuilder("HTTP/1.1 ").append(response.getStatusLine()).append("\r\n");
+            if (response.getContentType() != null) {
+                head.append("Content-Type: ").append(response.getContentType()).append("\r\n");
+            }
+            response.getHeaders().forEach((name, value) -> head.append(name).append(": ").append(value).append("\r\n"));
+            head.append(response.isChunked()
+                    ? "Transfer-Encoding: chunked\r\n"
+                    : "Content-Length: " + response.getContentLength() + "\r\n");
+            head.append(keepAlive ? "Connection: keep-alive\r\n\r\n" : "Connection: close\r\n\r\n");
+            ByteBuffer headBytes = ByteBuffer.wrap(head.toString().getBytes(StandardCharsets.ISO_8859_1));
+
+            if (!response.isChunked()) {
+                send(true, headBytes, response.getBodyBuffer());
+                return;
+            }
+            send(false, headBytes);
+            if (response.getBroadcast() != null) {
+                startBroadcast(response.getBroadcast());
+                return;
+            }
+            try (InputStream stream = response.getStream()) {
+                byte[] chunk = new byte[CHUNK_SIZE];
+                int read;
+                while (!closed && (read = stream.read(chunk)) != -1) {
+                    if (read == 0) continue;
+                    awaitCapacity();
+                    send(false, ByteBuffer.wrap((Integer.toHexString(read) + "\r\n").getBytes(StandardCharsets.ISO_8859_1)),
+                            ByteBuffer.wrap(Arrays.copyOf(chunk, read)), ByteBuffer.wrap(new byte[]{'\r', '\n'}));
+                }
+            } catch (IOException | RuntimeException e) {
+                keepAlive = false; // The body is incomplete, so the connection cannot be reused
+            }
+            send(true, ByteBuffer.wrap("0\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1)));
+        }
+
+        /**
+         * Hands a broadcast over to the selector thread. Reads stay enabled meanwhile, so that a
+         * client that goes away is noticed without heartbeats.
+         */
+        private void startBroadcast(SseBroadcaster.Reservation reservation) {
+            broadcast = reservation;
+            if (closed) {
+                reservation.cancel();
+                return;
+            }
+            reservation.listen(() -> loop.execute(this::pumpBroadcast));
+            loop.execute(() -> {
+                if (closed) return;
+                key.interestOps(key.interestOps() | SelectionKey.OP_READ);
+                pumpBroadcast();
+            });
+        }
+
+        /**
+         * Runs on the selector thread: queues the newest version of the broadcast unless the
+         * previous one is still being written, and ends the response once the broadcast closes.
+         */
+        private void pumpBroadcast() {
+            SseBroadcaster.Reservation reservation = broadcast;
+            if (reservation == null || closed) return;
+            synchronized (this) {
+                if (!output.isEmpty()) return; // onWritable pumps again once it is out
+            }
+            // Read first: a broadcast publishes its last version before it closes
+            boolean ended = reservation.isClosed();
+            ByteBuffer chunk = reservation.next();
+            if (chunk != null) {
+                send(false, chunk);
+            } else if (ended) {
+                broadcast = null;
+                reservation.cancel();
+                send(true, ByteBuffer.wrap("0\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1)));
+            }
+        }
+
+        private void send(boolean last, ByteBuffer... buffers) {
+            synchronized (this) {
+                if (closed) return;
+                for (ByteBuffer buffer : buffers) {
+                    output.add(buffer);
+                    pendingBytes += buffer.remaining();
+                }
+                responseComplete = last;
+            }
+            loop.execute(this::onWritable);
+        }
+
+        private synchronized void awaitCapacity() {
+            while (pendingBytes > MAX_PENDING_BYTES && !closed) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Runs on the selector thread: writes as much queued output as the socket accepts.
+         */
+        void onWritable() {
+            if (closed) return;
+            boolean finished;
+            synchronized (this) {
+                try {
+                    while (!output.isEmpty()) {
+                        ByteBuffer next = output.peek();
+                        pendingBytes -= channel.write(next);
+                        if (next.hasRemaining()) break;
+                        output.poll();
+                    }
+                } catch (IOException e) {
+                    close();
+                    return;
+                }
+                notifyAll();
+                finished = output.isEmpty() && responseComplete;
+                if (finished) responseComplete = false;
+                key.interestOps(output.isEmpty()
+                        ? key.interestOps() & ~SelectionKey.OP_WRITE
+                        : key.interestOps() | SelectionKey.OP_WRITE);
+            }
+            if (!finished && broadcast != null) {
+                pumpBroadcast();
+                return;
+            }
+            if (finished) {
+                if (!keepAlive) {
+                    close();
+                    return;
+                }
+                busy = false;
+                key.interestOps(key.interestOps() | SelectionKey.OP_READ);
+                processBuffered();
+            }
+        }
+
+        private void rejectAndClose(int status) {
+            keepAlive = false;
+            busy = true;
+            HttpResponse response = HttpResponse.text(status, "text/plain", "");
+            send(true, ByteBuffer.wrap(("HTTP/1.1 " + response.getStatusLine()
+                    + "\r\nContent-Length: 0\r\nConnection: close\r\n\r\n").getBytes(StandardCharsets.ISO_8859_1)));
+        }
+
+        void close() {
+            synchronized (this) {
+                closed = true;
+                notifyAll();
+            }
+            SseBroadcaster.Reservation reservation = broadcast;
+            if (reservation != null) reservation.cancel();
+            key.cancel();
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private static int indexOf(byte[] data, int length, byte[] pattern) {
+        outer:
+        for (int i = 0; i <= length - pattern.length; i++) {
+            for (int j = 0; j < pattern.length; j++) {
+                if (data[i + j] != pattern[j]) continue outer;
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> params = new HashMap<>();
+        for (String pair : query.split("&")) {
+            if (pair.isEmpty()) continue;
+            int equals = pair.indexOf('=');
+            params.put(decode(equals == -1 ? pair : pair.substring(0, equals)),
+                    equals == -1 ? "" : decode(pair.substring(equals + 1)));
+        }
+        return params;
+    }
+
+    private static String decode(String value) {
+        try {
+            return URLDecoder.decode(value, "UTF-8");
+        } catch (UnsupportedEncodingException | IllegalArgumentException e) {
+            return value;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+// src/main/java/org/example/server/RequestHandler.java
+package org.example.server;
+
+/**
+ * Serves HTTP requests independently of the transport that received them.
+ */
+public interface RequestHandler {
+
+    /**
+     * @param request The parsed request, including its full body.
+     * @return The response; never null. Failures are reported as error responses, not exceptions.
+     */
+    HttpResponse handle(HttpRequest request);
+}
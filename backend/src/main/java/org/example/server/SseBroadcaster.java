@@ -0,0 +1,389 @@
+// src/main/java/org/example/server/SseBroadcaster.java
+package org.example.server;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fans a sequence of versioned snapshots out to Server-Sent Events subscribers. Each version is
+ * encoded into an SSE frame once, and every subscriber streams that same byte array. Only the
+ * newest snapshot matters, so a subscriber that falls behind skips straight to it rather than
+ * queueing the versions in between.
+ *
+ * <p>A version may also be published with a delta from the version before it. Subscribers that
+ * asked for deltas are sent it when they have that previous version, and the full snapshot
+ * otherwise.</p>
+ *
+ * <p>While nothing changes, subscribers receive a comment line every
+ * {@value #HEARTBEAT_MILLIS} ms, so that connections closed by the client are noticed.</p>
+ *
+ * <p>Streams need a thread each to block in. A transport that can write without one, such as
+ * {@link NioHttpServer}, instead {@link Reservation#listen listens} for new versions and writes
+ * {@link Reservation#next() the newest frame}, which is also kept framed as an HTTP chunk so that the
+ * same read-only buffer goes to every connection.</p>
+ */
+public class SseBroadcaster {
+    public static final long HEARTBEAT_MILLIS = 15_000;
+    private static final byte[] HEARTBEAT = ":\n\n".getBytes(StandardCharsets.UTF_8);
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final AtomicInteger deltaSubscribers = new AtomicInteger();
+    private final Set<Listener> listeners = ConcurrentHashMap.newKeySet();
+    private final long heartbeatMillis;
+    // Guarded by lock
+    private long version = -1;
+    private byte[] frame;
+    private byte[] deltaFrame;
+    private volatile Frame latest;
+    private volatile boolean closed;
+
+    /**
+     * Is told about each new version, on the publishing thread; it must not block.
+     */
+    public interface Listener {
+        void onPublish();
+    }
+
+    /**
+     * A published version as one HTTP chunk of the {@code text/event-stream} body, and its delta
+     * as another if one was published, ready to be written to any number of connections.
+     */
+    public static final class Frame {
+        private final long version;
+        private final ByteBuffer chunk;
+        private final ByteBuffer deltaChunk;
+
+        private Frame(long version, byte[] frame, byte[] deltaFrame) {
+            this.version = version;
+            this.chunk = chunk(frame);
+            this.deltaChunk = deltaFrame != null ? chunk(deltaFrame) : null;
+        }
+
+        private static ByteBuffer chunk(byte[] frame) {
+            byte[] size = (Integer.toHexString(frame.length) + "\r\n").getBytes(StandardCharsets.ISO_8859_1);
+            byte[] bytes = new byte[size.length + frame.length + 2];
+            System.arraycopy(size, 0, bytes, 0, size.length);
+            System.arraycopy(frame, 0, bytes, size.length, frame.length);
+            bytes[bytes.length - 2] = '\r';
+            bytes[bytes.length - 1] = '\n';
+            return ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        /**
+         * @return A view of the shared chunk with its own position.
+         */
+        public ByteBuffer getChunk() {
+            return chunk.duplicate();
+        }
+
+        /**
+         * @return A view of the shared delta chunk with its own position, or null if this version
+         * was published without a delta.
+         */
+        public ByteBuffer getDeltaChunk() {
+            return deltaChunk != null ? deltaChunk.duplicate() : null;
+        }
+    }
+
+    /**
+     * A subscriber that has not yet chosen how to receive versions. It counts as a subscriber from
+     * the start, so that callers publishing only while someone is subscribed miss no version
+     * before the transport takes it over. Exactly one of {@link #stream()} and {@link #listen}
+     * must be called.
+     */
+    public final class Reservation {
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+        private final boolean deltas;
+        private Listener listener;
+        // The version last taken by next(); used by the listener's thread only
+        private long sentVersion = -1;
+
+        private Reservation(boolean deltas) {
+            this.deltas = deltas;
+        }
+
+        /**
+         * @return The versions as a blocking stream, as from {@link #subscribe(boolean)}.
+         */
+        public InputStream stream() {
+            return new Subscription(deltas);
+        }
+
+        /**
+         * Calls the listener whenever a version is published, and once the broadcaster closes.
+         * Nothing is sent for the listener: it takes {@link #next()} itself, so a listener
+         * that is still writing an older version simply skips to the newest.
+         */
+        public void listen(Listener listener) {
+            this.listener = listener;
+            listeners.add(listener);
+            if (cancelled.get()) listeners.remove(listener);
+        }
+
+        /**
+         * Ends a listening subscription. Calling it again has no effect.
+         */
+        public void cancel() {
+            if (cancelled.compareAndSet(false, true)) {
+                if (listener != null) listeners.remove(listener);
+                subscribers.decrementAndGet();
+                if (deltas) deltaSubscribers.decrementAndGet();
+            }
+        }
+
+        /**
+         * Takes the newest version for a listener to write: its delta if this subscription asked
+         * for deltas and took the version before it, and the full snapshot otherwise.
+         *
+         * @return The chunk, or null if the newest version was already taken.
+         */
+        public ByteBuffer next() {
+            Frame frame = latest;
+            if (frame == null || frame.version <= sentVersion) return null;
+            boolean delta = deltas && frame.deltaChunk != null && sentVersion >= 0 && sentVersion == frame.version - 1;
+            sentVersion = frame.version;
+            return delta ? frame.getDeltaChunk() : frame.getChunk();
+        }
+
+        /**
+         * @return The newest version, or null if none has been published.
+         */
+        public Frame getFrame() {
+            return latest;
+        }
+
+        /**
+         * @return Whether no more versions will be published.
+         */
+        public boolean isClosed() {
+            return closed;
+        }
+    }
+
+    public SseBroadcaster() {
+        this(HEARTBEAT_MILLIS);
+    }
+
+    SseBroadcaster(long heartbeatMillis) {
+        this.heartbeatMillis = heartbeatMillis;
+    }
+
+    /**
+     * @return Whether any stream is open, so that callers can skip encoding unwatched snapshots.
+     */
+    public boolean hasSubscribers() {
+        return subscribers.get() > 0;
+    }
+
+    /**
+     * @return Whether any open stream asked for deltas, so that callers can skip computing them.
+     */
+    public boolean hasDeltaSubscribers() {
+        return deltaSubscribers.get() > 0;
+    }
+
+    /**
+     * @return The version last published, or -1 if none has been.
+     */
+    public long getVersion() {
+        lock.lock();
+        try {
+            return version;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Makes a snapshot the current one and wakes every subscriber.
+     *
+     * @param version The snapshot's version; it is sent as the event ID.
+     * @param data    The snapshot, typically one line of JSON.
+     */
+    public void publish(long version, String data) {
+        publish(version, data, null);
+    }
+
+    /**
+     * Makes a snapshot the current one and wakes every subscriber.
+     *
+     * @param version The snapshot's version; it is sent as the event ID.
+     * @param data    The snapshot, typically one line of JSON.
+     * @param delta   The changes since version - 1, or null to send the snapshot to everyone.
+     */
+    public void publish(long version, String data, String delta) {
+        byte[] bytes = encode(version, data);
+        byte[] deltaBytes = delta != null ? encode(version, delta) : null;
+
+        lock.lock();
+        try {
+            this.version = version;
+            this.frame = bytes;
+            this.deltaFrame = deltaBytes;
+            this.latest = new Frame(version, bytes, deltaBytes);
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        notifyListeners();
+    }
+
+    private void notifyListeners() {
+        for (Listener listener : listeners) {
+            listener.onPublish();
+        }
+    }
+
+    private static byte[] encode(long version, String data) {
+        StringBuilder encoded = new StringBuilder("id: ").append(version).append('\n');
+        for (String line : data.split("\n", -1)) {
+            encoded.append("data: ").append(line).append('\n');
+        }
+        return encoded.append('\n').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Opens a stream that starts with the current snapshot, if any, and then delivers each newer
+     * one. Reads block until there is something to send; the stream ends after {@link #close()}.
+     *
+     * @return The event stream; closing it unsubscribes.
+     */
+    public InputStream subscribe() {
+        return subscribe(false);
+    }
+
+    /**
+     * Like {@link #subscribe()}, but after the first snapshot the stream carries deltas wherever
+     * they were published.
+     *
+     * @param deltas Whether to prefer deltas over full snapshots.
+     * @return The event stream; closing it unsubscribes.
+     */
+    public InputStream subscribe(boolean deltas) {
+        subscribers.incrementAndGet();
+        if (deltas) deltaSubscribers.incrementAndGet();
+        return new Subscription(deltas);
+    }
+
+    /**
+     * Subscribes for full snapshots, leaving the transport to choose between a stream and a listener.
+     */
+    public Reservation reserve() {
+        return reserve(false);
+    }
+
+    /**
+     * Like {@link #reserve()}, but after the first snapshot the subscription carries deltas
+     * wherever they were published.
+     *
+     * @param deltas Whether to prefer deltas over full snapshots.
+     */
+    public Reservation reserve(boolean deltas) {
+        subscribers.incrementAndGet();
+        if (deltas) deltaSubscribers.incrementAndGet();
+        return new Reservation(deltas);
+    }
+
+    /**
+     * Ends every stream once it has sent the current snapshot, and tells the listeners.
+     */
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        notifyListeners();
+    }
+
+    private class Subscription extends InputStream {
+        private final boolean deltas;
+        private long sentVersion = -1;
+        private byte[] current = new byte[0];
+        private int position;
+        private boolean unsubscribed;
+
+        Subscription(boolean deltas) {
+            this.deltas = deltas;
+        }
+
+        /**
+         * Waits for the next frame to send.
+         *
+         * @return Whether there is one; false once the broadcaster or this stream is closed.
+         */
+        private boolean fill() {
+            if (position < current.length) return true;
+            lock.lock();
+            try {
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(heartbeatMillis);
+                while (!unsubscribed && version <= sentVersion) {
+                    if (closed) return false;
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        current = HEARTBEAT;
+                        position = 0;
+                        return true;
+                    }
+                    changed.awaitNanos(remaining);
+                }
+                if (unsubscribed) return false;
+                // Shared with every other subscriber; never modified
+                current = deltas && deltaFrame != null && sentVersion == version - 1 ? deltaFrame : frame;
+                position = 0;
+                sentVersion = version;
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public int read() {
+            return fill() ? current[position++] & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (length == 0) return 0;
+            if (!fill()) return -1;
+            int count = Math.min(length, current.length - position);
+            System.arraycopy(current, position, buffer, offset, count);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public void close() {
+            lock.lock();
+            try {
+                if (unsubscribed) return;
+                unsubscribed = true;
+                changed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            subscribers.decrementAndGet();
+            if (deltas) deltaSubscribers.decrementAndGet();
+        }
+    }
+}
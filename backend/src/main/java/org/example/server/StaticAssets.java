@@ -0,0 +1,149 @@
+// src/main/java/org/example/server/StaticAssets.java
+package org.example.server;
+
+import fi.iki.elonen.NanoHTTPD;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The front end's files, loaded once into an immutable in-memory cache. Each file keeps its
+ * content type, a strong ETag derived from its content and, for text formats, a precompressed
+ * gzip variant, so that serving a file costs a map lookup. Files of {@value #MAPPED_BYTES} bytes
+ * or more are memory-mapped rather than copied onto the heap.
+ *
+ * <p>Files added or changed after loading are not seen until the server restarts.</p>
+ */
+public final class StaticAssets {
+    static final int MAPPED_BYTES = 64 * 1024;
+    // Names such as main.3f2a9c1e.js change whenever their content does, so they may be cached for good
+    private static final Pattern FINGERPRINTED = Pattern.compile(".*\\.[0-9a-f]{8,}\\.[^.]+$");
+    private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+    private static final String REVALIDATE = "no-cache";
+
+    private static final class Asset {
+        final String contentType;
+        final String cacheControl;
+        final ByteBuffer body;
+        final String etag;
+        final ByteBuffer gzipBody; // Null if compression does not pay off
+        final String gzipEtag;
+
+        Asset(String contentType, String cacheControl, ByteBuffer body, String etag, byte[] gzipBody) {
+            this.contentType = contentType;
+            this.cacheControl = cacheControl;
+            this.body = body;
+            this.etag = etag;
+            this.gzipBody = gzipBody != null ? ByteBuffer.wrap(gzipBody) : null;
+            this.gzipEtag = gzipBody != null ? etag.substring(0, etag.length() - 1) + "-gz\"" : null;
+        }
+    }
+
+    private final Map<String, Asset> assets;
+
+    private StaticAssets(Map<String, Asset> assets) {
+        this.assets = Map.copyOf(assets);
+    }
+
+    /**
+     * @return A cache without files.
+     */
+    public static StaticAssets empty() {
+        return new StaticAssets(Map.of());
+    }
+
+    /**
+     * Loads every file under a directory. A missing directory gives an empty cache.
+     *
+     * @param root      The directory to load, such as {@code static}.
+     * @param urlPrefix The URL path the directory is served under, such as {@code /static/}.
+     * @return The cache, keyed by URL path.
+     * @throws IOException If a file cannot be read.
+     */
+    public static StaticAssets load(Path root, String urlPrefix) throws IOException {
+        Map<String, Asset> assets = new HashMap<>();
+        if (Files.isDirectory(root)) {
+            try (Stream<Path> files = Files.walk(root)) {
+                for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+                    String relative = root.relativize(file).toString().replace('\\', '/');
+                    assets.put(urlPrefix + relative, loadAsset(file, relative));
+                }
+            }
+        }
+        return new StaticAssets(assets);
+    }
+
+    private static Asset loadAsset(Path file, String name) throws IOException {
+        ByteBuffer body;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            // A mapping stays valid after its channel is closed
+            body = size >= MAPPED_BYTES
+                    ? channel.map(FileChannel.MapMode.READ_ONLY, 0, size)
+                    : ByteBuffer.wrap(Files.readAllBytes(file));
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(body.duplicate());
+        String etag = "\"" + Long.toHexString(crc.getValue()) + "-" + Long.toHexString(body.remaining()) + "\"";
+        String contentType = NanoHTTPD.getMimeTypeForFile(name);
+        String cacheControl = FINGERPRINTED.matcher(name).matches() ? IMMUTABLE : REVALIDATE;
+        return new Asset(contentType, cacheControl, body, etag, Compression.isCompressible(contentType) ? gzip(body) : null);
+    }
+
+    /**
+     * @return The compressed bytes, or null if they would save less than a tenth of the size.
+     */
+    private static byte[] gzip(ByteBuffer body) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            byte[] chunk = new byte[8192];
+            ByteBuffer source = body.duplicate();
+            while (source.hasRemaining()) {
+                int length = Math.min(chunk.length, source.remaining());
+                source.get(chunk, 0, length);
+                out.write(chunk, 0, length);
+            }
+        }
+        return compressed.size() < body.remaining() * 9L / 10 ? compressed.toByteArray() : null;
+    }
+
+    /**
+     * Serves a cached file: gzipped if the client accepts it and that is smaller, and as a 304 if
+     * the client's If-None-Match already names the variant's ETag.
+     *
+     * @param path    The URL path.
+     * @param request The request, for its Accept-Encoding and If-None-Match headers.
+     * @return The response, or null if no file is cached under the path.
+     */
+    public HttpResponse serve(String path, HttpRequest request) {
+        Asset asset = assets.get(path);
+        if (asset == null) {
+            return null;
+        }
+        boolean gzip = asset.gzipBody != null && Compression.GZIP.equals(Compression.negotiate(request.getHeader("accept-encoding")));
+        String etag = gzip ? asset.gzipEtag : asset.etag;
+
+        HttpResponse response;
+        if (request.etagMatches(etag)) {
+            response = HttpResponse.text(HttpResponse.NOT_MODIFIED, null, "");
+        } else {
+            response = HttpResponse.fixed(HttpResponse.OK, asset.contentType, gzip ? asset.gzipBody : asset.body);
+            if (gzip) response.header("Content-Encoding", "gzip");
+        }
+        return response.header("ETag", etag)
+                .header("Cache-Control", asset.cacheControl)
+                .header("Vary", "Accept-Encoding");
+    }
+}
@@ -0,0 +1,149 @@
+// src/main/java/org/example/tools/ConnectionBenchmark.java
+package org.example.tools;
+
+import org.example.App;
+import org.example.engine.TurnGenerator;
+import org.example.server.ExecutorAsyncRunner;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compares the server's connection runners. For each runner it starts the app in-process, opens
+ * the given number of keep-alive connections at once and has every connection issue
+ * {@code GET /game-state} requests for the measured period. It reports how many connections were
+ * served at all (capacity), request throughput, p50/p99/p999 latency and the peak JVM thread count.
+ *
+ * <p>Usage: {@code ConnectionBenchmark [--connections N] [--seconds S] [--runners virtual,pooled:200,thread]}</p>
+ */
+public class ConnectionBenchmark {
+    private static final byte[] REQUEST =
+            "GET /game-state HTTP/1.1\r\nHost: localhost\r\nConnection: keep-alive\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+
+    public static void main(String[] args) throws Exception {
+        int connections = 1000;
+        int seconds = 10;
+        String runners = ExecutorAsyncRunner.virtualThreadsAvailable() ? "virtual,pooled:200,thread" : "pooled:200,thread";
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--connections": connections = Integer.parseInt(args[i + 1]); break;
+                case "--seconds": seconds = Integer.parseInt(args[i + 1]); break;
+                case "--runners": runners = args[i + 1]; break;
+                default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        TurnGenerator.quietLogging();
+        System.out.printf("%-12s %8s %10s %10s %9s %9s %9s %8s%n",
+                "runner", "served", "requests", "req/s", "p50 ms", "p99 ms", "p999 ms", "threads");
+        for (String runner : runners.split(",")) {
+            run(runner, connections, seconds);
+        }
+    }
+
+    private static void run(String runner, int connections, int seconds) throws Exception {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        App app = new App(null, ExecutorAsyncRunner.fromSpec(runner));
+        threads.resetPeakThreadCount();
+        try {
+            long[][] latencies = new long[connections][];
+            int[] counts = new int[connections];
+            AtomicInteger served = new AtomicInteger();
+            CountDownLatch done = new CountDownLatch(connections);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+
+            for (int c = 0; c < connections; c++) {
+                int client = c;
+                Thread thread = new Thread(null, () -> {
+                    latencies[client] = new long[1024];
+                    try (Socket socket = new Socket()) {
+                        socket.connect(new InetSocketAddress("localhost", 8080), 5000);
+                        socket.setSoTimeout((int) TimeUnit.SECONDS.toMillis(seconds));
+                        OutputStream out = socket.getOutputStream();
+                        InputStream in = new BufferedInputStream(socket.getInputStream());
+                        while (System.nanoTime() < deadline) {
+                            long start = System.nanoTime();
+                            out.write(REQUEST);
+                            out.flush();
+                            readResponse(in);
+                            if (counts[client] == 0) served.incrementAndGet();
+                            if (counts[client] == latencies[client].length) {
+                                latencies[client] = Arrays.copyOf(latencies[client], counts[client] * 2);
+                            }
+                            latencies[client][counts[client]++] = System.nanoTime() - start;
+                        }
+                    } catch (IOException e) {
+                        // A connection that times out or is refused simply counts as not served
+                    } finally {
+                        done.countDown();
+                    }
+                }, "client-" + c, 64 * 1024);
+                thread.setDaemon(true);
+                thread.start();
+            }
+            done.await(seconds + 30L, TimeUnit.SECONDS);
+
+            int total = 0;
+            for (int count : counts) total += count;
+            long[] all = new long[total];
+            int offset = 0;
+            for (int c = 0; c < connections; c++) {
+                System.arraycopy(latencies[c], 0, all, offset, counts[c]);
+                offset += counts[c];
+            }
+            Arrays.sort(all);
+            System.out.printf("%-12s %8d %10d %10.0f %9.2f %9.2f %9.2f %8d%n",
+                    runner, served.get(), total, total / (double) seconds,
+                    percentile(all, 0.50), percentile(all, 0.99), percentile(all, 0.999), threads.getPeakThreadCount());
+        } finally {
+            app.stop();
+        }
+    }
+
+    static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) return Double.NaN;
+        return sorted[Math.min(sorted.length - 1, (int) (p * sorted.length))] / 1e6;
+    }
+
+    /**
+     * Reads one response, relying on the Content-Length header the app always sends.
+     */
+    private static void readResponse(InputStream in) throws IOException {
+        int contentLength = 0;
+        StringBuilder line = new StringBuilder();
+        while (true) {
+            int b = in.read();
+            if (b == -1) throw new IOException("Connection closed");
+            if (b != '\n') {
+                if (b != '\r') line.append((char) b);
+                continue;
+            }
+            if (line.length() == 0) break;
+            String header = line.toString();
+            if (header.regionMatches(true, 0, "Content-Length:", 0, 15)) {
+                contentLength = Integer.parseInt(header.substring(15).trim());
+            }
+            line.setLength(0);
+        }
+        long remaining = contentLength;
+        while (remaining > 0) {
+            long skipped = in.skip(remaining);
+            if (skipped <= 0) {
+                if (in.read() == -1) throw new IOException("Connection closed");
+                skipped = 1;
+            }
+            remaining -= skipped;
+        }
+    }
+}
@@ -0,0 +1,534 @@
+// src/main/java/org/example/tools/LoadGenerator.java
+package org.example.tools;
+
+import org.example.App;
+import org.example.Game;
+import org.example.engine.TurnGenerator;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Puts a running server under the load of many players. Each simulated client plays complete
+ * games one after another through the same endpoints as the front end: it creates a game, polls
+ * its state before every action, asks for the selectable cells before moving or building, posts
+ * the action and finally deletes the game. Clients pause for a think time before every action.
+ *
+ * <p>Games are played at random, or by replaying a script of {@code /action} bodies, one per line
+ * ({@code #} starts a comment). Every client plays its own game under {@code /games/{id}}, since
+ * clients sharing the default game of {@code /start-game} would only undo each other's moves.</p>
+ *
+ * <p>The run ends once every client has played its games or the time limit has passed, and reports
+ * the throughput and p50/p99/p999 latency of each endpoint. {@code --out} writes the results as
+ * sorted {@code key=value} lines, and {@code --compare} prints how a run differs from such a file.</p>
+ *
+ * <p>Usage: {@code LoadGenerator [--url http://localhost:8080 | --in-process] [--clients N] [--games G]
+ * [--seconds S] [--think-ms T] [--script FILE] [--gods Apollo,Pan] [--seed S] [--out FILE] [--compare FILE]}</p>
+ */
+public class LoadGenerator {
+    // The endpoints timed, in the order they are reported
+    static final List<String> ENDPOINTS = List.of(
+            "create-game", "state", "selectable-move-cells", "selectable-build-cells", "action", "delete-game");
+    // Random games that run longer than this are abandoned; the server does not end stalemates
+    private static final int MAX_ACTIONS_PER_GAME = 500;
+    private static final String END_TURN = "{\"actionType\":\"endTurn\"}";
+
+    private final URI base;
+    private final int clients;
+    private final int gamesPerClient;
+    private final long seconds;
+    private final long thinkMillis;
+    private final List<String> script;
+    private final List<String> gods;
+    private final long seed;
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    /**
+     * @param base           The server, such as {@code http://localhost:8080}.
+     * @param gamesPerClient Games each client plays, or 0 to play until the time limit.
+     * @param seconds        Time after which clients start no new games, or 0 for none.
+     * @param thinkMillis    Mean pause before each action; pauses vary by half of it either way.
+     * @param script         Action bodies to replay in every game, or null to play at random.
+     * @param gods           Gods to choose from; the players always get different ones.
+     */
+    public LoadGenerator(URI base, int clients, int gamesPerClient, long seconds, long thinkMillis,
+                         List<String> script, List<String> gods, long seed) {
+        if (gamesPerClient <= 0 && seconds <= 0) {
+            throw new IllegalArgumentException("Either games per client or a time limit is needed");
+        }
+        if (gods.size() < 2) {
+            throw new IllegalArgumentException("At least two gods are needed");
+        }
+        this.base = base;
+        this.clients = clients;
+        this.gamesPerClient = gamesPerClient;
+        this.seconds = seconds;
+        this.thinkMillis = thinkMillis;
+        this.script = script;
+        this.gods = gods;
+        this.seed = seed;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String url = "http://localhost:8080";
+        boolean inProcess = false;
+        int clients = 50;
+        int games = 0;
+        long seconds = 60;
+        long thinkMillis = 100;
+        Path scriptFile = null;
+        // The server turns away games with the Default god
+        List<String> gods = Game.GOD_NAMES.stream().filter(name -> !name.equals("Default")).collect(Collectors.toList());
+        long seed = 1;
+        Path out = null;
+        Path compare = null;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--in-process")) {
+                inProcess = true;
+                continue;
+            }
+            if (i + 1 == args.length) throw new IllegalArgumentException("Missing value for " + args[i]);
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--url": url = value; break;
+                case "--clients": clients = Integer.parseInt(value); break;
+                case "--games": games = Integer.parseInt(value); seconds = 0; break;
+                case "--seconds": seconds = Long.parseLong(value); break;
+                case "--think-ms": thinkMillis = Long.parseLong(value); break;
+                case "--script": scriptFile = Paths.get(value); break;
+                case "--gods": gods = List.of(value.split(",")); break;
+                case "--seed": seed = Long.parseLong(value); break;
+                case "--out": out = Paths.get(value); break;
+                case "--compare": compare = Paths.get(value); break;
+                default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+            i++;
+        }
+
+        App app = null;
+        if (inProcess) {
+            TurnGenerator.quietLogging();
+            app = new App(null);
+            url = "http://localhost:8080";
+        }
+        try {
+            List<String> script = scriptFile != null ? readScript(scriptFile) : null;
+            LoadGenerator generator = new LoadGenerator(URI.create(url), clients, games, seconds, thinkMillis, script, gods, seed);
+            Map<String, String> results = generator.run();
+            results.put("config.script", scriptFile != null ? scriptFile.getFileName().toString() : "random");
+            print(results);
+            if (out != null) write(results, out);
+            if (compare != null) printComparison(read(compare), results);
+        } finally {
+            if (app != null) app.stop();
+        }
+    }
+
+    /**
+     * Reads a script of action bodies, one per line; blank lines and lines starting with {@code #}
+     * are skipped.
+     *
+     * @throws IllegalArgumentException If a line is not a JSON object.
+     */
+    static List<String> readScript(Path file) throws IOException {
+        List<String> actions = new ArrayList<>();
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            try {
+                new JSONObject(line);
+            } catch (Exception e) {
+                throw new IllegalArgumentException("Line " + (i + 1) + " of " + file + " is not a JSON object");
+            }
+            actions.add(line);
+        }
+        return actions;
+    }
+
+    /**
+     * Latencies and failures of one client per endpoint. Each client records into its own logs,
+     * which are merged once the run is over.
+     */
+    private static final class Client {
+        final Random random;
+        final Map<String, long[]> latencies = new LinkedHashMap<>();
+        final Map<String, Integer> counts = new LinkedHashMap<>();
+        final Map<String, Integer> errors = new LinkedHashMap<>();
+        int won;
+        int unfinished;
+
+        Client(long seed) {
+            this.random = new Random(seed);
+            for (String endpoint : ENDPOINTS) {
+                latencies.put(endpoint, new long[256]);
+                counts.put(endpoint, 0);
+                errors.put(endpoint, 0);
+            }
+        }
+
+        void record(String endpoint, long nanos, boolean failed) {
+            long[] log = latencies.get(endpoint);
+            int count = counts.get(endpoint);
+            if (count == log.length) {
+                log = Arrays.copyOf(log, count * 2);
+                latencies.put(endpoint, log);
+            }
+            log[count] = nanos;
+            counts.put(endpoint, count + 1);
+            if (failed) errors.merge(endpoint, 1, Integer::sum);
+        }
+    }
+
+    /**
+     * Runs the clients until they are done.
+     *
+     * @return The results, keyed as in the results file.
+     */
+    public Map<String, String> run() throws InterruptedException {
+        Client[] states = new Client[clients];
+        Thread[] threads = new Thread[clients];
+        long start = System.nanoTime();
+        long deadline = seconds > 0 ? start + TimeUnit.SECONDS.toNanos(seconds) : Long.MAX_VALUE;
+        for (int c = 0; c < clients; c++) {
+            Client client = new Client(seed * 1_000_003 + c);
+            states[c] = client;
+            threads[c] = new Thread(() -> {
+                try {
+                    for (int game = 0; (gamesPerClient <= 0 || game < gamesPerClient) && System.nanoTime() < deadline; game++) {
+                        playGame(client);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, "load-client-" + c);
+            threads[c].setDaemon(true);
+            threads[c].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return summarize(states, (System.nanoTime() - start) / 1e9);
+    }
+
+    private void playGame(Client client) throws InterruptedException {
+        // The server turns away games where both players have the same god
+        int a = client.random.nextInt(gods.size());
+        int b = (a + 1 + client.random.nextInt(gods.size() - 1)) % gods.size();
+        String godA = gods.get(a);
+        String godB = gods.get(b);
+        JSONObject created = send(client, "create-game", post("/games",
+                new JSONObject(Map.of("playerAGod", godA, "playerBGod", godB)).toString()));
+        if (created == null) {
+            client.unfinished++;
+            return;
+        }
+        String game = "/games/" + created.getString("gameId");
+        try {
+            if (script != null ? replay(client, game) : playRandomly(client, game)) {
+                client.won++;
+            } else {
+                client.unfinished++;
+            }
+        } finally {
+            send(client, "delete-game", HttpRequest.newBuilder(base.resolve(game)).DELETE().build());
+        }
+    }
+
+    /**
+     * Plays random legal actions, tracking the turn as {@code TurnGenerator} does: the worker that
+     * moved is the one that builds, a god's extra move or build is taken half of the time, and the
+     * turn ends once a Hermes-style build returns to the move phase.
+     *
+     * @return Whether the game was won.
+     */
+    private boolean playRandomly(Client client, String game) throws InterruptedException {
+        String turnPlayer = null;
+        int moved = -1;
+        boolean built = false;
+        for (int i = 0; i < MAX_ACTIONS_PER_GAME; i++) {
+            JSONObject state = send(client, "state", get(game + "/state"));
+            if (state == null) return false;
+            if (state.getBoolean("gameEnded")) return true;
+            String player = state.getString("currentPlayer");
+            if (!player.equals(turnPlayer)) {
+                turnPlayer = player;
+                moved = -1;
+                built = false;
+            }
+            JSONObject strategyState = state.optJSONObject("strategyState");
+            boolean extraBuild = strategyState != null && strategyState.optBoolean("extraBuildAvailable");
+
+            String action;
+            switch (state.getString("gamePhase")) {
+                case "PLACEMENT":
+                    action = placement(client.random, state.getJSONArray("grid"));
+                    break;
+                case "MOVE":
+                    if (built) {
+                        action = END_TURN;
+                    } else if (moved != -1) {
+                        int[] cell = pickCell(client, game, "selectable-move-cells", moved);
+                        action = cell == null || client.random.nextBoolean() ? END_TURN : action("move", moved, cell);
+                    } else {
+                        action = null;
+                        int first = client.random.nextInt(2);
+                        for (int worker : new int[]{first, 1 - first}) {
+                            int[] cell = pickCell(client, game, "selectable-move-cells", worker);
+                            if (cell != null) {
+                                moved = worker;
+                                action = action("move", worker, cell);
+                                break;
+                            }
+                        }
+                        if (action == null) return false; // Blocked; the server has no rule for it
+                    }
+                    break;
+                case "BUILD":
+                case "BUILD_AFTER_MOVE":
+                    int[] cell = pickCell(client, game, "selectable-build-cells", Math.max(moved, 0));
+                    if (cell == null || extraBuild && client.random.nextBoolean()) {
+                        if (!extraBuild) return false;
+                        action = END_TURN;
+                    } else {
+                        action = action("build", Math.max(moved, 0), cell);
+                        built = true;
+                    }
+                    break;
+                default:
+                    action = END_TURN;
+                    break;
+            }
+
+            think(client.random);
+            if (send(client, "action", post(game + "/action", action)) == null
+                    && send(client, "action", post(game + "/action", END_TURN)) == null) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Replays the script, querying state and cells before each action as a player would.
+     *
+     * @return Whether the game was won by the end of the script.
+     */
+    private boolean replay(Client client, String game) throws InterruptedException {
+        for (String action : script) {
+            JSONObject state = send(client, "state", get(game + "/state"));
+            if (state == null) return false;
+            if (state.getBoolean("gameEnded")) return true;
+            JSONObject json = new JSONObject(action);
+            String type = json.optString("actionType");
+            if (type.equals("move") || type.equals("build")) {
+                pickCell(client, game, "selectable-" + type + "-cells", json.optInt("workerIndex", 0));
+            }
+            think(client.random);
+            if (send(client, "action", post(game + "/action", action)) == null) return false;
+        }
+        JSONObject state = send(client, "state", get(game + "/state"));
+        return state != null && state.getBoolean("gameEnded");
+    }
+
+    private static String placement(Random random, JSONArray grid) {
+        List<int[]> free = new ArrayList<>();
+        for (int x = 0; x < grid.length(); x++) {
+            JSONArray row = grid.getJSONArray(x);
+            for (int y = 0; y < row.length(); y++) {
+                if (!row.getJSONObject(y).has("worker")) free.add(new int[]{x, y});
+            }
+        }
+        int[] cell = free.get(random.nextInt(free.size()));
+        return "{\"actionType\":\"placeWorker\",\"x\":" + cell[0] + ",\"y\":" + cell[1] + "}";
+    }
+
+    private static String action(String type, int workerIndex, int[] cell) {
+        return "{\"actionType\":\"" + type + "\",\"workerIndex\":" + workerIndex
+                + ",\"x\":" + cell[0] + ",\"y\":" + cell[1] + "}";
+    }
+
+    /**
+     * @return A random selectable cell, or null if there is none or the request failed.
+     */
+    private int[] pickCell(Client client, String game, String endpoint, int workerIndex) {
+        JSONObject response = send(client, endpoint, get(game + "/" + endpoint + "?workerIndex=" + workerIndex));
+        if (response == null) return null;
+        JSONArray cells = response.getJSONArray("selectableCells");
+        if (cells.length() == 0) return null;
+        JSONObject cell = cells.getJSONObject(client.random.nextInt(cells.length()));
+        return new int[]{cell.getInt("x"), cell.getInt("y")};
+    }
+
+    private void think(Random random) throws InterruptedException {
+        if (thinkMillis > 0) {
+            Thread.sleep(thinkMillis / 2 + (long) (random.nextDouble() * thinkMillis));
+        }
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(base.resolve(path)).GET().build();
+    }
+
+    private HttpRequest post(String path, String body) {
+        return HttpRequest.newBuilder(base.resolve(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    /**
+     * Sends a request and times it, including reading the body.
+     *
+     * @return The response body as JSON, or null if the request failed or was refused.
+     */
+    private JSONObject send(Client client, String endpoint, HttpRequest request) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+            boolean failed = response.statusCode() >= 400;
+            client.record(endpoint, System.nanoTime() - start, failed);
+            return failed ? null : new JSONObject(response.body());
+        } catch (IOException e) {
+            client.record(endpoint, System.nanoTime() - start, true);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            client.record(endpoint, System.nanoTime() - start, true);
+            return null;
+        }
+    }
+
+    private Map<String, String> summarize(Client[] states, double elapsedSeconds) {
+        Map<String, String> results = new TreeMap<>();
+        results.put("config.clients", String.valueOf(clients));
+        results.put("config.games_per_client", String.valueOf(gamesPerClient));
+        results.put("config.seconds", String.valueOf(seconds));
+        results.put("config.think_ms", String.valueOf(thinkMillis));
+        results.put("config.seed", String.valueOf(seed));
+
+        int won = 0;
+        int unfinished = 0;
+        long requests = 0;
+        for (Client client : states) {
+            won += client.won;
+            unfinished += client.unfinished;
+        }
+        for (String endpoint : ENDPOINTS) {
+            int total = 0;
+            int errors = 0;
+            for (Client client : states) {
+                total += client.counts.get(endpoint);
+                errors += client.errors.get(endpoint);
+            }
+            long[] all = new long[total];
+            int offset = 0;
+            for (Client client : states) {
+                int count = client.counts.get(endpoint);
+                System.arraycopy(client.latencies.get(endpoint), 0, all, offset, count);
+                offset += count;
+            }
+            Arrays.sort(all);
+            requests += total;
+            String prefix = "endpoint." + endpoint + ".";
+            results.put(prefix + "requests", String.valueOf(total));
+            results.put(prefix + "errors", String.valueOf(errors));
+            results.put(prefix + "rps", format(total / elapsedSeconds));
+            results.put(prefix + "p50_ms", format(ConnectionBenchmark.percentile(all, 0.50)));
+            results.put(prefix + "p99_ms", format(ConnectionBenchmark.percentile(all, 0.99)));
+            results.put(prefix + "p999_ms", format(ConnectionBenchmark.percentile(all, 0.999)));
+        }
+        results.put("games.won", String.valueOf(won));
+        results.put("games.unfinished", String.valueOf(unfinished));
+        results.put("total.requests", String.valueOf(requests));
+        results.put("total.rps", format(requests / elapsedSeconds));
+        results.put("total.seconds", format(elapsedSeconds));
+        return results;
+    }
+
+    private static String format(double value) {
+        return Double.isNaN(value) ? "NaN" : String.format(Locale.ROOT, "%.3f", value);
+    }
+
+    private static void print(Map<String, String> results) {
+        System.out.printf("%-24s %9s %7s %10s %9s %9s %9s%n", "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms");
+        for (String endpoint : ENDPOINTS) {
+            String prefix = "endpoint." + endpoint + ".";
+            System.out.printf("%-24s %9s %7s %10s %9s %9s %9s%n", endpoint,
+                    results.get(prefix + "requests"), results.get(prefix + "errors"), results.get(prefix + "rps"),
+                    results.get(prefix + "p50_ms"), results.get(prefix + "p99_ms"), results.get(prefix + "p999_ms"));
+        }
+        System.out.printf("%d requests in %s s (%s req/s); games won %s, unfinished %s%n",
+                Long.parseLong(results.get("total.requests")), results.get("total.seconds"), results.get("total.rps"),
+                results.get("games.won"), results.get("games.unfinished"));
+    }
+
+    /**
+     * Writes results as sorted {@code key=value} lines, so that runs can be diffed line by line.
+     */
+    static void write(Map<String, String> results, Path file) throws IOException {
+        StringBuilder text = new StringBuilder("# LoadGenerator results\n");
+        new TreeMap<>(results).forEach((key, value) -> text.append(key).append('=').append(value).append('\n'));
+        Files.write(file, text.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reads a results file written by {@link #write}.
+     */
+    static Map<String, String> read(Path file) throws IOException {
+        Map<String, String> results = new TreeMap<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            int equals = line.indexOf('=');
+            if (line.startsWith("#") || equals < 0) continue;
+            results.put(line.substring(0, equals), line.substring(equals + 1));
+        }
+        return results;
+    }
+
+    /**
+     * Prints every measurement of a run next to a baseline run's, with the relative change.
+     * Differences in configuration are printed first, since they make the comparison moot.
+     */
+    static void printComparison(Map<String, String> baseline, Map<String, String> results) {
+        for (Map.Entry<String, String> entry : new TreeMap<>(results).entrySet()) {
+            String key = entry.getKey();
+            String before = baseline.get(key);
+            if (key.startsWith("config.") && !entry.getValue().equals(before)) {
+                System.out.printf("config differs: %s was %s, now %s%n", key, before, entry.getValue());
+            }
+        }
+        System.out.printf("%-40s %12s %12s %9s%n", "measure", "baseline", "this run", "change");
+        for (Map.Entry<String, String> entry : new TreeMap<>(results).entrySet()) {
+            String key = entry.getKey();
+            String before = baseline.get(key);
+            if (key.startsWith("config.") || before == null) continue;
+            double old = Double.parseDouble(before);
+            double now = Double.parseDouble(entry.getValue());
+            String change = old == 0 ? "" : String.format(Locale.ROOT, "%+.1f%%", (now - old) * 100 / old);
+            System.out.printf("%-40s %12s %12s %9s%n", key, before, entry.getValue(), change);
+        }
+    }
+}
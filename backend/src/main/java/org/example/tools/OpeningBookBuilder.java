@@ -0,0 +1,143 @@
+// src/main/java/org/example/tools/OpeningBookBuilder.java
+package org.example.tools;
+
+import org.example.Game;
+import org.example.engine.Action;
+import org.example.engine.OpeningBook;
+import org.example.engine.Search;
+import org.example.engine.SelfPlay;
+import org.example.engine.Turn;
+import org.example.engine.TurnGenerator;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Builds an {@link OpeningBook} from engine self-play. Each game starts from an empty board with
+ * two distinct random gods and is played by the search for the given number of turns (each
+ * worker placement counts as one). Every position reached, including those in the middle of a
+ * turn, is recorded with the searched best action. To cover more than one line, the played turn
+ * is chosen at random among those scoring within a small margin of the best.
+ *
+ * <p>Usage: {@code OpeningBookBuilder --out FILE [--games N] [--turns T] [--depth D] [--threads T] [--seed S]}</p>
+ */
+public class OpeningBookBuilder {
+    // Turns scoring this close to the best are considered equally good when choosing the played line
+    private static final int VARIETY_MARGIN = 20;
+    private static final int VARIETY_LINES = 4;
+
+    private final int games;
+    private final int turns;
+    private final int depth;
+    private final int threads;
+    private final long seed;
+
+    public OpeningBookBuilder(int games, int turns, int depth, int threads, long seed) {
+        this.games = games;
+        this.turns = turns;
+        this.depth = depth;
+        this.threads = threads;
+        this.seed = seed;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path out = null;
+        int games = 200;
+        int turns = 8;
+        int depth = 2;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = System.nanoTime();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--out": out = Paths.get(args[i + 1]); break;
+                case "--games": games = Integer.parseInt(args[i + 1]); break;
+                case "--turns": turns = Integer.parseInt(args[i + 1]); break;
+                case "--depth": depth = Integer.parseInt(args[i + 1]); break;
+                case "--threads": threads = Integer.parseInt(args[i + 1]); break;
+                case "--seed": seed = Long.parseLong(args[i + 1]); break;
+                default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        if (out == null) {
+            System.err.println("Usage: OpeningBookBuilder --out FILE [--games N] [--turns T] [--depth D] [--threads T] [--seed S]");
+            return;
+        }
+
+        TurnGenerator.quietLogging();
+        long start = System.nanoTime();
+        int positions = new OpeningBookBuilder(games, turns, depth, threads, seed).build().write(out);
+        System.out.printf("Wrote %d positions from %d games to %s in %d ms%n",
+                positions, games, out, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Plays all games and collects their positions.
+     *
+     * @return The builder holding every searched position, ready to be written.
+     * @throws Exception If a game fails.
+     */
+    public OpeningBook.Builder build() throws Exception {
+        OpeningBook.Builder book = new OpeningBook.Builder();
+        AtomicInteger nextGame = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                workers.add(pool.submit(() -> {
+                    int gameIndex;
+                    while ((gameIndex = nextGame.getAndIncrement()) < games) {
+                        playGame(new Random(seed + gameIndex), book);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return book;
+    }
+
+    private void playGame(Random random, OpeningBook.Builder book) throws Exception {
+        List<String> gods = new ArrayList<>(Game.GOD_NAMES);
+        String godA = gods.remove(random.nextInt(gods.size()));
+        String godB = gods.get(random.nextInt(gods.size()));
+        Game game = new Game(Game.createGodStrategy(godA), Game.createGodStrategy(godB));
+
+        SelfPlay.play(game, (position, candidates, rng) -> {
+            List<Search.Line> lines = Search.analyse(position, VARIETY_LINES, depth);
+            record(position, lines.get(0), book);
+
+            List<Search.Line> close = new ArrayList<>();
+            for (Search.Line line : lines) {
+                if (line.getScore() >= lines.get(0).getScore() - VARIETY_MARGIN) close.add(line);
+            }
+            List<Action> chosen = close.get(rng.nextInt(close.size())).getTurn();
+            for (Turn turn : candidates) {
+                if (turn.getActions().equals(chosen)) return turn;
+            }
+            throw new IllegalStateException("Searched turn is not legal: " + chosen);
+        }, random, turns, position -> { });
+    }
+
+    /**
+     * Records the start of the best turn and each mid-turn position along it.
+     */
+    private void record(Game position, Search.Line best, OpeningBook.Builder book) throws Exception {
+        Game current = position.copy();
+        for (Action action : best.getTurn()) {
+            book.add(current, action, best.getScore(), depth);
+            action.applyTo(current);
+        }
+    }
+}
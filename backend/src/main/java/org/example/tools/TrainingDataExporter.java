@@ -0,0 +1,216 @@
+// src/main/java/org/example/tools/TrainingDataExporter.java
+package org.example.tools;
+
+import org.example.Game;
+import org.example.engine.FeatureEncoder;
+import org.example.engine.FeatureEncoder.FeatureBlock;
+import org.example.engine.SelfPlay;
+import org.example.engine.TurnGenerator;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Exports self-play positions as fixed-width feature records for offline evaluation tuning.
+ * Games are played in parallel; finished games are handed to a single writer through a bounded
+ * queue, so memory use stays flat however many games are exported. Each column described in
+ * {@link FeatureEncoder} goes to its own little-endian file, ready to be memory-mapped:
+ * {@code heights.u8}, {@code workers.u8}, {@code gods.u8}, {@code side.u8} and {@code outcome.f32},
+ * with the record count and column widths in {@code features.properties}.
+ *
+ * <p>Usage: {@code TrainingDataExporter --out DIR [--games N] [--threads T] [--max-turns M] [--seed S]}</p>
+ */
+public class TrainingDataExporter {
+    private static final FeatureBlock END_OF_STREAM = new FeatureBlock(0);
+    static final String THREAD_NAME = "training-export";
+
+    private final Path outputDir;
+    private final int games;
+    private final int threads;
+    private final int maxTurns;
+    private final long seed;
+
+    public TrainingDataExporter(Path outputDir, int games, int threads, int maxTurns, long seed) {
+        this.outputDir = outputDir;
+        this.games = games;
+        this.threads = threads;
+        this.maxTurns = maxTurns;
+        this.seed = seed;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path out = null;
+        int games = 1000;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int maxTurns = 200;
+        long seed = System.nanoTime();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--out": out = Paths.get(args[i + 1]); break;
+                case "--games": games = Integer.parseInt(args[i + 1]); break;
+                case "--threads": threads = Integer.parseInt(args[i + 1]); break;
+                case "--max-turns": maxTurns = Integer.parseInt(args[i + 1]); break;
+                case "--seed": seed = Long.parseLong(args[i + 1]); break;
+                default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        if (out == null) {
+            System.err.println("Usage: TrainingDataExporter --out DIR [--games N] [--threads T] [--max-turns M] [--seed S]");
+            return;
+        }
+
+        TurnGenerator.quietLogging();
+        long start = System.nanoTime();
+        long records = new TrainingDataExporter(out, games, threads, maxTurns, seed).export();
+        System.out.printf("Exported %d records from %d games to %s in %d ms%n",
+                records, games, out, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Plays and exports all games.
+     *
+     * @return The number of records written.
+     * @throws Exception If a game or the output fails.
+     */
+    public long export() throws Exception {
+        Files.createDirectories(outputDir);
+        BlockingQueue<FeatureBlock> queue = new ArrayBlockingQueue<>(4 * threads);
+        AtomicInteger nextGame = new AtomicInteger();
+        AtomicReference<Exception> failure = new AtomicReference<>();
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> new Thread(runnable, THREAD_NAME));
+        for (int t = 0; t < threads; t++) {
+            pool.execute(() -> {
+                try {
+                    int gameIndex;
+                    while ((gameIndex = nextGame.getAndIncrement()) < games && failure.get() == null) {
+                        queue.put(playGame(new Random(seed + gameIndex)));
+                    }
+                } catch (Exception e) {
+                    failure.compareAndSet(null, e);
+                } finally {
+                    try {
+                        queue.put(END_OF_STREAM);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            });
+        }
+        pool.shutdown();
+
+        long records = 0;
+        try (FileChannel heights = open("heights.u8");
+             FileChannel workers = open("workers.u8");
+             FileChannel gods = open("gods.u8");
+             FileChannel side = open("side.u8");
+             FileChannel outcome = open("outcome.f32")) {
+            ByteBuffer outcomeBytes = ByteBuffer.allocate(4 * maxTurns).order(ByteOrder.LITTLE_ENDIAN);
+            int finished = 0;
+            while (finished < threads) {
+                FeatureBlock block = queue.take();
+                if (block == END_OF_STREAM) {
+                    finished++;
+                    continue;
+                }
+                int n = block.size();
+                writeFully(heights, ByteBuffer.wrap(block.heights(), 0, n * FeatureEncoder.HEIGHT_WIDTH));
+                writeFully(workers, ByteBuffer.wrap(block.workers(), 0, n * FeatureEncoder.WORKER_WIDTH));
+                writeFully(gods, ByteBuffer.wrap(block.gods(), 0, n * FeatureEncoder.GOD_WIDTH));
+                writeFully(side, ByteBuffer.wrap(block.side(), 0, n));
+                outcomeBytes.clear();
+                for (int i = 0; i < n; i++) {
+                    outcomeBytes.putFloat(block.outcome()[i]);
+                }
+                outcomeBytes.flip();
+                writeFully(outcome, outcomeBytes);
+                records += n;
+            }
+        } catch (Exception e) {
+            // Players blocked on the full queue would otherwise wait for this writer forever
+            failure.compareAndSet(null, e);
+            throw e;
+        } finally {
+            if (failure.get() != null) pool.shutdownNow();
+        }
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+        writeManifest(records);
+        return records;
+    }
+
+    /**
+     * Plays one self-play game between two distinct random gods and encodes every move-phase
+     * position, labelled with the final outcome.
+     */
+    private FeatureBlock playGame(Random random) throws Exception {
+        List<String> gods = new ArrayList<>(Game.GOD_NAMES);
+        String godA = gods.remove(random.nextInt(gods.size()));
+        String godB = gods.get(random.nextInt(gods.size()));
+        Game game = new Game(Game.createGodStrategy(godA), Game.createGodStrategy(godB));
+
+        FeatureEncoder encoder = new FeatureEncoder();
+        FeatureBlock block = new FeatureBlock(maxTurns);
+        AtomicReference<Exception> encodeFailure = new AtomicReference<>();
+        String winner = SelfPlay.play(game, SelfPlay.RANDOM, random, maxTurns, position -> {
+            if (position.getCurrentPhase() != Game.GamePhase.MOVE) return;
+            try {
+                encoder.encode(position, block, block.add());
+            } catch (Exception e) {
+                encodeFailure.compareAndSet(null, e);
+            }
+        });
+        if (encodeFailure.get() != null) {
+            throw encodeFailure.get();
+        }
+
+        for (int i = 0; i < block.size(); i++) {
+            String toMove = block.getSide(i) == 0 ? game.getPlayerA().getName() : game.getPlayerB().getName();
+            block.setOutcome(i, winner == null ? 0f : winner.equals(toMove) ? 1f : -1f);
+        }
+        return block;
+    }
+
+    private FileChannel open(String name) throws IOException {
+        return FileChannel.open(outputDir.resolve(name),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private void writeManifest(long records) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(outputDir.resolve("features.properties"), StandardCharsets.UTF_8)) {
+            writer.write("records=" + records + "\n");
+            writer.write("byteOrder=little-endian\n");
+            writer.write("heights.u8=" + FeatureEncoder.HEIGHT_WIDTH + "\n");
+            writer.write("workers.u8=" + FeatureEncoder.WORKER_WIDTH + "\n");
+            writer.write("gods.u8=" + FeatureEncoder.GOD_WIDTH + "\n");
+            writer.write("side.u8=1\n");
+            writer.write("outcome.f32=1\n");
+            writer.write("gods=" + String.join(",", Game.GOD_NAMES) + "\n");
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package org.example.server;
+
+import org.example.GameApi;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControlTest {
+
+    @Test
+    void testActionsKeepPriorityOverReads() {
+        AdmissionControl admission = new AdmissionControl(2, 2, 1, 2);
+        assertTrue(admission.tryAcquire(AdmissionControl.Kind.READ));
+        assertTrue(admission.tryAcquire(AdmissionControl.Kind.ACTION));
+        // The shared limit is reached: reads are shed, actions still have room
+        assertFalse(admission.tryAcquire(AdmissionControl.Kind.READ));
+        assertFalse(admission.tryAcquire(AdmissionControl.Kind.AI));
+        assertTrue(admission.tryAcquire(AdmissionControl.Kind.ACTION));
+        assertFalse(admission.tryAcquire(AdmissionControl.Kind.ACTION));
+        assertEquals(2, admission.getInFlight(AdmissionControl.Kind.ACTION));
+        assertEquals(1, admission.getInFlight(AdmissionControl.Kind.READ));
+
+        admission.release(AdmissionControl.Kind.ACTION);
+        admission.release(AdmissionControl.Kind.ACTION);
+        assertTrue(admission.tryAcquire(AdmissionControl.Kind.AI));
+        assertFalse(admission.tryAcquire(AdmissionControl.Kind.AI));
+    }
+
+    @Test
+    void testParsesSpecs() {
+        AdmissionControl admission = AdmissionControl.fromSpec("actions=1, reads=3");
+        assertTrue(admission.tryAcquire(AdmissionControl.Kind.ACTION));
+        assertFalse(admission.tryAcquire(AdmissionControl.Kind.ACTION));
+        assertThrows(IllegalArgumentException.class, () -> AdmissionControl.fromSpec("writes=1"));
+        assertThrows(IllegalArgumentException.class, () -> AdmissionControl.fromSpec("reads=0"));
+    }
+
+    @Test
+    void testShedRequestsGetRetryAfter() {
+        AdmissionControl admission = new AdmissionControl(1, 1, 1, 10);
+        GameApi api = new GameApi(null, admission);
+        try {
+            assertTrue(admission.tryAcquire(AdmissionControl.Kind.READ));
+            HttpResponse shed = api.handle(new HttpRequest("GET", "/game-state", Map.of(), Map.of(), new byte[0]));
+            assertEquals(HttpResponse.SERVICE_UNAVAILABLE, shed.getStatus());
+            assertEquals("1", shed.getHeaders().get("Retry-After"));
+
+            HttpResponse action = api.handle(new HttpRequest("POST", "/action", Map.of(), Map.of(),
+                    "{\"actionType\":\"placeWorker\",\"x\":0,\"y\":0}".getBytes()));
+            assertEquals(HttpResponse.OK, action.getStatus());
+            assertEquals(0, admission.getInFlight(AdmissionControl.Kind.ACTION));
+        } finally {
+            api.close();
+        }
+    }
+}
@@ -8,8 +8,16 @@ import org.mockito.Mockito;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
 import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -60,12 +68,286 @@ class AppTest {
         assertEquals("Endpoint not found", jsonResponse.getString("error"));
     }
 
+    @Test
+    void testEvaluateBatchStreamsResultsInOrder() throws Exception {
+        String body = "0000000000000000000000000 6,18 8,16 A\n"
+                + "0000000000000000000000000 6,18 8,16 A apollo pan\n"
+                + "not a position\n";
+        NanoHTTPD.IHTTPSession session = createBodySession("/evaluate-batch", body);
+        NanoHTTPD.Response response = app.serve(session);
+
+        assertEquals(NanoHTTPD.Response.Status.OK, response.getStatus());
+        String[] lines = readResponseBody(response).split("\n");
+        assertEquals(3, lines.length);
+
+        JSONObject first = new JSONObject(lines[0]);
+        assertEquals(0, first.getInt("index"));
+        assertTrue(first.getInt("legalTurns") > 0);
+        assertFalse(first.getBoolean("immediateWin"));
+        assertEquals(1, new JSONObject(lines[1]).getInt("index"));
+        assertTrue(new JSONObject(lines[2]).has("error"));
+    }
+
+    @Test
+    void testAnalysisReturnsRequestedLinesAndCaches() throws Exception {
+        for (String placement : new String[]{"{x:0,y:0}", "{x:4,y:4}", "{x:0,y:4}", "{x:4,y:0}"}) {
+            app.serve(createBodySession("/action", "{actionType:'placeWorker'," + placement.substring(1)));
+        }
+
+        NanoHTTPD.IHTTPSession session = createSession("GET", "/analysis");
+        when(session.getParms()).thenReturn(Map.of("lines", "2", "depth", "1"));
+        JSONObject first = new JSONObject(readResponseBody(app.serve(session)));
+        assertEquals(2, first.getJSONArray("lines").length());
+        assertFalse(first.getBoolean("cached"));
+        assertEquals("move", first.getJSONArray("lines").getJSONObject(0)
+                .getJSONArray("turn").getJSONObject(0).getString("actionType"));
+
+        JSONObject second = new JSONObject(readResponseBody(app.serve(session)));
+        assertTrue(second.getBoolean("cached"));
+        assertEquals(first.getString("positionHash"), second.getString("positionHash"));
+    }
+
+    @Test
+    void testHintSuggestsPlacementAndCaches() throws Exception {
+        NanoHTTPD.IHTTPSession session = createSession("GET", "/hint");
+        when(session.getParms()).thenReturn(Map.of("depth", "1"));
+        JSONObject first = new JSONObject(readResponseBody(app.serve(session)));
+        assertEquals("placeWorker", first.getJSONObject("hint").getString("actionType"));
+        assertFalse(first.getBoolean("cached"));
+
+        JSONObject second = new JSONObject(readResponseBody(app.serve(session)));
+        assertTrue(second.getBoolean("cached"));
+    }
+
+    @Test
+    void testGamesAreIndependentAndAddressedById() throws Exception {
+        NanoHTTPD.Response created = app.serve(createBodySession("/games", "{playerAGod:'Apollo',playerBGod:'Pan'}"));
+        assertEquals(NanoHTTPD.Response.Status.CREATED, created.getStatus());
+        String id = new JSONObject(readResponseBody(created)).getString("gameId");
+
+        app.serve(createBodySession("/games/" + id + "/action", "{actionType:'placeWorker',x:2,y:2}"));
+        JSONObject state = new JSONObject(readResponseBody(app.serve(createSession("GET", "/games/" + id + "/state"))));
+        assertEquals(1, state.getJSONArray("workers").length());
+        assertEquals("Apollo", state.getString("playerAGod"));
+
+        JSONObject defaultState = new JSONObject(readResponseBody(app.serve(createSession("GET", "/game-state"))));
+        assertEquals(0, defaultState.getJSONArray("workers").length(), "The default game should be untouched.");
+
+        assertEquals(NanoHTTPD.Response.Status.OK, app.serve(createSession("DELETE", "/games/" + id)).getStatus());
+        assertEquals(NanoHTTPD.Response.Status.NOT_FOUND,
+                app.serve(createSession("GET", "/games/" + id + "/state")).getStatus());
+    }
+
+    @Test
+    void testEventsPushEachNewVersion() throws Exception {
+        NanoHTTPD.Response created = app.serve(createBodySession("/games", "{playerAGod:'Apollo',playerBGod:'Pan'}"));
+        String id = new JSONObject(readResponseBody(created)).getString("gameId");
+
+        NanoHTTPD.Response events = app.serve(createSession("GET", "/games/" + id + "/events"));
+        assertEquals("text/event-stream", events.getMimeType());
+        try (InputStream stream = events.getData()) {
+            byte[] buffer = new byte[8192];
+            String initial = new String(buffer, 0, stream.read(buffer), StandardCharsets.UTF_8);
+            assertTrue(initial.startsWith("id: 0\n"));
+
+            app.serve(createBodySession("/games/" + id + "/action", "{actionType:'placeWorker',x:2,y:2}"));
+            String update = new String(buffer, 0, stream.read(buffer), StandardCharsets.UTF_8);
+            assertTrue(update.startsWith("id: 1\n"));
+            JSONObject state = new JSONObject(update.substring(update.indexOf("data: ") + 6).trim());
+            assertEquals(1, state.getLong("version"));
+            assertEquals(1, state.getJSONArray("workers").length());
+        }
+    }
+
+    @Test
+    void testGameStateCarriesETagAndRevalidates() throws Exception {
+        NanoHTTPD.Response first = app.serve(createSession("GET", "/game-state"));
+        String etag = first.getHeader("ETag");
+        assertNotNull(etag);
+
+        NanoHTTPD.IHTTPSession revalidate = createSession("GET", "/game-state");
+        when(revalidate.getHeaders()).thenReturn(Map.of("if-none-match", etag));
+        assertEquals(NanoHTTPD.Response.Status.NOT_MODIFIED, app.serve(revalidate).getStatus());
+
+        app.serve(createBodySession("/action", "{actionType:'placeWorker',x:1,y:1}"));
+        NanoHTTPD.Response changed = app.serve(revalidate);
+        assertEquals(NanoHTTPD.Response.Status.OK, changed.getStatus());
+        assertNotEquals(etag, changed.getHeader("ETag"));
+        assertEquals(1, new JSONObject(readResponseBody(changed)).getJSONArray("workers").length());
+    }
+
+    @Test
+    void testGameStateSinceReturnsOnlyChanges() throws Exception {
+        app.serve(createBodySession("/action", "{actionType:'placeWorker',x:1,y:1}"));
+        app.serve(createBodySession("/action", "{actionType:'placeWorker',x:3,y:3}"));
+        NanoHTTPD.IHTTPSession session = createSession("GET", "/game-state");
+        when(session.getParms()).thenReturn(Map.of("since", "1"));
+        JSONObject delta = new JSONObject(readResponseBody(app.serve(session)));
+
+        assertTrue(delta.getBoolean("delta"));
+        assertEquals(2, delta.getLong("version"));
+        assertFalse(delta.has("grid"));
+        assertEquals(1, delta.getJSONArray("cells").length());
+        assertEquals(3, delta.getJSONArray("cells").getJSONObject(0).getInt("x"));
+        assertEquals(1, delta.getJSONArray("workerMoves").getJSONObject(0).getInt("index"));
+
+        when(session.getParms()).thenReturn(Map.of("since", "99"));
+        JSONObject full = new JSONObject(readResponseBody(app.serve(session)));
+        assertFalse(full.getBoolean("delta"));
+        assertEquals(5, full.getJSONArray("grid").length());
+    }
+
+    @Test
+    void testWebSocketCarriesActionsQueriesAndPushes() throws Exception {
+        BlockingQueue<JSONObject> messages = new LinkedBlockingQueue<>();
+        WebSocket socket = HttpClient.newHttpClient().newWebSocketBuilder()
+                .buildAsync(URI.create("ws://localhost:8080/ws"), new WebSocket.Listener() {
+                    private final StringBuilder text = new StringBuilder();
+
+                    @Override
+                    public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+                        text.append(data);
+                        if (last) {
+                            messages.add(new JSONObject(text.toString()));
+                            text.setLength(0);
+                        }
+                        webSocket.request(1);
+                        return null;
+                    }
+                }).get(5, TimeUnit.SECONDS);
+        try {
+            JSONObject initial = messages.poll(5, TimeUnit.SECONDS);
+            assertEquals("state", initial.getString("type"));
+            assertEquals(0, initial.getJSONObject("state").getJSONArray("workers").length());
+
+            socket.sendText("{type:'action',id:1,actionType:'placeWorker',x:1,y:1}", true);
+            // The push and the reply may arrive in either order
+            JSONObject reply = null;
+            boolean pushed = false;
+            for (int i = 0; i < 2; i++) {
+                JSONObject message = messages.poll(5, TimeUnit.SECONDS);
+                if (message.getString("type").equals("reply")) reply = message;
+                if (message.getString("type").equals("state")) pushed = true;
+            }
+            assertNotNull(reply);
+            assertTrue(pushed);
+            assertEquals(1, reply.getInt("id"));
+            assertEquals(1, reply.getJSONObject("state").getJSONArray("workers").length());
+
+            socket.sendText("{type:'jump',id:2}", true);
+            JSONObject error = messages.poll(5, TimeUnit.SECONDS);
+            assertEquals("error", error.getString("type"));
+            assertEquals(2, error.getInt("id"));
+        } finally {
+            socket.abort();
+        }
+    }
+
     // Helper methods to create mock sessions
+    @Test
+    void testActionBodiesAreReadFromTheConnection() throws Exception {
+        NanoHTTPD.Response placed = app.serve(createStreamSession("/action",
+                "{\"actionType\": \"placeWorker\", \"x\": 2, \"y\": 3}"));
+        assertEquals(NanoHTTPD.Response.Status.OK, placed.getStatus());
+        JSONObject state = new JSONObject(readResponseBody(placed));
+        assertEquals("Action placeWorker processed successfully.", state.getString("message"));
+        assertEquals("Player A", state.getJSONArray("grid").getJSONArray(2).getJSONObject(3).getJSONObject("worker").getString("player"));
+
+        assertEquals("Invalid JSON format.", new JSONObject(readResponseBody(
+                app.serve(createStreamSession("/action", "{\"actionType\": \"move\", \"x\":")))).getString("error"));
+        assertEquals("Empty request body.", new JSONObject(readResponseBody(
+                app.serve(createStreamSession("/action", "")))).getString("error"));
+    }
+
+    @Test
+    void testBinaryActionsAndStates() throws Exception {
+        Map<String, String> binary = Map.of("content-type", BinaryProtocol.CONTENT_TYPE, "accept", BinaryProtocol.CONTENT_TYPE);
+        NanoHTTPD.Response placed = app.serve(createStreamSession("/action", new byte[]{0, -1, 2, 3}, binary));
+        assertEquals(BinaryProtocol.CONTENT_TYPE, placed.getMimeType());
+        byte[] state = readResponseBytes(placed);
+        assertEquals(BinaryProtocol.STATE_HEADER_BYTES + 1, state.length);
+        assertEquals(2 * 5 + 3, state[BinaryProtocol.STATE_HEADER_BYTES]);
+
+        NanoHTTPD.IHTTPSession get = createSession("GET", "/game-state");
+        when(get.getHeaders()).thenReturn(Map.of("accept", BinaryProtocol.CONTENT_TYPE));
+        NanoHTTPD.Response current = app.serve(get);
+        assertArrayEquals(state, readResponseBytes(current));
+        assertNotEquals(app.serve(createSession("GET", "/game-state")).getHeader("ETag"), current.getHeader("ETag"));
+
+        assertEquals("Invalid binary action.", new JSONObject(readResponseBody(
+                app.serve(createStreamSession("/action", new byte[]{9, 0, 0, 0}, binary)))).getString("error"));
+    }
+
+    @Test
+    void testActionBatchesApplyAllOrNothing() throws Exception {
+        NanoHTTPD.Response placed = app.serve(createStreamSession("/actions", "{\"actions\": ["
+                + "{\"actionType\": \"placeWorker\", \"x\": 0, \"y\": 0}, {\"actionType\": \"placeWorker\", \"x\": 1, \"y\": 1},"
+                + "{\"actionType\": \"placeWorker\", \"x\": 4, \"y\": 4}, {\"actionType\": \"placeWorker\", \"x\": 3, \"y\": 3}]}"));
+        assertEquals(NanoHTTPD.Response.Status.OK, placed.getStatus());
+        JSONObject state = new JSONObject(readResponseBody(placed));
+        assertEquals(1, state.getLong("version"));
+        assertEquals(4, state.getJSONArray("workers").length());
+        assertEquals("MOVE", state.getString("gamePhase"));
+
+        NanoHTTPD.Response failed = app.serve(createStreamSession("/actions", "{\"actions\": ["
+                + "{\"actionType\": \"move\", \"workerIndex\": 0, \"x\": 0, \"y\": 1},"
+                + "{\"actionType\": \"move\", \"workerIndex\": 0, \"x\": 0, \"y\": 2}]}"));
+        assertEquals(NanoHTTPD.Response.Status.CONFLICT, failed.getStatus());
+        assertEquals(1, new JSONObject(readResponseBody(failed)).getInt("failedAction"));
+
+        JSONObject unchanged = new JSONObject(readResponseBody(app.serve(createSession("GET", "/game-state"))));
+        assertEquals(1, unchanged.getLong("version"));
+        assertEquals("MOVE", unchanged.getString("gamePhase"));
+        assertEquals("Player A", unchanged.getJSONArray("grid").getJSONArray(0).getJSONObject(0)
+                .getJSONObject("worker").getString("player"));
+    }
+
+    @Test
+    void testLegalActionsListEverythingForThePhase() throws Exception {
+        JSONObject placement = new JSONObject(readResponseBody(app.serve(createSession("GET", "/legal-actions"))));
+        assertEquals("PLACEMENT", placement.getString("gamePhase"));
+        assertEquals(25, placement.getJSONArray("actions").length());
+        assertFalse(placement.getBoolean("endTurn"));
+
+        for (String square : new String[]{"x:0,y:0", "x:4,y:4", "x:0,y:4", "x:4,y:0"}) {
+            app.serve(createBodySession("/action", "{actionType:'placeWorker'," + square + "}"));
+        }
+        NanoHTTPD.Response response = app.serve(createSession("GET", "/legal-actions"));
+        JSONObject move = new JSONObject(readResponseBody(response));
+        assertEquals("MOVE", move.getString("gamePhase"));
+        // Three neighbours for each corner worker
+        assertEquals(6, move.getJSONArray("actions").length());
+        for (int i = 0; i < 6; i++) {
+            assertEquals("move", move.getJSONArray("actions").getJSONObject(i).getString("actionType"));
+        }
+        assertEquals(response.getHeader("ETag"), app.serve(createSession("GET", "/legal-actions")).getHeader("ETag"));
+    }
+
+    @Test
+    void testGameStateIsCompressedOncePerVersion() throws Exception {
+        NanoHTTPD.Response plain = app.serve(createSession("GET", "/game-state"));
+        byte[] json = readResponseBytes(plain);
+
+        NanoHTTPD.IHTTPSession gzipSession = createSession("GET", "/game-state");
+        when(gzipSession.getHeaders()).thenReturn(Map.of("accept-encoding", "gzip"));
+        NanoHTTPD.Response gzipped = app.serve(gzipSession);
+        assertEquals("gzip", gzipped.getHeader("Content-Encoding"));
+        assertTrue(gzipped.getHeader("Vary").contains("Accept-Encoding"));
+        assertNotEquals(plain.getHeader("ETag"), gzipped.getHeader("ETag"));
+        byte[] compressed = readResponseBytes(gzipped);
+        assertTrue(compressed.length < json.length / 2);
+        try (InputStream in = new java.util.zip.GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertArrayEquals(json, in.readAllBytes());
+        }
+        assertArrayEquals(compressed, readResponseBytes(app.serve(gzipSession)));
+    }
+
     private NanoHTTPD.IHTTPSession createSession(String method, String uri) {
         NanoHTTPD.IHTTPSession session = mock(NanoHTTPD.IHTTPSession.class);
         when(session.getMethod()).thenReturn(NanoHTTPD.Method.valueOf(method));
         when(session.getUri()).thenReturn(uri);
         when(session.getParms()).thenReturn(Map.of()); // Default no parameters
+        when(session.getHeaders()).thenReturn(Map.of());
         return session;
     }
 
@@ -81,6 +363,38 @@ class AppTest {
         return session;
     }
 
+    @SuppressWarnings("unchecked")
+    private NanoHTTPD.IHTTPSession createBodySession(String uri, String body) {
+        NanoHTTPD.IHTTPSession session = createSession("POST", uri);
+        try {
+            doAnswer(invocation -> {
+                ((Map<String, String>) invocation.getArgument(0)).put("postData", body);
+                return null;
+            }).when(session).parseBody(Mockito.anyMap());
+        } catch (Exception ignored) {
+        }
+        return session;
+    }
+
+    private NanoHTTPD.IHTTPSession createStreamSession(String uri, String body) {
+        return createStreamSession(uri, body.getBytes(StandardCharsets.UTF_8), Map.of());
+    }
+
+    private NanoHTTPD.IHTTPSession createStreamSession(String uri, byte[] body, Map<String, String> headers) {
+        NanoHTTPD.IHTTPSession session = createSession("POST", uri);
+        Map<String, String> allHeaders = new HashMap<>(headers);
+        allHeaders.put("content-length", String.valueOf(body.length));
+        when(session.getHeaders()).thenReturn(allHeaders);
+        when(session.getInputStream()).thenReturn(new ByteArrayInputStream(body));
+        return session;
+    }
+
+    private byte[] readResponseBytes(NanoHTTPD.Response response) throws IOException {
+        try (InputStream is = response.getData()) {
+            return is.readAllBytes();
+        }
+    }
+
     private String readResponseBody(NanoHTTPD.Response response) throws IOException {
         try (InputStream is = response.getData()) {
             return new String(is.readAllBytes(), StandardCharsets.UTF_8);
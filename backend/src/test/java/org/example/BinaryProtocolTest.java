@@ -0,0 +1,56 @@
+package org.example;
+
+import org.example.gods.ApolloGodStrategy;
+import org.example.gods.PanGodStrategy;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryProtocolTest {
+
+    @Test
+    void testWritesState() throws Exception {
+        Game game = new Game(new ApolloGodStrategy(), new PanGodStrategy());
+        game.getBoard().setTowerHeight(0, 1, 3);
+        game.getBoard().setTowerHeight(4, 4, 4);
+        game.placeWorker(0, 0);
+        game.placeWorker(1, 2);
+        game.placeWorker(4, 3);
+
+        byte[] state = BinaryProtocol.writeState(game, 258);
+        assertEquals(BinaryProtocol.STATE_HEADER_BYTES + 3, state.length);
+        assertEquals(BinaryProtocol.FORMAT, state[0]);
+        assertEquals(1, state[7]);
+        assertEquals(2, state[8]);
+        // Placement phase, Player B to move
+        assertEquals(Game.GamePhase.PLACEMENT.ordinal() | 1 << 3, state[9]);
+        assertEquals(Game.GOD_NAMES.indexOf("Apollo"), state[10]);
+        assertEquals(Game.GOD_NAMES.indexOf("Pan"), state[11]);
+        assertEquals(0x03, state[12]); // Squares 0 and 1
+        assertEquals(0x40, state[24]); // Square 24
+        assertEquals(3, state[25]);
+        assertEquals(0, state[26]);
+        assertEquals(7, state[27]);
+        assertEquals((byte) (0x80 | 23), state[28]);
+    }
+
+    @Test
+    void testWritesCellMask() {
+        byte[] mask = BinaryProtocol.writeCellMask(List.of(Map.of("x", 0, "y", 0), Map.of("x", 4, "y", 4)));
+        assertArrayEquals(new byte[]{1, 0, 0, 1}, mask);
+    }
+
+    @Test
+    void testNegotiates() {
+        assertTrue(BinaryProtocol.accepts("application/x-santorini"));
+        assertTrue(BinaryProtocol.accepts("application/json;q=0.5, application/x-santorini"));
+        assertFalse(BinaryProtocol.accepts("application/x-santorini;q=0"));
+        assertFalse(BinaryProtocol.accepts("*/*"));
+        assertFalse(BinaryProtocol.accepts(null));
+        assertTrue(BinaryProtocol.isBinary("application/x-santorini; charset=binary"));
+        assertFalse(BinaryProtocol.isBinary("application/json"));
+    }
+}
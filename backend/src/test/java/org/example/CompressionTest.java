@@ -0,0 +1,41 @@
+package org.example.server;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressionTest {
+
+    @Test
+    void testNegotiates() {
+        assertEquals(Compression.GZIP, Compression.negotiate("gzip, deflate, br"));
+        assertEquals(Compression.DEFLATE, Compression.negotiate("gzip;q=0.5, deflate"));
+        assertEquals(Compression.DEFLATE, Compression.negotiate("deflate, gzip;q=0"));
+        assertEquals(Compression.GZIP, Compression.negotiate("*"));
+        assertNull(Compression.negotiate("br"));
+        assertNull(Compression.negotiate("identity"));
+        assertNull(Compression.negotiate(null));
+    }
+
+    @Test
+    void testRoundTripsWithReusedDeflaters() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            byte[] body = ("{\"x\":" + i + ",\"y\":0,\"height\":0},").repeat(100 * (i + 1)).getBytes(StandardCharsets.UTF_8);
+
+            byte[] gzip = Compression.compress(body, Compression.GZIP);
+            assertTrue(gzip.length < body.length / 4);
+            try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+                assertArrayEquals(body, in.readAllBytes());
+            }
+            try (InflaterInputStream in = new InflaterInputStream(new ByteArrayInputStream(
+                    Compression.compress(body, Compression.DEFLATE)))) {
+                assertArrayEquals(body, in.readAllBytes());
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package org.example.server;
+
+import org.example.App;
+import org.junit.jupiter.api.Test;
+
+import java.net.HttpURLConnection;
+import java.net.URL;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExecutorAsyncRunnerTest {
+
+    @Test
+    void testPooledRunnerServesRequests() throws Exception {
+        App app = new App(null, ExecutorAsyncRunner.fromSpec("pooled:2"));
+        try {
+            for (int i = 0; i < 3; i++) {
+                HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:8080/game-state").openConnection();
+                assertEquals(200, connection.getResponseCode());
+                connection.getInputStream().readAllBytes();
+            }
+        } finally {
+            app.stop();
+        }
+    }
+
+    @Test
+    void testRunnerSpecs() {
+        assertThrows(IllegalArgumentException.class, () -> ExecutorAsyncRunner.fromSpec("fibers"));
+        assertNotNull(ExecutorAsyncRunner.fromSpec("thread"));
+        if (ExecutorAsyncRunner.virtualThreadsAvailable()) {
+            assertNotNull(ExecutorAsyncRunner.fromSpec("virtual"));
+        } else {
+            assertThrows(IllegalArgumentException.class, () -> ExecutorAsyncRunner.fromSpec("virtual"),
+                    "Virtual threads should be refused on runtimes without them.");
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlatJsonReaderTest {
+
+    private static FlatJsonReader reader(String json) {
+        return new FlatJsonReader(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testReadsFlatFields() {
+        FlatJsonReader reader = reader(" {\"actionType\":\"build\", \"x\":-1,\"y\" : 4,\"buildDome\":true,\"note\":\"é\"} ");
+        assertEquals("actionType", reader.nextKey());
+        assertEquals("build", reader.readString());
+        assertEquals("x", reader.nextKey());
+        assertEquals(-1, reader.readInt());
+        assertEquals("y", reader.nextKey());
+        assertEquals(4, reader.readInt());
+        assertEquals("buildDome", reader.nextKey());
+        assertTrue(reader.readBoolean());
+        assertEquals("note", reader.nextKey());
+        reader.skipValue();
+        assertNull(reader.nextKey());
+        assertFalse(reader.failed());
+
+        FlatJsonReader empty = reader("{}");
+        assertNull(empty.nextKey());
+        assertFalse(empty.failed());
+    }
+
+    @Test
+    void testFailsOnAnythingOrgJsonMightReadDifferently() {
+        String[] bodies = {
+                "", "{", "{\"x\":1", "{\"x\":1}}", "{x:1}", "{'x':1}", "{\"x\":1,}", "{\"x\":1;\"y\":2}",
+                "{\"x\":01}", "{\"x\":-0}", "{\"x\":1.5}", "{\"x\":1e2}", "{\"x\":1234567890}", "{\"x\":null}",
+                "{\"x\":\"a\\\"b\"}", "{\"x\":[1]}", "{\"x\":{}}", "{\"x\":1,\"x\":2}", "{\"x\":truth}",
+        };
+        for (String body : bodies) {
+            FlatJsonReader reader = reader(body);
+            String key = reader.nextKey();
+            while (key != null) {
+                reader.skipValue();
+                key = reader.nextKey();
+            }
+            assertTrue(reader.failed(), body);
+        }
+    }
+}
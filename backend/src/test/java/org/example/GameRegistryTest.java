@@ -0,0 +1,42 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameRegistryTest {
+
+    @Test
+    void testCreateRespectsCapacity() {
+        GameRegistry registry = new GameRegistry(2, 1000);
+        GameSession first = registry.create(new Game());
+        assertNotNull(registry.create(new Game()));
+        assertNull(registry.create(new Game()), "A full registry should refuse new games.");
+
+        assertTrue(registry.remove(first.getId()));
+        assertNull(registry.get(first.getId()));
+        assertNotNull(registry.create(new Game()), "Removing a game should free its slot.");
+    }
+
+    @Test
+    void testIdleGamesAreEvicted() {
+        AtomicLong now = new AtomicLong();
+        GameRegistry registry = new GameRegistry(2, 1000, now::get);
+        GameSession idle = registry.create(new Game());
+        GameSession active = registry.create(new Game());
+
+        now.set(800);
+        registry.get(active.getId());
+        now.set(1500);
+        assertEquals(1, registry.evictIdle());
+        assertNull(registry.get(idle.getId()), "The idle game should be gone.");
+        assertSame(active, registry.get(active.getId()));
+
+        now.set(3000);
+        assertNotNull(registry.create(new Game()));
+        assertNotNull(registry.create(new Game()), "A full registry should evict idle games to make room.");
+        assertEquals(2, registry.size());
+    }
+}
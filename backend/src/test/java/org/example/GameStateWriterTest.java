@@ -0,0 +1,139 @@
+package org.example;
+
+import org.example.gods.DemeterGodStrategy;
+import org.example.gods.PanGodStrategy;
+import org.example.server.HttpRequest;
+import org.example.server.HttpResponse;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameStateWriterTest {
+
+    /**
+     * The state as it was built before the writer: a map of maps serialized by JSONObject.
+     */
+    private static String viaJsonObject(Game game, long version, String message) throws Exception {
+        Map<String, Object> state = new HashMap<>();
+        state.put("version", version);
+        state.put("currentPlayer", game.getCurrentPlayer().getName());
+        state.put("gamePhase", game.getCurrentPhase().toString());
+        state.put("gameEnded", game.isGameEnded());
+        state.put("status", game.isGameEnded() ? game.getWinner() + " Wins!" : "In Progress");
+        state.put("winner", game.getWinner());
+        state.put("playerAGod", game.getPlayerA().getGodStrategy().getName());
+        state.put("playerBGod", game.getPlayerB().getGodStrategy().getName());
+        Map<String, Object> strategyState = game.getCurrentPlayer().getGodStrategy().getStrategyState();
+        state.put("strategyState", strategyState != null ? strategyState : new HashMap<>());
+        state.put("currentPlayerGod", game.getCurrentPlayer().getGodStrategy().getName());
+        if (message != null) state.put("message", message);
+
+        List<List<Map<String, Object>>> grid = new ArrayList<>();
+        for (int x = 0; x < 5; x++) {
+            List<Map<String, Object>> row = new ArrayList<>();
+            for (int y = 0; y < 5; y++) {
+                Map<String, Object> cell = new HashMap<>();
+                cell.put("x", x);
+                cell.put("y", y);
+                cell.put("height", game.getBoard().getTowerHeight(x, y));
+                Worker worker = game.getBoard().getWorkerAt(x, y);
+                if (worker != null) {
+                    cell.put("worker", Map.of("id", worker.hashCode(), "player", worker.getOwner().getName(),
+                            "x", worker.getX(), "y", worker.getY()));
+                }
+                row.add(cell);
+            }
+            grid.add(row);
+        }
+        state.put("grid", grid);
+
+        List<Map<String, Object>> workers = new ArrayList<>();
+        for (Worker worker : game.getAllWorkers()) {
+            // JSONObject sizes its map for the three keys, which then share a bucket, so insertion order is kept
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("id", worker.hashCode());
+            entry.put("player", worker.getOwner().getName());
+            entry.put("position", Map.of("x", worker.getX(), "y", worker.getY()));
+            workers.add(entry);
+        }
+        state.put("workers", workers);
+        return new JSONObject(state).toString();
+    }
+
+    private static void assertSameBytes(Game game, long version, String message) throws Exception {
+        assertEquals(viaJsonObject(game, version, message),
+                new String(GameStateWriter.write(game, version, message), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testMatchesJsonObjectThroughAGame() throws Exception {
+        Game game = new Game(new DemeterGodStrategy(), new PanGodStrategy());
+        assertSameBytes(game, 0, null);
+        game.placeWorker(0, 0);
+        game.placeWorker(4, 4);
+        game.placeWorker(0, 4);
+        game.placeWorker(4, 0);
+        assertSameBytes(game, 4, "Action placeWorker processed successfully.");
+
+        game.moveWorker(0, 1, 1);
+        game.build(2, 2);
+        assertSameBytes(game, 12345678901L, null);
+        assertSameBytes(game, 6, "Quotes \" and </ are escaped");
+    }
+
+    @Test
+    void testMatchesJsonObjectOnceWon() throws Exception {
+        Game game = new Game();
+        game.getBoard().setTowerHeight(1, 1, 2);
+        game.getBoard().setTowerHeight(1, 2, 3);
+        game.placeWorker(1, 1);
+        game.placeWorker(4, 4);
+        game.placeWorker(0, 4);
+        game.placeWorker(4, 0);
+        game.moveWorker(0, 1, 2);
+        assertTrue(game.isGameEnded());
+        assertSameBytes(game, 9, null);
+        assertSameBytes(game, 9, "Action move processed successfully.");
+    }
+
+    @Test
+    void testEveryEndpointSendsTheSameState() throws Exception {
+        GameApi api = new GameApi(null);
+        try {
+            HttpResponse created = api.handle(new HttpRequest("POST", "/games", Map.of(), Map.of(),
+                    "{\"playerAGod\":\"Pan\",\"playerBGod\":\"Apollo\"}".getBytes(StandardCharsets.UTF_8)));
+            String id = new JSONObject(body(created)).getString("gameId");
+            String path = "/games/" + id;
+            api.handle(new HttpRequest("POST", path + "/action", Map.of(), Map.of(),
+                    "{\"actionType\":\"placeWorker\",\"x\":2,\"y\":3}".getBytes(StandardCharsets.UTF_8)));
+
+            String state = body(api.handle(new HttpRequest("GET", path + "/state", Map.of(), Map.of(), new byte[0])));
+            String fallback = body(api.handle(new HttpRequest("GET", path + "/state", Map.of("since", "-5"), Map.of(), new byte[0])));
+            assertEquals("{\"delta\":false," + state.substring(1), fallback);
+
+            BlockingQueue<String> messages = new LinkedBlockingQueue<>();
+            GameApi.Channel channel = api.openChannel(path + "/ws", messages::add);
+            assertEquals("{\"type\":\"state\",\"state\":" + state + "}", messages.poll(5, TimeUnit.SECONDS));
+            channel.onMessage("{\"type\":\"state\"}");
+            assertTrue(messages.poll(5, TimeUnit.SECONDS).contains("\"state\":" + state));
+            channel.close();
+        } finally {
+            api.close();
+        }
+    }
+
+    private static String body(HttpResponse response) {
+        return new String(response.getBody(), StandardCharsets.UTF_8);
+    }
+}
@@ -102,4 +102,20 @@ class GameTest {
 
  
 
+    @Test
+    void testCopyIsIndependent() throws Exception {
+        game.placeWorker(0, 0); // A1
+        game.placeWorker(2, 0); // A2
+        game.placeWorker(0, 1); // B1
+        game.placeWorker(2, 1); // B2
+
+        Game copy = game.copy();
+        assertTrue(copy.moveWorker(0, 1, 0), "Move on the copy should succeed.");
+        assertTrue(copy.build(1, 1), "Build on the copy should succeed.");
+
+        assertEquals(Game.GamePhase.MOVE, game.getCurrentPhase(), "Original should still be in MOVE phase.");
+        assertEquals(0, game.getBoard().getTowerHeight(1, 1), "Original board should be unchanged.");
+        assertNotNull(game.getBoard().getWorkerAt(0, 0), "Original worker should not have moved.");
+        assertEquals(game.getPlayerB().getName(), copy.getCurrentPlayer().getName(), "Copy should have passed the turn.");
+    }
 }
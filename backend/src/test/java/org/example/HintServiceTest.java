@@ -0,0 +1,50 @@
+package org.example.engine;
+
+import org.example.Game;
+import org.example.gods.DefaultGodStrategy;
+import org.example.gods.GodStrategy;
+import org.example.gods.PanGodStrategy;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HintServiceTest {
+
+    private static Game game(GodStrategy god, int[][] workers) throws Exception {
+        Game game = new Game(god, new DefaultGodStrategy());
+        for (int[] worker : workers) {
+            game.placeWorker(worker[0], worker[1]);
+        }
+        return game;
+    }
+
+    @Test
+    void testHintTakesWinningMove() throws Exception {
+        Game game = game(new DefaultGodStrategy(), new int[][]{{0, 0}, {4, 4}, {0, 4}, {4, 0}});
+        game.getBoard().setTowerHeight(0, 0, 2);
+        game.getBoard().setTowerHeight(1, 1, 3);
+
+        HintService.Hint hint = new HintService(16).hint(game, 1);
+        assertEquals(Action.move(0, 1, 1), hint.getAction(), "The hint should climb to level 3.");
+        assertEquals(Evaluator.WIN, hint.getScore());
+    }
+
+    @Test
+    void testMirroredPositionReusesHint() throws Exception {
+        HintService service = new HintService(16);
+        Game game = game(new PanGodStrategy(), new int[][]{{0, 0}, {1, 2}, {3, 3}, {2, 4}});
+        game.getBoard().setTowerHeight(1, 1, 1);
+        Game mirrored = game(new PanGodStrategy(), new int[][]{{4, 0}, {3, 2}, {1, 3}, {2, 4}});
+        mirrored.getBoard().setTowerHeight(3, 1, 1);
+
+        HintService.Hint first = service.hint(game, 1);
+        HintService.Hint second = service.hint(mirrored, 1);
+
+        assertFalse(first.isCached());
+        assertTrue(second.isCached(), "A mirrored position should hit the cache.");
+        Action action = first.getAction();
+        assertEquals(Action.move(action.getWorkerIndex(), 4 - action.getX(), action.getY()), second.getAction(),
+                "The cached hint should be mirrored onto the second game.");
+        assertTrue(service.hint(game, 2).getDepth() >= 2, "A deeper request should not be answered from a shallower entry.");
+    }
+}
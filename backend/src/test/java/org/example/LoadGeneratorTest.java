@@ -0,0 +1,83 @@
+package org.example.tools;
+
+import org.example.GameApi;
+import org.example.engine.TurnGenerator;
+import org.example.server.NioHttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadGeneratorTest {
+
+    private GameApi api;
+    private ExecutorService workers;
+    private NioHttpServer server;
+    private URI base;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        TurnGenerator.quietLogging();
+        api = new GameApi(null);
+        workers = Executors.newFixedThreadPool(4);
+        server = new NioHttpServer(0, api, 2, workers);
+        server.start();
+        base = URI.create("http://localhost:" + server.getPort());
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+        workers.shutdownNow();
+        api.close();
+    }
+
+    @Test
+    void testRandomGamesArePlayedThroughTheEndpoints() throws Exception {
+        Map<String, String> results = new LoadGenerator(base, 3, 2, 0, 0, null, List.of("Apollo", "Demeter", "Pan"), 7).run();
+        assertEquals("6", results.get("endpoint.create-game.requests"));
+        assertEquals("0", results.get("endpoint.create-game.errors"));
+        assertEquals("6", results.get("endpoint.delete-game.requests"));
+        assertEquals(6, Integer.parseInt(results.get("games.won")) + Integer.parseInt(results.get("games.unfinished")));
+        // Every game places four workers, and every action is preceded by a poll of the state
+        int actions = Integer.parseInt(results.get("endpoint.action.requests"));
+        assertTrue(actions >= 24);
+        assertTrue(Integer.parseInt(results.get("endpoint.state.requests")) >= actions - Integer.parseInt(results.get("endpoint.action.errors")));
+        assertTrue(Integer.parseInt(results.get("endpoint.selectable-move-cells.requests")) > 0);
+        assertNotEquals("NaN", results.get("endpoint.action.p99_ms"));
+    }
+
+    @Test
+    void testScriptsAreReplayedAndResultsRoundTrip(@TempDir Path dir) throws Exception {
+        Path script = dir.resolve("opening.txt");
+        Files.writeString(script, "# Placement and an opening move\n"
+                + "{\"actionType\":\"placeWorker\",\"x\":0,\"y\":0}\n"
+                + "{\"actionType\":\"placeWorker\",\"x\":0,\"y\":1}\n\n"
+                + "{\"actionType\":\"placeWorker\",\"x\":4,\"y\":4}\n"
+                + "{\"actionType\":\"placeWorker\",\"x\":4,\"y\":3}\n"
+                + "{\"actionType\":\"move\",\"workerIndex\":0,\"x\":1,\"y\":0}\n");
+        Map<String, String> results = new LoadGenerator(base, 2, 1, 0, 0, LoadGenerator.readScript(script),
+                List.of("Pan", "Apollo"), 1).run();
+        assertEquals("10", results.get("endpoint.action.requests"));
+        assertEquals("0", results.get("endpoint.action.errors"));
+        assertEquals("2", results.get("endpoint.selectable-move-cells.requests"));
+        assertEquals("2", results.get("games.unfinished"));
+
+        Path file = dir.resolve("results.properties");
+        LoadGenerator.write(results, file);
+        assertEquals(results, LoadGenerator.read(file));
+
+        Files.writeString(script, "not json\n");
+        assertThrows(IllegalArgumentException.class, () -> LoadGenerator.readScript(script));
+    }
+}
@@ -0,0 +1,74 @@
+package org.example.server;
+
+import org.example.GameApi;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsTest {
+
+    @Test
+    void testHistogramBucketsAreCumulative() {
+        Metrics metrics = new Metrics();
+        Metrics.Histogram histogram = metrics.histogram("latency_seconds", "Latency.", "endpoint", "/a");
+        histogram.record(500);                              // Below 1µs
+        histogram.record(TimeUnit.MICROSECONDS.toNanos(3)); // Below 4µs
+        histogram.record(TimeUnit.MINUTES.toNanos(1));      // Beyond the last bound
+        assertEquals(3, histogram.getCount());
+
+        String text = metrics.render();
+        assertTrue(text.contains("# TYPE latency_seconds histogram\n"));
+        assertTrue(text.contains("latency_seconds_bucket{endpoint=\"/a\",le=\"0.000001\"} 1\n"));
+        assertTrue(text.contains("latency_seconds_bucket{endpoint=\"/a\",le=\"0.000002\"} 1\n"));
+        assertTrue(text.contains("latency_seconds_bucket{endpoint=\"/a\",le=\"0.000004\"} 2\n"));
+        assertTrue(text.contains("latency_seconds_bucket{endpoint=\"/a\",le=\"16.777216\"} 2\n"));
+        assertTrue(text.contains("latency_seconds_bucket{endpoint=\"/a\",le=\"+Inf\"} 3\n"));
+        assertTrue(text.contains("latency_seconds_count{endpoint=\"/a\"} 3\n"));
+    }
+
+    @Test
+    void testCountersGaugesAndLabelEscaping() {
+        Metrics metrics = new Metrics();
+        metrics.counter("errors_total", "Errors.", "type", "Bad \"quote\"").add(2);
+        metrics.counter("errors_total", "Errors.", "type", "Bad \"quote\"").increment();
+        metrics.gauge("games", "Games.", () -> 7);
+
+        String text = metrics.render();
+        assertTrue(text.contains("errors_total{type=\"Bad \\\"quote\\\"\"} 3\n"));
+        assertTrue(text.contains("games 7\n"));
+        assertTrue(text.contains("jvm_memory_bytes_used{area=\"heap\"} "));
+        assertThrows(IllegalArgumentException.class, () -> metrics.histogram("games", "Games."));
+        assertThrows(IllegalArgumentException.class, () -> metrics.counter("odd_total", "Odd.", "type"));
+    }
+
+    @Test
+    void testServerReportsRequestsActionsAndGames() {
+        GameApi api = new GameApi(null);
+        try {
+            api.handle(new HttpRequest("POST", "/games", Map.of(), Map.of(),
+                    "{\"playerAGod\":\"Pan\",\"playerBGod\":\"Apollo\"}".getBytes(StandardCharsets.UTF_8)));
+            api.handle(new HttpRequest("POST", "/action", Map.of(), Map.of(),
+                    "{\"actionType\":\"placeWorker\",\"x\":0,\"y\":0}".getBytes(StandardCharsets.UTF_8)));
+            api.handle(new HttpRequest("GET", "/legal-actions", Map.of(), Map.of(), new byte[0]));
+            api.handle(new HttpRequest("GET", "/selectable-move-cells", Map.of("workerIndex", "x"), Map.of(), new byte[0]));
+
+            HttpResponse response = api.handle(new HttpRequest("GET", "/metrics", Map.of(), Map.of(), new byte[0]));
+            assertEquals(HttpResponse.OK, response.getStatus());
+            assertEquals(Metrics.CONTENT_TYPE, response.getContentType());
+            String text = new String(response.getBody(), StandardCharsets.UTF_8);
+            assertTrue(text.contains("santorini_http_requests_total{endpoint=\"/action\",method=\"POST\",status=\"200\"} 1\n"));
+            assertTrue(text.contains("santorini_http_request_duration_seconds_count{endpoint=\"/games\",method=\"POST\"} 1\n"));
+            assertTrue(text.contains("santorini_action_duration_seconds_count{god=\"Default\",action=\"placeWorker\"} 1\n"));
+            assertTrue(text.contains("santorini_move_generation_seconds_count{god=\"Default\",kind=\"legal-actions\"} 1\n"));
+            assertTrue(text.contains("santorini_errors_total{type=\"NumberFormatException\"} 1\n"));
+            assertTrue(text.contains("santorini_games_started_total 1\n"));
+            assertTrue(text.contains("santorini_games_active 2\n"));
+        } finally {
+            api.close();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package org.example.server;
+
+import org.example.GameApi;
+import org.json.JSONObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NioHttpServerTest {
+    private static final int WORKERS = 4;
+
+    private GameApi api;
+    private ExecutorService workers;
+    private NioHttpServer server;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        api = new GameApi(null);
+        workers = Executors.newFixedThreadPool(WORKERS);
+        server = new NioHttpServer(0, api, 2, workers);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+        workers.shutdownNow();
+        api.close();
+    }
+
+    @Test
+    void testServesFixedAndStreamedResponsesOverKeepAlive() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            HttpURLConnection connection = open("/game-state");
+            assertEquals(200, connection.getResponseCode());
+            JSONObject state = new JSONObject(new String(connection.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+            assertEquals("In Progress", state.getString("status"));
+        }
+
+        HttpURLConnection batch = post("/evaluate-batch", "0000000000000000000000000 6,18 8,16 A\nnot a position\n");
+        assertEquals(200, batch.getResponseCode());
+        String[] lines = new String(batch.getInputStream().readAllBytes(), StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(new JSONObject(lines[1]).has("error"));
+    }
+
+    @Test
+    void testPostBodyReachesHandler() throws Exception {
+        HttpURLConnection created = post("/games", "{playerAGod:'Apollo',playerBGod:'Pan'}");
+        assertEquals(201, created.getResponseCode());
+        JSONObject body = new JSONObject(new String(created.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+
+        HttpURLConnection state = open("/games/" + body.getString("gameId") + "/state");
+        assertEquals(200, state.getResponseCode());
+        assertTrue(new String(state.getInputStream().readAllBytes(), StandardCharsets.UTF_8).contains("Apollo"));
+
+        assertEquals(404, open("/games/missing/state").getResponseCode());
+    }
+
+    @Test
+    void testSpectatorsAreSentEachNewVersion() throws Exception {
+        HttpURLConnection spectator = open("/spectate");
+        spectator.setReadTimeout(5000);
+        assertEquals(200, spectator.getResponseCode());
+        assertEquals("text/event-stream", spectator.getContentType());
+        InputStream events = spectator.getInputStream();
+        assertTrue(readEvent(events).startsWith("id: 0\n"));
+
+        assertEquals(200, post("/action", "{actionType:'placeWorker',x:0,y:0}").getResponseCode());
+        assertTrue(readEvent(events).startsWith("id: 1\n"));
+        assertEquals(200, open("/game-state").getResponseCode(), "The server is still serving other requests.");
+        spectator.disconnect();
+    }
+
+    @Test
+    void testEventStreamsDoNotHoldWorkers() throws Exception {
+        List<HttpURLConnection> subscribers = new ArrayList<>();
+        for (int i = 0; i < 3 * WORKERS; i++) {
+            HttpURLConnection events = open("/events");
+            events.setReadTimeout(5000);
+            assertTrue(readEvent(events.getInputStream()).startsWith("id: 0\n"));
+            subscribers.add(events);
+        }
+
+        HttpURLConnection state = open("/game-state");
+        state.setReadTimeout(5000);
+        assertEquals(200, state.getResponseCode(), "Plain requests are still served.");
+        assertEquals(200, post("/action", "{actionType:'placeWorker',x:0,y:0}").getResponseCode());
+        for (HttpURLConnection events : subscribers) {
+            assertTrue(readEvent(events.getInputStream()).startsWith("id: 1\n"));
+            events.disconnect();
+        }
+    }
+
+    private static String readEvent(InputStream in) throws Exception {
+        StringBuilder event = new StringBuilder();
+        while (event.length() < 2 || !event.substring(event.length() - 2).equals("\n\n")) {
+            int next = in.read();
+            if (next == -1) break;
+            event.append((char) next);
+        }
+        return event.toString();
+    }
+
+    private HttpURLConnection open(String path) throws Exception {
+        return (HttpURLConnection) new URL("http://localhost:" + server.getPort() + path).openConnection();
+    }
+
+    private HttpURLConnection post(String path, String body) throws Exception {
+        HttpURLConnection connection = open(path);
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+        return connection;
+    }
+}
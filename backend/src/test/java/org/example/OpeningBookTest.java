@@ -0,0 +1,60 @@
+package org.example.engine;
+
+import org.example.Game;
+import org.example.gods.ApolloGodStrategy;
+import org.example.gods.DefaultGodStrategy;
+import org.example.gods.PanGodStrategy;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OpeningBookTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testLookupFindsSymmetricPositionsAndKeepsDeepestEntry() throws Exception {
+        Game game = new Game(new ApolloGodStrategy(), new PanGodStrategy());
+        game.placeWorker(0, 1);
+
+        OpeningBook.Builder builder = new OpeningBook.Builder();
+        builder.add(game, Action.placeWorker(1, 2), 10, 1);
+        builder.add(game, Action.placeWorker(2, 2), 30, 2);
+        builder.add(new Game(new ApolloGodStrategy(), new PanGodStrategy()), Action.placeWorker(2, 2), 5, 2);
+        assertEquals(2, builder.write(dir.resolve("book.bin")), "Duplicate positions should be merged.");
+
+        OpeningBook book = OpeningBook.open(dir.resolve("book.bin"));
+        assertEquals(2, book.size());
+
+        Game mirrored = new Game(new ApolloGodStrategy(), new PanGodStrategy());
+        mirrored.placeWorker(4, 1);
+        OpeningBook.Move move = book.lookup(mirrored);
+        assertEquals(Action.placeWorker(2, 2), move.getAction(), "The deepest entry should win.");
+        assertEquals(2, move.getDepth());
+        assertEquals(30, move.getScore());
+
+        Game rotated = new Game(new ApolloGodStrategy(), new PanGodStrategy());
+        rotated.placeWorker(1, 4);
+        builder = new OpeningBook.Builder();
+        builder.add(game, Action.placeWorker(0, 2), 0, 1);
+        builder.write(dir.resolve("book.bin"));
+        assertEquals(Action.placeWorker(2, 4), OpeningBook.open(dir.resolve("book.bin")).lookup(rotated).getAction(),
+                "Book moves should be rotated onto the requesting game.");
+    }
+
+    @Test
+    void testLookupDistinguishesGodPairs() throws Exception {
+        OpeningBook.Builder builder = new OpeningBook.Builder();
+        builder.add(new Game(new ApolloGodStrategy(), new PanGodStrategy()), Action.placeWorker(2, 2), 0, 1);
+        builder.write(dir.resolve("book.bin"));
+
+        OpeningBook book = OpeningBook.open(dir.resolve("book.bin"));
+        assertNotNull(book.lookup(new Game(new ApolloGodStrategy(), new PanGodStrategy())));
+        assertNull(book.lookup(new Game(new PanGodStrategy(), new ApolloGodStrategy())));
+        assertNull(book.lookup(new Game(new DefaultGodStrategy(), new DefaultGodStrategy())));
+    }
+}
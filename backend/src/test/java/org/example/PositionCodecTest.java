@@ -0,0 +1,41 @@
+package org.example.engine;
+
+import org.example.Game;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PositionCodecTest {
+
+    @Test
+    void testRoundTrip() throws Exception {
+        String code = "0120000000000000000000004 6,18 8,16 B apollo pan";
+        Game game = PositionCodec.decode(code);
+
+        assertEquals(Game.GamePhase.MOVE, game.getCurrentPhase());
+        assertEquals(game.getPlayerB(), game.getCurrentPlayer());
+        assertEquals(2, game.getBoard().getTowerHeight(0, 2));
+        assertEquals(4, game.getBoard().getTowerHeight(4, 4));
+        assertNotNull(game.getBoard().getWorkerAt(1, 1));
+        assertEquals("Apollo", game.getPlayerA().getGodStrategy().getName());
+        assertEquals(code, PositionCodec.encode(game));
+    }
+
+    @Test
+    void testPlacementPosition() throws Exception {
+        Game game = PositionCodec.decode("0000000000000000000000000 6,18 - B");
+        assertEquals(Game.GamePhase.PLACEMENT, game.getCurrentPhase());
+        assertEquals(game.getPlayerB(), game.getCurrentPlayer());
+        assertThrows(IllegalArgumentException.class,
+                () -> PositionCodec.decode("0000000000000000000000000 6,18 - A"));
+    }
+
+    @Test
+    void testMalformedPositions() {
+        assertThrows(IllegalArgumentException.class, () -> PositionCodec.decode("000 6,18 8,16 A"));
+        assertThrows(IllegalArgumentException.class,
+                () -> PositionCodec.decode("0000000000000000000000000 6,6 8,16 A"));
+        assertThrows(IllegalArgumentException.class,
+                () -> PositionCodec.decode("0000000000000000000000000 6,18 8,16 C"));
+    }
+}
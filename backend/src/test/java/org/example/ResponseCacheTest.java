@@ -0,0 +1,24 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseCacheTest {
+
+    @Test
+    void testEntriesOnlyServeTheirVersion() {
+        ResponseCache cache = new ResponseCache();
+        byte[] state = {1};
+        cache.put(3, "state", state);
+        cache.put(3, "move:0", new byte[]{2});
+        assertSame(state, cache.get(3, "state"));
+        assertNull(cache.get(4, "state"));
+
+        cache.put(4, "state", new byte[]{3});
+        assertNull(cache.get(3, "move:0"), "A newer version drops everything older.");
+        cache.put(3, "move:1", new byte[]{4});
+        assertNull(cache.get(3, "move:1"), "Responses built for an old version are not cached.");
+        assertArrayEquals(new byte[]{3}, cache.get(4, "state"));
+    }
+}
@@ -0,0 +1,56 @@
+package org.example;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedExecutorTest {
+
+    private final ShardedExecutor executor = new ShardedExecutor(4, "test-shard");
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void testSameKeyAlwaysRunsOnOneThread() throws Exception {
+        String first = executor.call("game-1", () -> Thread.currentThread().getName());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(first, executor.call("game-1", () -> Thread.currentThread().getName()));
+        }
+        assertEquals("test-shard-" + executor.shardOf("game-1"), first);
+    }
+
+    @Test
+    void testTasksForOneKeyNeverOverlap() {
+        int[] counter = new int[1]; // Deliberately unsynchronized
+        List<CompletableFuture<Void>> clients = new ArrayList<>();
+        for (int c = 0; c < 8; c++) {
+            clients.add(CompletableFuture.runAsync(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    try {
+                        executor.call("game-1", () -> counter[0]++);
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+            }));
+        }
+        clients.forEach(CompletableFuture::join);
+        assertEquals(8000, counter[0]);
+    }
+
+    @Test
+    void testTaskExceptionsAreUnwrapped() {
+        Exception e = assertThrows(Exception.class, () -> executor.call("game-1", () -> {
+            throw new Exception("Not in the move phase.");
+        }));
+        assertEquals("Not in the move phase.", e.getMessage());
+    }
+}
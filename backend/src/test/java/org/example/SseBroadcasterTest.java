@@ -0,0 +1,122 @@
+package org.example.server;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SseBroadcasterTest {
+
+    private static String readFrame(InputStream in) throws Exception {
+        byte[] buffer = new byte[1024];
+        int read = in.read(buffer);
+        return read == -1 ? null : new String(buffer, 0, read, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void testSubscribersSkipToLatestVersion() throws Exception {
+        SseBroadcaster broadcaster = new SseBroadcaster();
+        broadcaster.publish(1, "{\"a\":1}");
+        InputStream first = broadcaster.subscribe();
+        assertTrue(broadcaster.hasSubscribers());
+        assertEquals("id: 1\ndata: {\"a\":1}\n\n", readFrame(first));
+
+        broadcaster.publish(2, "{\"a\":2}");
+        broadcaster.publish(3, "{\"a\":3}");
+        assertEquals("id: 3\ndata: {\"a\":3}\n\n", readFrame(first), "A lagging subscriber gets only the newest state.");
+
+        InputStream second = broadcaster.subscribe();
+        assertEquals("id: 3\ndata: {\"a\":3}\n\n", readFrame(second));
+
+        first.close();
+        second.close();
+        assertFalse(broadcaster.hasSubscribers());
+    }
+
+    @Test
+    void testDeltaSubscribersGetDeltasOnlyWhenCaughtUp() throws Exception {
+        SseBroadcaster broadcaster = new SseBroadcaster();
+        broadcaster.publish(1, "full1");
+        InputStream events = broadcaster.subscribe(true);
+        assertTrue(broadcaster.hasDeltaSubscribers());
+        assertEquals("id: 1\ndata: full1\n\n", readFrame(events));
+
+        broadcaster.publish(2, "full2", "delta2");
+        assertEquals("id: 2\ndata: delta2\n\n", readFrame(events));
+
+        broadcaster.publish(3, "full3", "delta3");
+        broadcaster.publish(4, "full4", "delta4");
+        assertEquals("id: 4\ndata: full4\n\n", readFrame(events), "A subscriber that missed a version needs the full state.");
+        events.close();
+        assertFalse(broadcaster.hasDeltaSubscribers());
+    }
+
+    @Test
+    void testHeartbeatAndClose() throws Exception {
+        SseBroadcaster broadcaster = new SseBroadcaster(10);
+        InputStream events = broadcaster.subscribe();
+        assertEquals(":\n\n", readFrame(events));
+
+        broadcaster.publish(1, "done");
+        broadcaster.close();
+        assertEquals("id: 1\ndata: done\n\n", readFrame(events), "The last state is still delivered.");
+        assertNull(readFrame(events));
+    }
+
+    @Test
+    void testReservationsShareOneFramedChunk() throws Exception {
+        SseBroadcaster broadcaster = new SseBroadcaster();
+        SseBroadcaster.Reservation first = broadcaster.reserve();
+        SseBroadcaster.Reservation second = broadcaster.reserve();
+        assertTrue(broadcaster.hasSubscribers());
+        AtomicInteger notified = new AtomicInteger();
+        first.listen(notified::incrementAndGet);
+        assertNull(first.getFrame());
+
+        broadcaster.publish(7, "{\"a\":7}");
+        assertEquals(1, notified.get());
+        assertSame(first.getFrame(), second.getFrame());
+        ByteBuffer chunk = first.getFrame().getChunk();
+        assertEquals(7, first.getFrame().getVersion());
+        assertEquals("15\r\nid: 7\ndata: {\"a\":7}\n\n\r\n", StandardCharsets.UTF_8.decode(chunk).toString());
+        assertTrue(first.getFrame().getChunk().hasRemaining(), "Each caller gets its own position.");
+
+        first.cancel();
+        first.cancel();
+        broadcaster.publish(8, "{\"a\":8}");
+        assertEquals(1, notified.get(), "A cancelled reservation is not notified.");
+        assertTrue(broadcaster.hasSubscribers());
+        second.cancel();
+        assertFalse(broadcaster.hasSubscribers());
+    }
+
+    @Test
+    void testListenersTakeDeltasOnlyWhenCaughtUp() {
+        SseBroadcaster broadcaster = new SseBroadcaster();
+        SseBroadcaster.Reservation events = broadcaster.reserve(true);
+        assertTrue(broadcaster.hasDeltaSubscribers());
+        assertNull(events.next());
+
+        broadcaster.publish(1, "full1", "delta1");
+        assertEquals("full1", data(events.next()), "The first event is always the full state.");
+        assertNull(events.next());
+        broadcaster.publish(2, "full2", "delta2");
+        assertEquals("delta2", data(events.next()));
+
+        broadcaster.publish(3, "full3", "delta3");
+        broadcaster.publish(4, "full4", "delta4");
+        assertEquals("full4", data(events.next()), "A listener that missed a version needs the full state.");
+        events.cancel();
+        assertFalse(broadcaster.hasDeltaSubscribers());
+        assertFalse(broadcaster.hasSubscribers());
+    }
+
+    private static String data(ByteBuffer chunk) {
+        String text = StandardCharsets.UTF_8.decode(chunk).toString();
+        return text.substring(text.indexOf("data: ") + 6, text.indexOf("\n\n"));
+    }
+}
@@ -0,0 +1,49 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StateHistoryTest {
+
+    @Test
+    void testDeltaListsChangedCellsAndWorkerMoves() throws Exception {
+        Game game = new Game();
+        StateHistory history = new StateHistory(8);
+        history.record(0, game);
+        game.placeWorker(0, 0);
+        game.placeWorker(4, 4);
+        game.placeWorker(0, 4);
+        game.placeWorker(4, 0);
+        history.record(4, game);
+
+        game.moveWorker(0, 1, 1);
+        game.build(2, 2);
+
+        StateHistory.Delta delta = history.since(4, game);
+        assertEquals(List.of(0, 6, 12), delta.getCells(), "The vacated, entered and built squares changed.");
+        assertEquals(1, delta.getWorkerMoves().size());
+        assertArrayEquals(new int[]{0, 0}, delta.getWorkerMoves().get(0));
+
+        StateHistory.Delta fromStart = history.since(0, game);
+        assertEquals(4, fromStart.getWorkerMoves().size());
+        assertEquals(-1, fromStart.getWorkerMoves().get(0)[1], "Workers placed since have no earlier square.");
+    }
+
+    @Test
+    void testUnknownOrEvictedVersionsHaveNoDelta() throws Exception {
+        Game game = new Game();
+        StateHistory history = new StateHistory(2);
+        history.record(0, game);
+        history.record(1, game);
+        history.record(2, game);
+
+        assertNull(history.since(0, game), "The oldest version should have been dropped.");
+        assertNotNull(history.since(1, game));
+        assertNull(history.since(3, game));
+        history.clear();
+        assertNull(history.since(2, game));
+    }
+}
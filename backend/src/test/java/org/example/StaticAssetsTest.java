@@ -0,0 +1,70 @@
+package org.example.server;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StaticAssetsTest {
+
+    private static HttpRequest get(String uri, Map<String, String> headers) {
+        return new HttpRequest("GET", uri, Map.of(), headers, new byte[0]);
+    }
+
+    @Test
+    void testServesGzipVariantsAndRevalidates(@TempDir Path root) throws Exception {
+        String html = "<html><body>" + "<p>Santorini</p>".repeat(200) + "</body></html>";
+        Files.writeString(root.resolve("index.html"), html);
+        Files.createDirectories(root.resolve("js"));
+        Files.writeString(root.resolve("js/main.3f2a9c1e.js"), "console.log('x');".repeat(100));
+        StaticAssets assets = StaticAssets.load(root, "/static/");
+
+        HttpResponse plain = assets.serve("/static/index.html", get("/", Map.of()));
+        assertEquals(HttpResponse.OK, plain.getStatus());
+        assertEquals("text/html", plain.getContentType());
+        assertEquals(html, new String(plain.getBody(), StandardCharsets.UTF_8));
+        assertEquals("no-cache", plain.getHeaders().get("Cache-Control"));
+
+        HttpResponse gzipped = assets.serve("/static/index.html", get("/", Map.of("accept-encoding", "gzip, deflate")));
+        assertEquals("gzip", gzipped.getHeaders().get("Content-Encoding"));
+        assertTrue(gzipped.getContentLength() < html.length());
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped.getBody()))) {
+            assertEquals(html, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        assertNotEquals(plain.getHeaders().get("ETag"), gzipped.getHeaders().get("ETag"));
+
+        HttpResponse revalidated = assets.serve("/static/index.html",
+                get("/", Map.of("if-none-match", plain.getHeaders().get("ETag"))));
+        assertEquals(HttpResponse.NOT_MODIFIED, revalidated.getStatus());
+        String listed = "\"other\", W/" + plain.getHeaders().get("ETag");
+        assertEquals(HttpResponse.NOT_MODIFIED,
+                assets.serve("/static/index.html", get("/", Map.of("if-none-match", listed))).getStatus());
+        assertEquals(HttpResponse.NOT_MODIFIED,
+                assets.serve("/static/index.html", get("/", Map.of("if-none-match", "*"))).getStatus());
+
+        assertTrue(assets.serve("/static/js/main.3f2a9c1e.js", get("/", Map.of()))
+                .getHeaders().get("Cache-Control").contains("immutable"));
+        assertNull(assets.serve("/static/../pom.xml", get("/", Map.of())));
+    }
+
+    @Test
+    void testServesLargeFilesFromMappedBuffers(@TempDir Path root) throws Exception {
+        byte[] image = new byte[StaticAssets.MAPPED_BYTES * 2];
+        new Random(1).nextBytes(image);
+        Files.write(root.resolve("board.png"), image);
+        StaticAssets assets = StaticAssets.load(root, "/static/");
+
+        HttpResponse response = assets.serve("/static/board.png", get("/static/board.png", Map.of("accept-encoding", "gzip")));
+        assertTrue(response.getBodyBuffer().isDirect());
+        assertNull(response.getHeaders().get("Content-Encoding"));
+        assertArrayEquals(image, response.getBody());
+    }
+}
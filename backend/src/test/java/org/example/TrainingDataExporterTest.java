@@ -0,0 +1,53 @@
+package org.example.tools;
+
+import org.example.engine.FeatureEncoder;
+import org.example.engine.TurnGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrainingDataExporterTest {
+
+    @Test
+    void testColumnsMatchTheManifest(@TempDir Path dir) throws Exception {
+        TurnGenerator.quietLogging();
+        long records = new TrainingDataExporter(dir, 6, 2, 40, 5).export();
+        assertTrue(records > 0);
+
+        Properties manifest = new Properties();
+        try (Reader reader = Files.newBufferedReader(dir.resolve("features.properties"))) {
+            manifest.load(reader);
+        }
+        assertEquals(String.valueOf(records), manifest.getProperty("records"));
+        assertEquals(records * FeatureEncoder.HEIGHT_WIDTH, Files.size(dir.resolve("heights.u8")));
+        assertEquals(records * FeatureEncoder.WORKER_WIDTH, Files.size(dir.resolve("workers.u8")));
+        assertEquals(records * FeatureEncoder.GOD_WIDTH, Files.size(dir.resolve("gods.u8")));
+        assertEquals(records, Files.size(dir.resolve("side.u8")));
+        assertEquals(4 * records, Files.size(dir.resolve("outcome.f32")));
+    }
+
+    @Test
+    void testOutputFailureStopsThePlayers(@TempDir Path dir) throws Exception {
+        TurnGenerator.quietLogging();
+        Files.createDirectory(dir.resolve("outcome.f32")); // The writer cannot open its last column
+        TrainingDataExporter exporter = new TrainingDataExporter(dir, 100_000, 2, 40, 5);
+        assertThrows(IOException.class, exporter::export);
+        assertFalse(Files.exists(dir.resolve("features.properties")));
+
+        // Players left blocked on the full queue would keep the JVM alive
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            while (Thread.getAllStackTraces().keySet().stream()
+                    .anyMatch(thread -> thread.getName().equals(TrainingDataExporter.THREAD_NAME))) {
+                Thread.sleep(20);
+            }
+        });
+    }
+}
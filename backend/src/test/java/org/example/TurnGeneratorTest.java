@@ -0,0 +1,104 @@
+package org.example.engine;
+
+import org.example.Game;
+import org.example.gods.ArtemisGodStrategy;
+import org.example.gods.DefaultGodStrategy;
+import org.example.gods.DemeterGodStrategy;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TurnGeneratorTest {
+
+    private static Game placed(Game game) throws Exception {
+        game.placeWorker(0, 0); // A1
+        game.placeWorker(4, 4); // A2
+        game.placeWorker(0, 4); // B1
+        game.placeWorker(4, 0); // B2
+        return game;
+    }
+
+    @Test
+    void testPlacementActionsCoverEmptySquares() {
+        Game game = new Game(new DefaultGodStrategy(), new DefaultGodStrategy());
+        assertEquals(25, TurnGenerator.legalActions(game).size(), "Every square should be available for placement.");
+    }
+
+    @Test
+    void testDefaultTurnsAreMoveThenBuild() throws Exception {
+        Game game = placed(new Game(new DefaultGodStrategy(), new DefaultGodStrategy()));
+        List<Turn> turns = TurnGenerator.completeTurns(game);
+
+        assertFalse(turns.isEmpty(), "There should be legal turns.");
+        for (Turn turn : turns) {
+            assertEquals(2, turn.getActions().size(), "A default turn is one move and one build.");
+            assertEquals(Action.Type.MOVE, turn.getActions().get(0).getType());
+            assertEquals(Action.Type.BUILD, turn.getActions().get(1).getType());
+            assertEquals(game.getPlayerB().getName(), turn.getResult().getCurrentPlayer().getName());
+        }
+        assertEquals(Game.GamePhase.MOVE, game.getCurrentPhase(), "Generating turns must not modify the game.");
+        assertEquals(0, game.getBoard().getTowerHeight(1, 1), "Generating turns must not modify the board.");
+    }
+
+    @Test
+    void testOptionalExtraActionsAreExpanded() throws Exception {
+        Game demeter = placed(new Game(new DemeterGodStrategy(), new DefaultGodStrategy()));
+        assertTrue(TurnGenerator.completeTurns(demeter).stream().anyMatch(t -> t.getActions().size() == 3),
+                "Demeter turns should include a second build.");
+
+        Game artemis = placed(new Game(new ArtemisGodStrategy(), new DefaultGodStrategy()));
+        assertTrue(TurnGenerator.completeTurns(artemis).stream().anyMatch(
+                t -> t.getActions().get(1).getType() == Action.Type.MOVE),
+                "Artemis turns should include a second move.");
+    }
+
+    @Test
+    void testWinningTurnIsDetected() throws Exception {
+        Game game = placed(new Game(new DefaultGodStrategy(), new DefaultGodStrategy()));
+        game.getBoard().setTowerHeight(0, 0, 2);
+        game.getBoard().setTowerHeight(1, 1, 3);
+
+        assertTrue(TurnGenerator.completeTurns(game).stream().anyMatch(Turn::isWinning),
+                "Stepping from level 2 onto level 3 should be a winning turn.");
+    }
+
+    @Test
+    void testOnlySimulationsAreQuieted() throws Exception {
+        TurnGenerator.quietSimulations();
+        TurnGenerator.restoreLogging(); // Other tests quiet all logging
+        List<LogRecord> records = Collections.synchronizedList(new ArrayList<>());
+        Handler handler = new Handler() {
+            @Override
+            public void publish(LogRecord record) {
+                records.add(record);
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        Logger gods = Logger.getLogger("org.example.gods");
+        gods.addHandler(handler);
+        try {
+            Game game = placed(new Game(new DefaultGodStrategy(), new DefaultGodStrategy()));
+            assertFalse(TurnGenerator.completeTurns(game).isEmpty());
+            assertTrue(records.isEmpty(), "Simulated play should not log.");
+
+            game.getSelectableMoveCells(0);
+            assertFalse(records.isEmpty(), "Live play should still log.");
+        } finally {
+            gods.removeHandler(handler);
+        }
+    }
+}
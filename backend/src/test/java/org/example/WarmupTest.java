@@ -0,0 +1,52 @@
+package org.example;
+
+import org.example.engine.TurnGenerator;
+import org.example.server.HttpRequest;
+import org.example.server.HttpResponse;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WarmupTest {
+
+    private static HttpResponse get(GameApi api, String uri) {
+        return api.handle(new HttpRequest("GET", uri, Map.of(), Map.of(), new byte[0]));
+    }
+
+    @Test
+    void testGamesArePlayedToTheEndAndCleanedUp() throws Exception {
+        TurnGenerator.quietLogging();
+        GameApi api = new GameApi(null);
+        try {
+            int requests = Warmup.run(api, 6, 3);
+            // Each game is created, played for at least its four placements and deleted
+            assertTrue(requests >= 6 * (2 + 4 * 3));
+            String metrics = new String(get(api, "/metrics").getBody(), StandardCharsets.UTF_8);
+            assertTrue(metrics.contains("santorini_games_started_total 6\n"));
+            assertTrue(metrics.contains("santorini_games_active 1\n"));
+            assertTrue(metrics.contains("endpoint=\"/games/{id}/actions\""));
+            assertFalse(metrics.contains("santorini_errors_total"));
+        } finally {
+            api.close();
+        }
+    }
+
+    @Test
+    void testReadinessFollowsTheFlag() {
+        GameApi api = new GameApi(null);
+        try {
+            assertEquals(HttpResponse.OK, get(api, "/ready").getStatus());
+            api.setReady(false);
+            HttpResponse notReady = get(api, "/ready");
+            assertEquals(HttpResponse.SERVICE_UNAVAILABLE, notReady.getStatus());
+            assertEquals("{\"ready\":false}", new String(notReady.getBody(), StandardCharsets.UTF_8));
+            api.setReady(true);
+        } finally {
+            api.close();
+        }
+        assertEquals(HttpResponse.SERVICE_UNAVAILABLE, get(api, "/ready").getStatus());
+    }
+}
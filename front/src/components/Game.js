@@ -1,5 +1,5 @@
 // src/components/Game.js
-import React, { useState, useEffect } from 'react';
+import React, { useState, useEffect, useRef } from 'react';
 import axios from 'axios';
 import Board from './Board';
 import StatusBar from './StatusBar';
@@ -32,6 +32,8 @@ function Game() {
     const [awaitingSecondMoveDecision, setAwaitingSecondMoveDecision] = useState(false);
     const [awaitingBuildBeforeMoveDecision, setAwaitingBuildBeforeMoveDecision] = useState(false);
     const [currentPlayerGod, setCurrentPlayerGod] = useState('');
+    // Newest game version shown, so that pushed states never replace newer ones
+    const lastVersion = useRef(-1);
     const godOptions = [
         'Apollo',
         'Artemis',
@@ -100,6 +102,28 @@ function Game() {
         }
     }, [gameState]);
 
+    // Follow the game over Server-Sent Events instead of re-fetching /game-state after each change
+    useEffect(() => {
+        if (!isGameStarted) return undefined;
+        const events = new EventSource(`${axios.defaults.baseURL}/events`);
+        events.onmessage = (event) => {
+            const state = JSON.parse(event.data);
+            if (state.version > lastVersion.current) {
+                lastVersion.current = state.version;
+                setGameState(state);
+            }
+        };
+        return () => events.close();
+    }, [isGameStarted]);
+
+    // Show a state returned by the backend
+    const showGameState = (state) => {
+        if (state.version !== undefined) {
+            lastVersion.current = Math.max(lastVersion.current, state.version);
+        }
+        setGameState(state);
+    };
+
     // Start a new game
     const startNewGame = async () => {
         setLoading(true);
@@ -109,7 +133,7 @@ function Game() {
                 playerBGod,
             });
             console.log('Game state after restart:', response.data);
-            setGameState(response.data);
+            showGameState(response.data);
             setSelectableCells([]);
             setSelectedWorker(null);
             setErrorMessage('');
@@ -136,16 +160,6 @@ function Game() {
         setWinner(null);
     };
 
-    // Fetch the latest game state from the backend
-    const fetchGameState = async () => {
-        try {
-            const response = await axios.get('/game-state');
-            setGameState(response.data);
-        } catch (error) {
-            setErrorMessage('Failed to fetch game state.');
-        }
-    };
-
     // Handle cell clicks based on game phase
     const handleCellClick = async (x, y) => {
         console.log(`Cell clicked: x=${x}, y=${y}`);
@@ -161,7 +175,7 @@ function Game() {
                     x,
                     y,
                 });
-                setGameState(response.data);
+                showGameState(response.data);
                 setSelectableCells([]);
                 setSelectedWorker(null);
             } else if (gamePhase === 'MOVE') {
@@ -174,7 +188,7 @@ function Game() {
                             x,
                             y,
                         });
-                        setGameState(response.data);
+                        showGameState(response.data);
                         setSelectableCells([]);
                         setSelectedWorker(null);
                     } else {
@@ -218,10 +232,8 @@ function Game() {
                         x,
                         y,
                     });
-                    setGameState(response.data);
+                    showGameState(response.data);
                     setSelectableCells([]);
-                    // After building before move, fetch the updated game state
-                    fetchGameState();
                 } else {
                     setErrorMessage('No worker selected for building.');
                 }
@@ -240,7 +252,7 @@ function Game() {
                             buildData.buildDome = buildDomeOption;
                         }
                         const response = await axios.post('/action', buildData);
-                        setGameState(response.data);
+                        showGameState(response.data);
 
                         // Update strategyState
                         const gs = response.data.strategyState || {};
@@ -316,9 +328,8 @@ function Game() {
     // Handler for Artemis's extra move (No)
     const handleSecondMoveNo = async () => {
         try {
-            await axios.post('/action', { actionType: 'endTurn' });
-            const response = await axios.get('/game-state');
-            setGameState(response.data);
+            const response = await axios.post('/action', { actionType: 'endTurn' });
+            showGameState(response.data);
         } catch (error) {
             setErrorMessage(error.response?.data?.error || 'Failed to end turn.');
         }
@@ -336,10 +347,8 @@ function Game() {
             if (cells.length === 0) {
                 setErrorMessage('No valid build locations for second build.');
                 // Inform the backend that the player ends their turn
-                await axios.post('/action', { actionType: 'endTurn' });
-                // Fetch updated game state
-                const gameStateResponse = await axios.get('/game-state');
-                setGameState(gameStateResponse.data);
+                const endTurnResponse = await axios.post('/action', { actionType: 'endTurn' });
+                showGameState(endTurnResponse.data);
             } else {
                 setSelectableCells(cells);
             }
@@ -354,7 +363,7 @@ function Game() {
         try {
             // Inform the backend that the player ends their turn
             const response = await axios.post('/action', { actionType: 'endTurn' });
-            setGameState(response.data);
+            showGameState(response.data);
         } catch (error) {
             setErrorMessage(error.response?.data?.error || 'Failed to end turn.');
         }
@@ -384,9 +393,8 @@ function Game() {
     // Handler for ending Hermes's move
     const handleEndMove = async () => {
         try {
-            await axios.post('/action', { actionType: 'endTurn' });
-            const response = await axios.get('/game-state');
-            setGameState(response.data);
+            const response = await axios.post('/action', { actionType: 'endTurn' });
+            showGameState(response.data);
         } catch (error) {
             setErrorMessage(error.response?.data?.error || 'Failed to end turn.');
         }